@@ -0,0 +1,235 @@
+package edu.universidad.estructura;
+
+import java.util.Arrays;
+
+/**
+ * Árbol completo de caminos mínimos desde un origen, congelado en arreglos
+ * Sirve para responder cualquier consulta desde ese origen recorriendo
+ * predecesores, sin volver a ejecutar Dijkstra
+ */
+public class ArbolCaminos {
+
+    private final int origen;
+    private final long version;
+    private final double[] distancia;
+    private final int[] previo;
+
+    public ArbolCaminos(int origen, long version, double[] distancia, int[] previo) {
+        this.origen = origen;
+        this.version = version;
+        this.distancia = distancia;
+        this.previo = previo;
+    }
+
+    /**
+     * Copia el árbol que dejó una búsqueda completa (destino = -1)
+     */
+    public static ArbolCaminos desde(BusquedaDijkstra busqueda, int numNodos, int origen, long version) {
+        double[] distancia = new double[numNodos];
+        int[] previo = new int[numNodos];
+        for (int v = 0; v < numNodos; v++) {
+            distancia[v] = busqueda.distancia(v);
+            previo[v] = busqueda.previo(v);
+        }
+        return new ArbolCaminos(origen, version, distancia, previo);
+    }
+
+    /**
+     * Memoria aproximada que ocupan los arreglos del árbol
+     */
+    public static long bytesPara(int numNodos) {
+        return 64L + numNodos * (8L + 4L);
+    }
+
+    public int getOrigen() {
+        return origen;
+    }
+
+    /**
+     * Versión del grafo con la que se calculó el árbol
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getNumNodos() {
+        return distancia.length;
+    }
+
+    public double distancia(int nodo) {
+        return distancia[nodo];
+    }
+
+    public int previo(int nodo) {
+        return previo[nodo];
+    }
+
+    /**
+     * Camino de índices desde el origen hasta destino (vacío si no es alcanzable)
+     */
+    public int[] camino(int destino) {
+        if (distancia[destino] == Double.POSITIVE_INFINITY) {
+            return new int[0];
+        }
+        int largo = 0;
+        for (int v = destino; v >= 0; v = previo[v]) largo++;
+        int[] camino = new int[largo];
+        for (int v = destino; v >= 0; v = previo[v]) {
+            camino[--largo] = v;
+        }
+        return camino;
+    }
+
+    /**
+     * Repara el árbol después de cambiar el peso de la arista u -> v
+     * (g ya tiene el peso nuevo). Solo recalcula la parte afectada:
+     * - si el peso baja, propaga la mejora desde v
+     * - si sube y la arista está en el árbol, recalcula el subárbol de v
+     *   partiendo de sus vecinos entrantes que no pertenecen a él
+     * Retorna un árbol para la versión indicada; este no se modifica y, si
+     * el cambio no lo afecta, el nuevo comparte sus arreglos
+     */
+    public ArbolCaminos reparar(GrafoCompacto g, int u, int v, double pesoAnterior, long nuevaVersion) {
+        double pesoNuevo = g.peso(g.arista(u, v));
+        boolean mejora = pesoNuevo < pesoAnterior && distancia[u] + pesoNuevo < distancia[v];
+        boolean empeora = pesoNuevo > pesoAnterior && previo[v] == u;
+        if (!mejora && !empeora) {
+            return new ArbolCaminos(origen, nuevaVersion, distancia, previo);
+        }
+
+        if (empeora) {
+            return recalcularSubarbol(g, v, nuevaVersion);
+        }
+
+        double[] d = distancia.clone();
+        int[] p = previo.clone();
+        EspacioReparacion espacio = EspacioReparacion.delHilo(d.length);
+        d[v] = d[u] + pesoNuevo;
+        p[v] = u;
+        espacio.cola.insertarODisminuir(v, d[v]);
+        propagar(g, d, p, espacio.cola, null);
+        return new ArbolCaminos(origen, nuevaVersion, d, p);
+    }
+
+    /**
+     * Repara el árbol después de eliminar el nodo x (g ya lo tiene eliminado)
+     * Solo cambia el subárbol de x. Retorna null si x era el origen
+     */
+    public ArbolCaminos repararSinNodo(GrafoCompacto g, int x, long nuevaVersion) {
+        if (x == origen) {
+            return null;
+        }
+        if (previo[x] < 0) {
+            return new ArbolCaminos(origen, nuevaVersion, distancia, previo);
+        }
+        return recalcularSubarbol(g, x, nuevaVersion);
+    }
+
+    /**
+     * Recalcula las distancias del subárbol de raiz partiendo de sus vecinos
+     * entrantes que no pertenecen a él; el resto del árbol no cambia
+     */
+    private ArbolCaminos recalcularSubarbol(GrafoCompacto g, int raiz, long nuevaVersion) {
+        double[] d = distancia.clone();
+        int[] p = previo.clone();
+        EspacioReparacion espacio = EspacioReparacion.delHilo(d.length);
+
+        // Subárbol de raiz: se recorre por las aristas que son del árbol
+        int[] afectados = espacio.pila;
+        int total = 0;
+        afectados[total++] = raiz;
+        espacio.marcar(raiz);
+        for (int i = 0; i < total; i++) {
+            int y = afectados[i];
+            for (int e = g.primeraArista(y), fin = g.finAristas(y); e < fin; e++) {
+                int x = g.destino(e);
+                if (p[x] == y && !espacio.marcado(x)) {
+                    espacio.marcar(x);
+                    afectados[total++] = x;
+                }
+            }
+        }
+        for (int i = 0; i < total; i++) {
+            int x = afectados[i];
+            d[x] = Double.POSITIVE_INFINITY;
+            p[x] = -1;
+            for (int e = g.primeraAristaEntrante(x), fin = g.finAristasEntrantes(x); e < fin; e++) {
+                int y = g.origen(e);
+                if (espacio.marcado(y)) continue;
+                double candidata = distancia[y] + g.pesoEntrante(e);
+                if (candidata < d[x]) {
+                    d[x] = candidata;
+                    p[x] = y;
+                }
+            }
+            if (d[x] < Double.POSITIVE_INFINITY) {
+                espacio.cola.insertarODisminuir(x, d[x]);
+            }
+        }
+        propagar(g, d, p, espacio.cola, espacio);
+        return new ArbolCaminos(origen, nuevaVersion, d, p);
+    }
+
+    /**
+     * Dijkstra desde los nodos de la cola; si soloEn no es null solo
+     * se actualizan los nodos marcados en él
+     */
+    private static void propagar(GrafoCompacto g, double[] d, int[] p,
+                                 MonticuloIndexado cola, EspacioReparacion soloEn) {
+        while (!cola.estaVacio()) {
+            int actual = cola.extraerMinimo();
+            for (int e = g.primeraArista(actual), fin = g.finAristas(actual); e < fin; e++) {
+                int vecino = g.destino(e);
+                if (soloEn != null && !soloEn.marcado(vecino)) continue;
+                double nuevaDistancia = d[actual] + g.peso(e);
+                if (nuevaDistancia < d[vecino]) {
+                    d[vecino] = nuevaDistancia;
+                    p[vecino] = actual;
+                    cola.insertarODisminuir(vecino, nuevaDistancia);
+                }
+            }
+        }
+    }
+
+    /**
+     * Arreglos de trabajo de las reparaciones, reutilizados por hilo
+     */
+    private static final class EspacioReparacion {
+        private static final ThreadLocal<EspacioReparacion> POR_HILO =
+                ThreadLocal.withInitial(EspacioReparacion::new);
+
+        private int[] marca = new int[0];
+        private int[] pila = new int[0];
+        private int epoca;
+        private final MonticuloIndexado cola = new MonticuloIndexado(0);
+
+        static EspacioReparacion delHilo(int n) {
+            EspacioReparacion espacio = POR_HILO.get();
+            if (espacio.marca.length < n) {
+                espacio.marca = new int[n];
+                espacio.pila = new int[n];
+                espacio.cola.asegurarCapacidad(n);
+                espacio.epoca = 0;
+            }
+            if (espacio.epoca == Integer.MAX_VALUE) {
+                Arrays.fill(espacio.marca, 0);
+                espacio.epoca = 0;
+            }
+            espacio.epoca++;
+            espacio.cola.limpiar();
+            return espacio;
+        }
+
+        void marcar(int nodo) {
+            marca[nodo] = epoca;
+        }
+
+        boolean marcado(int nodo) {
+            return marca[nodo] == epoca;
+        }
+    }
+
+    public long bytes() {
+        return bytesPara(distancia.length);
+    }
+}
@@ -0,0 +1,97 @@
+package edu.universidad.estructura;
+
+import java.util.Arrays;
+
+/**
+ * Búsqueda A* sobre GrafoCompacto guiada por una CotaInferior
+ * Ordena la frontera por distancia recorrida + estimación restante
+ * Si la cota no es consistente, los nodos cuya distancia mejora se
+ * reabren, de modo que el camino devuelto sigue siendo óptimo
+ * Cada hilo obtiene su propia instancia con delHilo()
+ */
+public class BusquedaAEstrella {
+
+    private static final ThreadLocal<BusquedaAEstrella> POR_HILO =
+            ThreadLocal.withInitial(BusquedaAEstrella::new);
+
+    private double[] distancia = new double[0];
+    private int[] previo = new int[0];
+    private int[] marca = new int[0];
+    private int epoca;
+    private int nodosAsentados;
+    private final MonticuloIndexado cola = new MonticuloIndexado(0);
+
+    public static BusquedaAEstrella delHilo() {
+        return POR_HILO.get();
+    }
+
+    private void iniciar(GrafoCompacto g) {
+        int n = g.getNumNodos();
+        if (marca.length < n) {
+            distancia = new double[n];
+            previo = new int[n];
+            marca = new int[n];
+            cola.asegurarCapacidad(n);
+            epoca = 0;
+        }
+        if (epoca == Integer.MAX_VALUE) {
+            Arrays.fill(marca, 0);
+            epoca = 0;
+        }
+        epoca++;
+        nodosAsentados = 0;
+        cola.limpiar();
+    }
+
+    /**
+     * Busca el camino mínimo de origen a destino
+     * Retorna true si el destino es alcanzable
+     */
+    public boolean ejecutar(GrafoCompacto g, int origen, int destino, CotaInferior cota) {
+        iniciar(g);
+        alcanzar(origen, 0.0, -1);
+        cola.insertarODisminuir(origen, cota.estimar(origen, destino));
+
+        while (!cola.estaVacio()) {
+            int actual = cola.extraerMinimo();
+            nodosAsentados++;
+
+            if (actual == destino) {
+                return true;
+            }
+
+            double distanciaActual = distancia[actual];
+            for (int e = g.primeraArista(actual), fin = g.finAristas(actual); e < fin; e++) {
+                int vecino = g.destino(e);
+                double nuevaDistancia = distanciaActual + g.peso(e);
+                if (nuevaDistancia < distancia(vecino)) {
+                    // Si el vecino ya había salido de la frontera se reabre
+                    alcanzar(vecino, nuevaDistancia, actual);
+                    cola.insertarODisminuir(vecino, nuevaDistancia + cota.estimar(vecino, destino));
+                }
+            }
+        }
+        return false;
+    }
+
+    private void alcanzar(int nodo, double d, int padre) {
+        marca[nodo] = epoca;
+        distancia[nodo] = d;
+        previo[nodo] = padre;
+    }
+
+    public double distancia(int nodo) {
+        return marca[nodo] == epoca ? distancia[nodo] : Double.POSITIVE_INFINITY;
+    }
+
+    public int previo(int nodo) {
+        return marca[nodo] == epoca ? previo[nodo] : -1;
+    }
+
+    /**
+     * Cantidad de nodos extraídos de la frontera en la última búsqueda
+     */
+    public int getNodosAsentados() {
+        return nodosAsentados;
+    }
+}
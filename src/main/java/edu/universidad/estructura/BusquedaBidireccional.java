@@ -0,0 +1,168 @@
+package edu.universidad.estructura;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra bidireccional sobre GrafoCompacto
+ * Avanza a la vez desde el origen (aristas salientes) y desde el destino
+ * (índice inverso) y se detiene cuando la suma de los mínimos de ambas colas
+ * alcanza la mejor distancia encontrada en el punto de encuentro
+ * Cada hilo obtiene su propia instancia con delHilo()
+ */
+public class BusquedaBidireccional {
+
+    private static final ThreadLocal<BusquedaBidireccional> POR_HILO =
+            ThreadLocal.withInitial(BusquedaBidireccional::new);
+
+    private static final int ADELANTE = 0;
+    private static final int ATRAS = 1;
+
+    // Índice 0: búsqueda hacia adelante, índice 1: búsqueda hacia atrás
+    private final double[][] distancia = {new double[0], new double[0]};
+    private final int[][] previo = {new int[0], new int[0]};   // en ATRAS es el sucesor hacia el destino
+    private final int[][] marca = {new int[0], new int[0]};
+    private final int[][] asentado = {new int[0], new int[0]};
+    private final MonticuloIndexado[] colas = {new MonticuloIndexado(0), new MonticuloIndexado(0)};
+    private int epoca;
+
+    private double mejorDistancia;
+    private int encuentro;
+    private int nodosAsentados;
+
+    public static BusquedaBidireccional delHilo() {
+        return POR_HILO.get();
+    }
+
+    private void iniciar(GrafoCompacto g) {
+        int n = g.getNumNodos();
+        if (marca[0].length < n) {
+            for (int lado = 0; lado < 2; lado++) {
+                distancia[lado] = new double[n];
+                previo[lado] = new int[n];
+                marca[lado] = new int[n];
+                asentado[lado] = new int[n];
+                colas[lado].asegurarCapacidad(n);
+            }
+            epoca = 0;
+        }
+        if (epoca == Integer.MAX_VALUE) {
+            for (int lado = 0; lado < 2; lado++) {
+                Arrays.fill(marca[lado], 0);
+                Arrays.fill(asentado[lado], 0);
+            }
+            epoca = 0;
+        }
+        epoca++;
+        colas[0].limpiar();
+        colas[1].limpiar();
+        mejorDistancia = Double.POSITIVE_INFINITY;
+        encuentro = -1;
+        nodosAsentados = 0;
+    }
+
+    /**
+     * Busca el camino mínimo de origen a destino
+     * Retorna true si existe camino
+     */
+    public boolean ejecutar(GrafoCompacto g, int origen, int destino) {
+        iniciar(g);
+        alcanzar(ADELANTE, origen, 0.0, -1);
+        alcanzar(ATRAS, destino, 0.0, -1);
+        colas[ADELANTE].insertarODisminuir(origen, 0.0);
+        colas[ATRAS].insertarODisminuir(destino, 0.0);
+        if (origen == destino) {
+            mejorDistancia = 0.0;
+            encuentro = origen;
+            return true;
+        }
+
+        while (!colas[ADELANTE].estaVacio() && !colas[ATRAS].estaVacio()) {
+            // Criterio de parada estándar
+            if (colas[ADELANTE].claveMinima() + colas[ATRAS].claveMinima() >= mejorDistancia) {
+                break;
+            }
+            // Avanza el lado con la frontera más pequeña
+            int lado = colas[ADELANTE].tamanio() <= colas[ATRAS].tamanio() ? ADELANTE : ATRAS;
+            avanzar(g, lado);
+        }
+        return encuentro >= 0;
+    }
+
+    private void avanzar(GrafoCompacto g, int lado) {
+        int otro = 1 - lado;
+        int actual = colas[lado].extraerMinimo();
+        asentado[lado][actual] = epoca;
+        nodosAsentados++;
+        double distanciaActual = distancia[lado][actual];
+
+        if (lado == ADELANTE) {
+            for (int e = g.primeraArista(actual), fin = g.finAristas(actual); e < fin; e++) {
+                relajar(lado, otro, actual, g.destino(e), distanciaActual + g.peso(e));
+            }
+        } else {
+            for (int e = g.primeraAristaEntrante(actual), fin = g.finAristasEntrantes(actual); e < fin; e++) {
+                relajar(lado, otro, actual, g.origen(e), distanciaActual + g.pesoEntrante(e));
+            }
+        }
+    }
+
+    private void relajar(int lado, int otro, int actual, int vecino, double nuevaDistancia) {
+        if (asentado[lado][vecino] == epoca) return;
+        if (nuevaDistancia < distancia(lado, vecino)) {
+            alcanzar(lado, vecino, nuevaDistancia, actual);
+            colas[lado].insertarODisminuir(vecino, nuevaDistancia);
+        }
+        // Punto de encuentro con la otra búsqueda
+        double total = distancia(lado, vecino) + distancia(otro, vecino);
+        if (total < mejorDistancia) {
+            mejorDistancia = total;
+            encuentro = vecino;
+        }
+    }
+
+    private void alcanzar(int lado, int nodo, double d, int padre) {
+        marca[lado][nodo] = epoca;
+        distancia[lado][nodo] = d;
+        previo[lado][nodo] = padre;
+    }
+
+    private double distancia(int lado, int nodo) {
+        return marca[lado][nodo] == epoca ? distancia[lado][nodo] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Distancia del camino encontrado (infinito si no hay camino)
+     */
+    public double getDistancia() {
+        return mejorDistancia;
+    }
+
+    /**
+     * Nodos del camino encontrado, de origen a destino (vacío si no hay camino)
+     */
+    public int[] getCamino() {
+        if (encuentro < 0) return new int[0];
+        int mitadOrigen = 0;
+        for (int v = encuentro; v >= 0; v = previo[ADELANTE][v]) mitadOrigen++;
+        int total = mitadOrigen;
+        for (int v = previo[ATRAS][encuentro]; v >= 0; v = previo[ATRAS][v]) total++;
+
+        int[] camino = new int[total];
+        int i = mitadOrigen - 1;
+        for (int v = encuentro; v >= 0; v = previo[ADELANTE][v]) {
+            camino[i--] = v;
+        }
+        i = mitadOrigen;
+        for (int v = previo[ATRAS][encuentro]; v >= 0; v = previo[ATRAS][v]) {
+            camino[i++] = v;
+        }
+        return camino;
+    }
+
+    /**
+     * Cantidad de nodos asentados por ambas búsquedas
+     */
+    public int getNodosAsentados() {
+        return nodosAsentados;
+    }
+}
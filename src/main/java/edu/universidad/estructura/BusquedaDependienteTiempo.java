@@ -0,0 +1,104 @@
+package edu.universidad.estructura;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra dependiente del tiempo: la etiqueta de cada nodo es el instante
+ * de llegada más temprano y cada arista se evalúa en el instante en que se
+ * sale de su origen. Con perfiles FIFO esto es exacto y cuesta lo mismo que
+ * un Dijkstra estático
+ * Igual que BusquedaDijkstra reutiliza sus arreglos entre búsquedas con
+ * épocas, y cada hilo obtiene su propia instancia con delHilo()
+ */
+public class BusquedaDependienteTiempo {
+
+    private static final ThreadLocal<BusquedaDependienteTiempo> POR_HILO =
+            ThreadLocal.withInitial(BusquedaDependienteTiempo::new);
+
+    private double[] llegada = new double[0];
+    private int[] previo = new int[0];
+    private int[] marca = new int[0];
+    private int[] asentado = new int[0];
+    private int epoca;
+    private final MonticuloIndexado cola = new MonticuloIndexado(0);
+
+    public static BusquedaDependienteTiempo delHilo() {
+        return POR_HILO.get();
+    }
+
+    private void iniciar(GrafoCompacto g) {
+        int n = g.getNumNodos();
+        if (marca.length < n) {
+            llegada = new double[n];
+            previo = new int[n];
+            marca = new int[n];
+            asentado = new int[n];
+            cola.asegurarCapacidad(n);
+            epoca = 0;
+        }
+        if (epoca == Integer.MAX_VALUE) {
+            Arrays.fill(marca, 0);
+            Arrays.fill(asentado, 0);
+            epoca = 0;
+        }
+        epoca++;
+        cola.limpiar();
+    }
+
+    /**
+     * Sale de origen en el instante salida; si destino >= 0 se detiene al
+     * asentarlo. Retorna true si el destino fue alcanzado
+     */
+    public boolean ejecutar(GrafoCompacto g, PerfilesTiempo perfiles, int origen, double salida, int destino) {
+        iniciar(g);
+        marca[origen] = epoca;
+        llegada[origen] = salida;
+        previo[origen] = -1;
+        cola.insertarODisminuir(origen, salida);
+
+        while (!cola.estaVacio()) {
+            int actual = cola.extraerMinimo();
+            asentado[actual] = epoca;
+            if (actual == destino) return true;
+
+            double instante = llegada[actual];
+            for (int e = g.primeraArista(actual), fin = g.finAristas(actual); e < fin; e++) {
+                int vecino = g.destino(e);
+                if (asentado[vecino] == epoca) continue;
+                double nueva = perfiles.llegada(g, e, instante);
+                if (nueva < llegada(vecino)) {
+                    marca[vecino] = epoca;
+                    llegada[vecino] = nueva;
+                    previo[vecino] = actual;
+                    cola.insertarODisminuir(vecino, nueva);
+                }
+            }
+        }
+        return destino < 0;
+    }
+
+    /**
+     * Instante de llegada más temprano al nodo (infinito si no fue alcanzado)
+     */
+    public double llegada(int nodo) {
+        return marca[nodo] == epoca ? llegada[nodo] : Double.POSITIVE_INFINITY;
+    }
+
+    public int previo(int nodo) {
+        return marca[nodo] == epoca ? previo[nodo] : -1;
+    }
+
+    /**
+     * Camino de índices desde el origen hasta destino (vacío si no se alcanzó)
+     */
+    public int[] camino(int destino) {
+        if (llegada(destino) == Double.POSITIVE_INFINITY) return new int[0];
+        int largo = 0;
+        for (int v = destino; v >= 0; v = previo(v)) largo++;
+        int[] camino = new int[largo];
+        for (int v = destino; v >= 0; v = previo(v)) {
+            camino[--largo] = v;
+        }
+        return camino;
+    }
+}
@@ -0,0 +1,192 @@
+package edu.universidad.estructura;
+
+import java.util.Arrays;
+
+/**
+ * Motor de Dijkstra sobre GrafoCompacto con distancias double exactas
+ * Reutiliza sus arreglos entre búsquedas: cada búsqueda abre una nueva
+ * "época" y solo los nodos marcados con la época actual se consideran
+ * inicializados, así no hay que limpiar arreglos de tamaño n ni crear objetos
+ * Cada hilo obtiene su propia instancia con delHilo()
+ */
+public class BusquedaDijkstra {
+
+    private static final ThreadLocal<BusquedaDijkstra> POR_HILO =
+            ThreadLocal.withInitial(BusquedaDijkstra::new);
+
+    private double[] distancia = new double[0];
+    private int[] previo = new int[0];
+    private int[] marca = new int[0];      // época en que se alcanzó el nodo
+    private int[] asentado = new int[0];   // época en que se asentó el nodo
+    private int[] objetivo = new int[0];   // época en que el nodo se marcó como objetivo
+    private int[] ordenAsentados = new int[0];   // nodos en el orden en que se asentaron
+    private int epoca;
+    private int nodosAsentados;
+    private final MonticuloIndexado cola = new MonticuloIndexado(0);
+
+    /**
+     * Retorna el espacio de búsqueda reutilizable del hilo actual
+     */
+    public static BusquedaDijkstra delHilo() {
+        return POR_HILO.get();
+    }
+
+    /**
+     * Prepara una búsqueda nueva sobre el grafo dado
+     */
+    public void iniciar(GrafoCompacto g) {
+        int n = g.getNumNodos();
+        if (marca.length < n) {
+            distancia = new double[n];
+            previo = new int[n];
+            marca = new int[n];
+            asentado = new int[n];
+            objetivo = new int[n];
+            ordenAsentados = new int[n];
+            cola.asegurarCapacidad(n);
+            epoca = 0;
+        }
+        if (epoca == Integer.MAX_VALUE) {
+            Arrays.fill(marca, 0);
+            Arrays.fill(asentado, 0);
+            Arrays.fill(objetivo, 0);
+            epoca = 0;
+        }
+        epoca++;
+        nodosAsentados = 0;
+        cola.limpiar();
+    }
+
+    /**
+     * Ejecuta Dijkstra desde origen. Si destino >= 0 se detiene al asentarlo;
+     * con destino = -1 calcula el árbol completo de caminos mínimos
+     * Retorna true si el destino (o el origen, en modo árbol) fue alcanzado
+     */
+    public boolean ejecutar(GrafoCompacto g, int origen, int destino) {
+        return ejecutarAcotado(g, origen, destino, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Igual que ejecutar, pero no asienta nodos a distancia mayor que limite
+     */
+    public boolean ejecutarAcotado(GrafoCompacto g, int origen, int destino, double limite) {
+        return buscar(g, origen, destino, limite, false, null);
+    }
+
+    /**
+     * Dijkstra sobre las aristas entrantes: calcula la distancia desde cada
+     * nodo hacia raiz. Aquí previo(v) es el siguiente nodo en el camino a raiz
+     */
+    public boolean ejecutarInverso(GrafoCompacto g, int raiz, int objetivo) {
+        return buscar(g, raiz, objetivo, Double.POSITIVE_INFINITY, true, null);
+    }
+
+    /**
+     * Igual que ejecutarInverso, pero no asienta nodos a distancia mayor que limite
+     */
+    public boolean ejecutarInversoAcotado(GrafoCompacto g, int raiz, int objetivo, double limite) {
+        return buscar(g, raiz, objetivo, limite, true, null);
+    }
+
+    /**
+     * Dijkstra desde origen que se detiene en cuanto asienta todos los objetivos
+     * Retorna true si todos fueron alcanzados
+     */
+    public boolean ejecutarHacia(GrafoCompacto g, int origen, int[] objetivos) {
+        return buscar(g, origen, -1, Double.POSITIVE_INFINITY, false, objetivos);
+    }
+
+    private boolean buscar(GrafoCompacto g, int origen, int destino, double limite,
+                           boolean inverso, int[] objetivos) {
+        iniciar(g);
+        int pendientes = -1;
+        if (objetivos != null) {
+            pendientes = 0;
+            for (int t : objetivos) {
+                if (objetivo[t] != epoca) {
+                    objetivo[t] = epoca;
+                    pendientes++;
+                }
+            }
+            if (pendientes == 0) return true;
+        }
+        alcanzar(origen, 0.0, -1);
+        cola.insertarODisminuir(origen, 0.0);
+
+        while (!cola.estaVacio()) {
+            if (cola.claveMinima() > limite) break;
+            int actual = cola.extraerMinimo();
+            asentado[actual] = epoca;
+            ordenAsentados[nodosAsentados++] = actual;
+
+            if (actual == destino) {
+                return true;
+            }
+            if (pendientes > 0 && objetivo[actual] == epoca && --pendientes == 0) {
+                return true;
+            }
+
+            double distanciaActual = distancia[actual];
+            if (inverso) {
+                for (int e = g.primeraAristaEntrante(actual), fin = g.finAristasEntrantes(actual); e < fin; e++) {
+                    relajar(actual, g.origen(e), distanciaActual + g.pesoEntrante(e));
+                }
+            } else {
+                for (int e = g.primeraArista(actual), fin = g.finAristas(actual); e < fin; e++) {
+                    relajar(actual, g.destino(e), distanciaActual + g.peso(e));
+                }
+            }
+        }
+        return pendientes <= 0 && (destino < 0 || estaAsentado(destino));
+    }
+
+    private void relajar(int actual, int vecino, double nuevaDistancia) {
+        if (asentado[vecino] == epoca) return;
+        if (nuevaDistancia < distancia(vecino)) {
+            alcanzar(vecino, nuevaDistancia, actual);
+            cola.insertarODisminuir(vecino, nuevaDistancia);
+        }
+    }
+
+    private void alcanzar(int nodo, double d, int padre) {
+        marca[nodo] = epoca;
+        distancia[nodo] = d;
+        previo[nodo] = padre;
+    }
+
+    /**
+     * Distancia calculada al nodo (infinito si no fue alcanzado)
+     */
+    public double distancia(int nodo) {
+        return marca[nodo] == epoca ? distancia[nodo] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Predecesor del nodo en el árbol de caminos (-1 si no tiene)
+     */
+    public int previo(int nodo) {
+        return marca[nodo] == epoca ? previo[nodo] : -1;
+    }
+
+    /**
+     * Indica si la distancia del nodo ya es definitiva
+     */
+    public boolean estaAsentado(int nodo) {
+        return asentado[nodo] == epoca;
+    }
+
+    /**
+     * Cantidad de nodos asentados en la última búsqueda
+     */
+    public int getNodosAsentados() {
+        return nodosAsentados;
+    }
+
+    /**
+     * k-ésimo nodo asentado en la última búsqueda (0 es el origen); las
+     * distancias de estos nodos no decrecen con k
+     */
+    public int asentadoEnOrden(int k) {
+        return ordenAsentados[k];
+    }
+}
@@ -0,0 +1,143 @@
+package edu.universidad.estructura;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Caché LRU de árboles de caminos mínimos indexados por origen
+ * Está acotada por un presupuesto de memoria en bytes y descarta todo su
+ * contenido en cuanto se consulta o guarda con una versión de grafo distinta
+ */
+public class CacheArboles {
+
+    // LinkedHashMap en orden de acceso: el primero es el menos usado
+    private final LinkedHashMap<Integer, ArbolCaminos> arboles = new LinkedHashMap<>(16, 0.75f, true);
+    private long presupuestoBytes;
+    private long bytesUsados;
+    private long version = -1;
+    private long aciertos;
+    private long fallos;
+
+    public CacheArboles(long presupuestoBytes) {
+        this.presupuestoBytes = presupuestoBytes;
+    }
+
+    /**
+     * Retorna el árbol del origen si está guardado para esa versión del grafo
+     */
+    public synchronized ArbolCaminos obtener(int origen, long versionGrafo) {
+        validarVersion(versionGrafo);
+        ArbolCaminos arbol = arboles.get(origen);
+        if (arbol == null) {
+            fallos++;
+        } else {
+            aciertos++;
+        }
+        return arbol;
+    }
+
+    /**
+     * Indica si un árbol de numNodos nodos cabe en el presupuesto
+     */
+    public synchronized boolean admite(int numNodos) {
+        return ArbolCaminos.bytesPara(numNodos) <= presupuestoBytes;
+    }
+
+    /**
+     * Guarda un árbol y descarta los menos usados hasta respetar el presupuesto
+     */
+    public synchronized void guardar(ArbolCaminos arbol) {
+        if (arbol.getVersion() < version || arbol.bytes() > presupuestoBytes) {
+            return;
+        }
+        validarVersion(arbol.getVersion());
+        ArbolCaminos anterior = arboles.put(arbol.getOrigen(), arbol);
+        if (anterior != null) {
+            bytesUsados -= anterior.bytes();
+        }
+        bytesUsados += arbol.bytes();
+        ajustarAPresupuesto();
+    }
+
+    /**
+     * Pasa los árboles de versionAnterior a versionNueva aplicando reparar a
+     * cada uno, en lugar de descartarlos (si reparar retorna null el árbol se
+     * quita). Si la caché tenía otra versión se vacía
+     */
+    public synchronized void reparar(long versionAnterior, long versionNueva,
+                                     UnaryOperator<ArbolCaminos> reparar) {
+        if (version != versionAnterior) {
+            validarVersion(versionNueva);
+            return;
+        }
+        Iterator<Map.Entry<Integer, ArbolCaminos>> it = arboles.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, ArbolCaminos> entrada = it.next();
+            ArbolCaminos reparado = reparar.apply(entrada.getValue());
+            if (reparado == null) {
+                bytesUsados -= entrada.getValue().bytes();
+                it.remove();
+            } else {
+                entrada.setValue(reparado);
+            }
+        }
+        version = versionNueva;
+    }
+
+    private void validarVersion(long versionGrafo) {
+        if (versionGrafo != version) {
+            arboles.clear();
+            bytesUsados = 0;
+            version = versionGrafo;
+        }
+    }
+
+    private void ajustarAPresupuesto() {
+        Iterator<Map.Entry<Integer, ArbolCaminos>> it = arboles.entrySet().iterator();
+        while (bytesUsados > presupuestoBytes && it.hasNext()) {
+            bytesUsados -= it.next().getValue().bytes();
+            it.remove();
+        }
+    }
+
+    public synchronized long getPresupuestoBytes() {
+        return presupuestoBytes;
+    }
+
+    /**
+     * Cambia el presupuesto de memoria; 0 desactiva la caché
+     */
+    public synchronized void setPresupuestoBytes(long presupuestoBytes) {
+        this.presupuestoBytes = presupuestoBytes;
+        ajustarAPresupuesto();
+    }
+
+    public synchronized void limpiar() {
+        arboles.clear();
+        bytesUsados = 0;
+    }
+
+    public synchronized int tamanio() {
+        return arboles.size();
+    }
+
+    public synchronized long getBytesUsados() {
+        return bytesUsados;
+    }
+
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CacheArboles{arboles=" + arboles.size() + ", bytes=" + bytesUsados
+                + "/" + presupuestoBytes + ", aciertos=" + aciertos + ", fallos=" + fallos + "}";
+    }
+}
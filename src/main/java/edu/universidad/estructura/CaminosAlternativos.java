@@ -0,0 +1,384 @@
+package edu.universidad.estructura;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Los k caminos simples más cortos entre dos nodos (algoritmo de Yen)
+ * Cada camino nuevo se obtiene desviándose de uno anterior en algún nodo
+ * (nodo de desvío): se bloquean las aristas ya usadas desde ese prefijo y los
+ * nodos del prefijo, y se busca el resto del camino. Esas búsquedas son A*
+ * con la distancia exacta al destino en el grafo sin bloqueos como cota, así
+ * casi solo recorren el desvío necesario
+ * Con un máximo de tramos, cada búsqueda respeta lo que le queda al desvío
+ * (A* sobre estados nodo + tramos usados), así los k caminos son los más
+ * cortos entre los que cumplen el límite y no un filtro de los k más cortos
+ * Si se agota el presupuesto de tiempo se retornan los caminos ya confirmados
+ */
+public class CaminosAlternativos {
+
+    private final List<int[]> caminos = new ArrayList<>();
+    private final List<Double> costos = new ArrayList<>();
+    private boolean completo = true;
+
+    // Espacio de búsqueda propio: bloqueos y etiquetas marcados por época
+    private final GrafoCompacto g;
+    private final double[] distancia;
+    private final int[] previo;
+    private final int[] marca;
+    private final int[] asentado;
+    private final int[] nodoBloqueado;
+    private final int[] aristaBloqueada;
+    private final double[] haciaDestino;   // distancia sin bloqueos de cada nodo al destino
+    private final MonticuloIndexado cola;
+    private int epoca;
+    private double costoEncontrado;   // costo del último camino retornado por una búsqueda
+
+    // Solo con máximo de tramos: estado = nodo * capas + tramos usados
+    private final int maxTramos;
+    private final int capas;
+    private int[] tramosHastaDestino;   // tramos mínimos sin bloqueos de cada nodo al destino
+    private int[] minimoTramos;         // menos tramos con que se asentó cada nodo en la época
+    private double[] distanciaEstado;
+    private int[] previoEstado;
+    private int[] marcaEstado;
+    private MonticuloIndexado colaEstados;
+
+    private CaminosAlternativos(GrafoCompacto g, int maxTramos) {
+        int n = g.getNumNodos();
+        this.g = g;
+        distancia = new double[n];
+        previo = new int[n];
+        marca = new int[n];
+        asentado = new int[n];
+        nodoBloqueado = new int[n];
+        aristaBloqueada = new int[g.getNumAristas()];
+        haciaDestino = new double[n];
+        cola = new MonticuloIndexado(n);
+        // Un camino simple no pasa de n - 1 tramos: un límite mayor no restringe
+        this.maxTramos = maxTramos < n - 1 ? Math.max(maxTramos, 0) : -1;
+        this.capas = this.maxTramos + 1;
+        if (this.maxTramos >= 0) {
+            int estados = Math.multiplyExact(n, capas);
+            tramosHastaDestino = new int[n];
+            minimoTramos = new int[n];
+            distanciaEstado = new double[estados];
+            previoEstado = new int[estados];
+            marcaEstado = new int[estados];
+            colaEstados = new MonticuloIndexado(estados);
+        }
+    }
+
+    /**
+     * Calcula hasta k caminos de origen a destino en orden de costo
+     * @param presupuestoNanos tiempo máximo de cálculo (<= 0 sin límite)
+     */
+    public static CaminosAlternativos calcular(GrafoCompacto g, int origen, int destino,
+                                              int k, long presupuestoNanos) {
+        return calcular(g, origen, destino, k, presupuestoNanos, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Igual que el anterior, solo con caminos de a lo sumo maxTramos aristas
+     * La memoria de las búsquedas crece con nodos * (maxTramos + 1)
+     */
+    public static CaminosAlternativos calcular(GrafoCompacto g, int origen, int destino,
+                                              int k, long presupuestoNanos, int maxTramos) {
+        CaminosAlternativos resultado = new CaminosAlternativos(g, maxTramos);
+        if (k > 0) {
+            resultado.ejecutar(origen, destino, k, presupuestoNanos);
+        }
+        return resultado;
+    }
+
+    private void ejecutar(int origen, int destino, int k, long presupuestoNanos) {
+        long limite = presupuestoNanos > 0 ? System.nanoTime() + presupuestoNanos : Long.MAX_VALUE;
+
+        BusquedaDijkstra inversa = BusquedaDijkstra.delHilo();
+        inversa.ejecutarInverso(g, destino, -1);
+        for (int v = 0; v < haciaDestino.length; v++) {
+            haciaDestino[v] = inversa.distancia(v);
+        }
+        if (maxTramos >= 0) {
+            calcularTramosHastaDestino(destino);
+        }
+
+        epoca++;
+        int[] primero = buscar(origen, destino, maxTramos);
+        if (primero == null) return;
+        caminos.add(primero);
+        costos.add(costoEncontrado);
+
+        // Candidatos ordenados por costo; el conjunto evita repetidos
+        PriorityQueue<Candidato> candidatos = new PriorityQueue<>();
+        Set<ClaveCamino> vistos = new HashSet<>();
+        vistos.add(new ClaveCamino(primero));
+
+        while (caminos.size() < k) {
+            int[] anterior = caminos.get(caminos.size() - 1);
+            double[] acumulado = acumulados(anterior);
+
+            for (int i = 0; i + 1 < anterior.length; i++) {
+                if (System.nanoTime() > limite) {
+                    completo = false;
+                    return;
+                }
+                int desvio = anterior[i];
+                epoca++;
+
+                // Aristas que salen del desvío en caminos con el mismo prefijo
+                for (int[] camino : caminos) {
+                    if (camino.length > i + 1 && mismoPrefijo(camino, anterior, i)) {
+                        bloquearArista(camino[i], camino[i + 1]);
+                    }
+                }
+                // Nodos del prefijo (excepto el desvío) para que sea simple
+                for (int j = 0; j < i; j++) {
+                    nodoBloqueado[anterior[j]] = epoca;
+                }
+
+                int[] resto = buscar(desvio, destino, maxTramos >= 0 ? maxTramos - i : -1);
+                if (resto == null) continue;
+
+                int[] candidato = new int[i + resto.length];
+                System.arraycopy(anterior, 0, candidato, 0, i);
+                System.arraycopy(resto, 0, candidato, i, resto.length);
+                if (vistos.add(new ClaveCamino(candidato))) {
+                    candidatos.add(new Candidato(candidato, acumulado[i] + costoEncontrado));
+                }
+            }
+
+            Candidato mejor = candidatos.poll();
+            if (mejor == null) break;
+            caminos.add(mejor.nodos);
+            costos.add(mejor.costo);
+        }
+    }
+
+    private static boolean mismoPrefijo(int[] a, int[] b, int hasta) {
+        for (int j = 0; j <= hasta; j++) {
+            if (a[j] != b[j]) return false;
+        }
+        return true;
+    }
+
+    private double[] acumulados(int[] camino) {
+        double[] acumulado = new double[camino.length];
+        for (int i = 1; i < camino.length; i++) {
+            acumulado[i] = acumulado[i - 1] + g.peso(arista(camino[i - 1], camino[i]));
+        }
+        return acumulado;
+    }
+
+    private int arista(int u, int v) {
+        int mejor = -1;
+        for (int e = g.primeraArista(u), fin = g.finAristas(u); e < fin; e++) {
+            if (g.destino(e) == v && (mejor < 0 || g.peso(e) < g.peso(mejor))) {
+                mejor = e;
+            }
+        }
+        return mejor;
+    }
+
+    private void bloquearArista(int u, int v) {
+        for (int e = g.primeraArista(u), fin = g.finAristas(u); e < fin; e++) {
+            if (g.destino(e) == v) aristaBloqueada[e] = epoca;
+        }
+    }
+
+    /**
+     * Tramos mínimos de cada nodo al destino (BFS inverso por aristas abiertas)
+     */
+    private void calcularTramosHastaDestino(int destino) {
+        Arrays.fill(tramosHastaDestino, Integer.MAX_VALUE);
+        int[] pendientes = new int[tramosHastaDestino.length];
+        int inicio = 0, fin = 0;
+        tramosHastaDestino[destino] = 0;
+        pendientes[fin++] = destino;
+        while (inicio < fin) {
+            int v = pendientes[inicio++];
+            for (int i = g.primeraAristaEntrante(v), hasta = g.finAristasEntrantes(v); i < hasta; i++) {
+                int u = g.origen(i);
+                if (g.pesoEntrante(i) == Double.POSITIVE_INFINITY || tramosHastaDestino[u] != Integer.MAX_VALUE) continue;
+                tramosHastaDestino[u] = tramosHastaDestino[v] + 1;
+                pendientes[fin++] = u;
+            }
+        }
+    }
+
+    /**
+     * Camino de origen a destino con a lo sumo limite tramos (limite < 0:
+     * sin límite). Deja su costo en costoEncontrado; null si no existe
+     */
+    private int[] buscar(int origen, int destino, int limite) {
+        int[] camino = limite < 0 ? buscarSinLimite(origen, destino) : buscarConLimite(origen, destino, limite);
+        if (camino != null && limite < 0) {
+            costoEncontrado = distancia[destino];
+        }
+        return camino;
+    }
+
+    /**
+     * A* que respeta los bloqueos de la época actual; la cota haciaDestino
+     * es consistente también con bloqueos porque estos solo alargan caminos
+     * Retorna el camino de origen a destino o null si no existe
+     */
+    private int[] buscarSinLimite(int origen, int destino) {
+        if (nodoBloqueado[origen] == epoca || haciaDestino[origen] == Double.POSITIVE_INFINITY) return null;
+        cola.limpiar();
+        marca[origen] = epoca;
+        distancia[origen] = 0.0;
+        previo[origen] = -1;
+        cola.insertarODisminuir(origen, haciaDestino[origen]);
+
+        while (!cola.estaVacio()) {
+            int actual = cola.extraerMinimo();
+            asentado[actual] = epoca;
+            if (actual == destino) {
+                int largo = 0;
+                for (int v = destino; v >= 0; v = previo[v]) largo++;
+                int[] camino = new int[largo];
+                for (int v = destino; v >= 0; v = previo[v]) {
+                    camino[--largo] = v;
+                }
+                return camino;
+            }
+
+            double distanciaActual = distancia[actual];
+            for (int e = g.primeraArista(actual), fin = g.finAristas(actual); e < fin; e++) {
+                if (aristaBloqueada[e] == epoca || g.peso(e) == Double.POSITIVE_INFINITY) continue;
+                int vecino = g.destino(e);
+                if (asentado[vecino] == epoca || nodoBloqueado[vecino] == epoca) continue;
+                if (haciaDestino[vecino] == Double.POSITIVE_INFINITY) continue;
+                double nuevaDistancia = distanciaActual + g.peso(e);
+                if (marca[vecino] != epoca || nuevaDistancia < distancia[vecino]) {
+                    marca[vecino] = epoca;
+                    distancia[vecino] = nuevaDistancia;
+                    previo[vecino] = actual;
+                    cola.insertarODisminuir(vecino, nuevaDistancia + haciaDestino[vecino]);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A* sobre los estados (nodo, tramos usados) con la misma cota que
+     * buscarSinLimite. Un estado se descarta si su nodo ya se asentó con
+     * igual o menos tramos: ese llegó antes, así que no cuesta más, y por lo
+     * mismo los caminos retornados no repiten nodos
+     */
+    private int[] buscarConLimite(int origen, int destino, int limite) {
+        if (nodoBloqueado[origen] == epoca || haciaDestino[origen] == Double.POSITIVE_INFINITY
+                || tramosHastaDestino[origen] > limite) {
+            return null;
+        }
+        colaEstados.limpiar();
+        int inicial = origen * capas;
+        marcaEstado[inicial] = epoca;
+        distanciaEstado[inicial] = 0.0;
+        previoEstado[inicial] = -1;
+        colaEstados.insertarODisminuir(inicial, haciaDestino[origen]);
+
+        while (!colaEstados.estaVacio()) {
+            int estado = colaEstados.extraerMinimo();
+            int actual = estado / capas;
+            int tramos = estado % capas;
+            if (asentado[actual] == epoca && minimoTramos[actual] <= tramos) continue;
+            asentado[actual] = epoca;
+            minimoTramos[actual] = tramos;
+            if (actual == destino) {
+                costoEncontrado = distanciaEstado[estado];
+                int[] camino = new int[tramos + 1];
+                for (int e = estado, i = tramos; e >= 0; e = previoEstado[e]) {
+                    camino[i--] = e / capas;
+                }
+                return camino;
+            }
+            if (tramos == limite) continue;
+
+            double distanciaActual = distanciaEstado[estado];
+            for (int e = g.primeraArista(actual), fin = g.finAristas(actual); e < fin; e++) {
+                if (aristaBloqueada[e] == epoca || g.peso(e) == Double.POSITIVE_INFINITY) continue;
+                int vecino = g.destino(e);
+                if (nodoBloqueado[vecino] == epoca || haciaDestino[vecino] == Double.POSITIVE_INFINITY) continue;
+                if (tramosHastaDestino[vecino] > limite - tramos - 1) continue;
+                if (asentado[vecino] == epoca && minimoTramos[vecino] <= tramos + 1) continue;
+                int siguiente = vecino * capas + tramos + 1;
+                double nuevaDistancia = distanciaActual + g.peso(e);
+                if (marcaEstado[siguiente] != epoca || nuevaDistancia < distanciaEstado[siguiente]) {
+                    marcaEstado[siguiente] = epoca;
+                    distanciaEstado[siguiente] = nuevaDistancia;
+                    previoEstado[siguiente] = estado;
+                    colaEstados.insertarODisminuir(siguiente, nuevaDistancia + haciaDestino[vecino]);
+                }
+            }
+        }
+        return null;
+    }
+
+    public int getCantidad() {
+        return caminos.size();
+    }
+
+    /**
+     * Camino i-ésimo (0 es el más corto), como índices de nodos
+     */
+    public int[] camino(int i) {
+        return caminos.get(i);
+    }
+
+    public double costo(int i) {
+        return costos.get(i);
+    }
+
+    /**
+     * False si el presupuesto de tiempo cortó la búsqueda antes de llegar a k
+     */
+    public boolean isCompleto() {
+        return completo;
+    }
+
+    /**
+     * Camino como clave de conjunto: compara los índices sin armar cadenas
+     */
+    private static final class ClaveCamino {
+        final int[] nodos;
+        final int hash;
+
+        ClaveCamino(int[] nodos) {
+            this.nodos = nodos;
+            this.hash = Arrays.hashCode(nodos);
+        }
+
+        @Override
+        public boolean equals(Object otro) {
+            return otro instanceof ClaveCamino && Arrays.equals(nodos, ((ClaveCamino) otro).nodos);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static class Candidato implements Comparable<Candidato> {
+        final int[] nodos;
+        final double costo;
+
+        Candidato(int[] nodos, double costo) {
+            this.nodos = nodos;
+            this.costo = costo;
+        }
+
+        @Override
+        public int compareTo(Candidato otro) {
+            int c = Double.compare(costo, otro.costo);
+            return c != 0 ? c : Integer.compare(nodos.length, otro.nodos.length);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package edu.universidad.estructura;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Centralidad de intermediación (betweenness) de nodos y aristas con el
+ * algoritmo de Brandes para grafos con pesos: un Dijkstra por origen que
+ * cuenta los caminos mínimos y luego acumula las dependencias en orden inverso
+ * El valor de un nodo o arista es cuántos caminos mínimos pasan por él
+ * (repartidos cuando hay empates). En modo aproximado solo se usan algunos
+ * orígenes al azar y el resultado se escala a la cantidad total de orígenes
+ * Los orígenes se reparten entre los hilos del ForkJoinPool común y cada hilo
+ * acumula en sus propios arreglos, que se suman al final
+ */
+public class Centralidad {
+
+    private final double[] nodos;
+    private final double[] aristas;   // por posición de arista saliente
+    private final int origenes;
+    private final boolean exacta;
+    private final long version;
+
+    private Centralidad(double[] nodos, double[] aristas, int origenes, boolean exacta, long version) {
+        this.nodos = nodos;
+        this.aristas = aristas;
+        this.origenes = origenes;
+        this.exacta = exacta;
+        this.version = version;
+    }
+
+    /**
+     * Centralidad exacta: un Dijkstra desde cada nodo, O(V * E log V)
+     */
+    public static Centralidad exacta(GrafoCompacto g, long version) {
+        int[] fuentes = nodosVivos(g);
+        return calcular(g, fuentes, 1.0, true, version);
+    }
+
+    /**
+     * Estimación con muestras orígenes elegidos al azar sin repetición; con la
+     * misma semilla el resultado es reproducible. Si muestras alcanza la
+     * cantidad de nodos el cálculo es exacto
+     */
+    public static Centralidad aproximada(GrafoCompacto g, int muestras, long semilla, long version) {
+        if (muestras <= 0) {
+            throw new IllegalArgumentException("La cantidad de muestras debe ser positiva");
+        }
+        int[] vivos = nodosVivos(g);
+        if (muestras >= vivos.length) {
+            return calcular(g, vivos, 1.0, true, version);
+        }
+        // Fisher-Yates parcial: las primeras muestras posiciones quedan al azar
+        Random azar = new Random(semilla);
+        for (int i = 0; i < muestras; i++) {
+            int j = i + azar.nextInt(vivos.length - i);
+            int t = vivos[i];
+            vivos[i] = vivos[j];
+            vivos[j] = t;
+        }
+        return calcular(g, Arrays.copyOf(vivos, muestras), (double) vivos.length / muestras, false, version);
+    }
+
+    private static int[] nodosVivos(GrafoCompacto g) {
+        int n = g.getNumNodos();
+        int[] vivos = new int[n];
+        int cantidad = 0;
+        for (int v = 0; v < n; v++) {
+            if (!g.estaEliminado(v)) vivos[cantidad++] = v;
+        }
+        return Arrays.copyOf(vivos, cantidad);
+    }
+
+    private static Centralidad calcular(GrafoCompacto g, int[] fuentes, double escala,
+                                        boolean exacta, long version) {
+        int n = g.getNumNodos();
+        int m = g.getNumAristas();
+        // Una parte por hilo; cada parte toma los orígenes i, i + partes, ...
+        int partes = Math.max(1, Math.min(fuentes.length, ForkJoinPool.getCommonPoolParallelism() + 1));
+        List<Acumulador> acumuladores = IntStream.range(0, partes).parallel()
+                .mapToObj(parte -> {
+                    Acumulador acumulador = new Acumulador(n, m);
+                    for (int i = parte; i < fuentes.length; i += partes) {
+                        acumulador.procesar(g, fuentes[i]);
+                    }
+                    return acumulador;
+                })
+                .toList();
+
+        double[] nodos = new double[n];
+        double[] aristas = new double[m];
+        for (Acumulador acumulador : acumuladores) {
+            for (int v = 0; v < n; v++) nodos[v] += acumulador.nodos[v];
+            for (int e = 0; e < m; e++) aristas[e] += acumulador.aristas[e];
+        }
+        if (escala != 1.0) {
+            for (int v = 0; v < n; v++) nodos[v] *= escala;
+            for (int e = 0; e < m; e++) aristas[e] *= escala;
+        }
+        return new Centralidad(nodos, aristas, fuentes.length, exacta, version);
+    }
+
+    /**
+     * Espacio de trabajo y acumuladores de un hilo
+     */
+    private static final class Acumulador {
+        final double[] nodos;
+        final double[] aristas;
+        private final double[] distancia;
+        private final double[] caminos;      // cantidad de caminos mínimos (sigma)
+        private final double[] dependencia;  // delta de Brandes
+        private final int[] marca;           // época en que se alcanzó el nodo
+        private final int[] asentado;        // época en que se asentó el nodo
+        private final int[] posicion;        // posición en el orden de asentamiento
+        private final int[] orden;
+        private final MonticuloIndexado cola;
+        private int epoca;
+
+        Acumulador(int n, int m) {
+            nodos = new double[n];
+            aristas = new double[m];
+            distancia = new double[n];
+            caminos = new double[n];
+            dependencia = new double[n];
+            marca = new int[n];
+            asentado = new int[n];
+            posicion = new int[n];
+            orden = new int[n];
+            cola = new MonticuloIndexado(n);
+        }
+
+        void procesar(GrafoCompacto g, int origen) {
+            if (epoca == Integer.MAX_VALUE) {
+                Arrays.fill(marca, 0);
+                Arrays.fill(asentado, 0);
+                epoca = 0;
+            }
+            epoca++;
+            cola.limpiar();
+            int asentados = 0;
+
+            // Dijkstra contando caminos; solo suman los predecesores asentados
+            // antes, así las aristas de peso 0 no forman ciclos
+            marca[origen] = epoca;
+            distancia[origen] = 0;
+            caminos[origen] = 1;
+            cola.insertarODisminuir(origen, 0);
+            while (!cola.estaVacio()) {
+                int v = cola.extraerMinimo();
+                asentado[v] = epoca;
+                posicion[v] = asentados;
+                orden[asentados++] = v;
+                dependencia[v] = 0;
+                for (int e = g.primeraArista(v), fin = g.finAristas(v); e < fin; e++) {
+                    double peso = g.peso(e);
+                    if (peso == Double.POSITIVE_INFINITY) continue;
+                    int w = g.destino(e);
+                    if (asentado[w] == epoca) continue;
+                    double nueva = distancia[v] + peso;
+                    if (marca[w] != epoca || nueva < distancia[w]) {
+                        marca[w] = epoca;
+                        distancia[w] = nueva;
+                        caminos[w] = caminos[v];
+                        cola.insertarODisminuir(w, nueva);
+                    } else if (nueva == distancia[w]) {
+                        caminos[w] += caminos[v];
+                    }
+                }
+            }
+
+            // Dependencias en orden inverso: los sucesores ya están completos
+            for (int k = asentados - 1; k >= 0; k--) {
+                int v = orden[k];
+                double acumulada = 0;
+                for (int e = g.primeraArista(v), fin = g.finAristas(v); e < fin; e++) {
+                    double peso = g.peso(e);
+                    if (peso == Double.POSITIVE_INFINITY) continue;
+                    int w = g.destino(e);
+                    if (asentado[w] != epoca || posicion[w] <= k || distancia[v] + peso != distancia[w]) continue;
+                    double parte = caminos[v] / caminos[w] * (1 + dependencia[w]);
+                    aristas[e] += parte;
+                    acumulada += parte;
+                }
+                dependencia[v] = acumulada;
+                if (v != origen) nodos[v] += acumulada;
+            }
+        }
+    }
+
+    /**
+     * Centralidad del nodo
+     */
+    public double nodo(int nodo) {
+        return nodos[nodo];
+    }
+
+    /**
+     * Centralidad de la arista en la posición dada de la vista compacta
+     */
+    public double arista(int arista) {
+        return aristas[arista];
+    }
+
+    /**
+     * Los cantidad nodos de mayor centralidad, de mayor a menor
+     */
+    public int[] mayoresNodos(int cantidad) {
+        return mayores(nodos, cantidad);
+    }
+
+    /**
+     * Las cantidad aristas de mayor centralidad, de mayor a menor
+     */
+    public int[] mayoresAristas(int cantidad) {
+        return mayores(aristas, cantidad);
+    }
+
+    // Selección con un min-heap de tamaño cantidad: O(n log cantidad)
+    private static int[] mayores(double[] valores, int cantidad) {
+        int k = Math.max(0, Math.min(cantidad, valores.length));
+        MonticuloIndexado menores = new MonticuloIndexado(valores.length);
+        for (int i = 0; i < valores.length; i++) {
+            if (menores.tamanio() < k) {
+                menores.insertarODisminuir(i, valores[i]);
+            } else if (k > 0 && valores[i] > menores.claveMinima()) {
+                menores.extraerMinimo();
+                menores.insertarODisminuir(i, valores[i]);
+            }
+        }
+        int[] resultado = new int[menores.tamanio()];
+        for (int i = resultado.length - 1; i >= 0; i--) {
+            resultado[i] = menores.extraerMinimo();
+        }
+        return resultado;
+    }
+
+    /**
+     * Cantidad de orígenes usados en el cálculo
+     */
+    public int getOrigenes() {
+        return origenes;
+    }
+
+    public boolean isExacta() {
+        return exacta;
+    }
+
+    /**
+     * Versión del grafo con la que se calculó
+     */
+    public long getVersion() {
+        return version;
+    }
+}
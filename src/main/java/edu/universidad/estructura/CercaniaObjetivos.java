@@ -0,0 +1,99 @@
+package edu.universidad.estructura;
+
+import java.util.Arrays;
+
+/**
+ * Para cada nodo del grafo, el objetivo más cercano (por ejemplo el refugio
+ * más cercano a cada zona), la distancia hasta él y el siguiente paso del camino
+ * Se calcula con un único Dijkstra multi-origen sobre las aristas entrantes,
+ * partiendo de todos los objetivos a la vez con distancia 0
+ */
+public class CercaniaObjetivos {
+
+    private final int[] objetivo;    // objetivo más cercano de cada nodo (-1 si ninguno es alcanzable)
+    private final double[] distancia;
+    private final int[] siguiente;   // siguiente nodo hacia el objetivo (-1 en los objetivos)
+    private final long version;
+
+    private CercaniaObjetivos(int[] objetivo, double[] distancia, int[] siguiente, long version) {
+        this.objetivo = objetivo;
+        this.distancia = distancia;
+        this.siguiente = siguiente;
+        this.version = version;
+    }
+
+    public static CercaniaObjetivos calcular(GrafoCompacto g, int[] objetivos, long version) {
+        int n = g.getNumNodos();
+        int[] objetivo = new int[n];
+        double[] distancia = new double[n];
+        int[] siguiente = new int[n];
+        boolean[] asentado = new boolean[n];
+        Arrays.fill(objetivo, -1);
+        Arrays.fill(distancia, Double.POSITIVE_INFINITY);
+        Arrays.fill(siguiente, -1);
+
+        MonticuloIndexado cola = new MonticuloIndexado(n);
+        for (int t : objetivos) {
+            distancia[t] = 0.0;
+            objetivo[t] = t;
+            cola.insertarODisminuir(t, 0.0);
+        }
+
+        while (!cola.estaVacio()) {
+            int actual = cola.extraerMinimo();
+            asentado[actual] = true;
+            double distanciaActual = distancia[actual];
+            for (int e = g.primeraAristaEntrante(actual), fin = g.finAristasEntrantes(actual); e < fin; e++) {
+                int vecino = g.origen(e);
+                if (asentado[vecino]) continue;
+                double nuevaDistancia = distanciaActual + g.pesoEntrante(e);
+                if (nuevaDistancia < distancia[vecino]) {
+                    distancia[vecino] = nuevaDistancia;
+                    siguiente[vecino] = actual;
+                    objetivo[vecino] = objetivo[actual];
+                    cola.insertarODisminuir(vecino, nuevaDistancia);
+                }
+            }
+        }
+        return new CercaniaObjetivos(objetivo, distancia, siguiente, version);
+    }
+
+    /**
+     * Objetivo más cercano al nodo (-1 si no alcanza ninguno)
+     */
+    public int objetivo(int nodo) {
+        return objetivo[nodo];
+    }
+
+    public double distancia(int nodo) {
+        return distancia[nodo];
+    }
+
+    public int siguiente(int nodo) {
+        return siguiente[nodo];
+    }
+
+    /**
+     * Camino de índices desde el nodo hasta su objetivo más cercano
+     */
+    public int[] camino(int nodo) {
+        if (objetivo[nodo] < 0) {
+            return new int[0];
+        }
+        int largo = 0;
+        for (int v = nodo; v >= 0; v = siguiente[v]) largo++;
+        int[] camino = new int[largo];
+        int i = 0;
+        for (int v = nodo; v >= 0; v = siguiente[v]) {
+            camino[i++] = v;
+        }
+        return camino;
+    }
+
+    /**
+     * Versión del grafo con la que se calculó
+     */
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,288 @@
+package edu.universidad.estructura;
+
+import java.util.Arrays;
+
+/**
+ * Componentes fuertemente conexas del grafo (Tarjan iterativo, sin recursión)
+ * Las aristas de peso infinito (cerradas o eliminadas) no cuentan y los nodos
+ * eliminados no pertenecen a ninguna componente
+ * Si hay pocas componentes guarda además el cierre transitivo del grafo de
+ * componentes como filas de bits, así "¿A llega a B?" se responde en O(1)
+ * Agregar aristas sobre un índice existente (conAristas) no obliga a
+ * recalcularlo mientras no se formen ciclos nuevos entre componentes
+ */
+public class ComponentesFuertes {
+
+    // Máximo de componentes con cierre en bits (4096^2 bits = 2 MB)
+    private static final int MAX_COMPONENTES_CIERRE = 4096;
+
+    private final int[] componente;     // componente de cada nodo (-1 si está eliminado)
+    private final int[] tamanios;
+    private final int cantidad;
+    private final boolean conEliminados;
+
+    // Cierre: fila c con un bit por componente alcanzable desde c (null si son demasiadas)
+    private final long[] cierre;
+    private final int palabras;
+
+    // Grafo de componentes (CSR) para responder sin cierre; null si hay cierre
+    private final int[] inicioCondensado;
+    private final int[] destinosCondensado;
+
+    private ComponentesFuertes(int[] componente, int[] tamanios, int cantidad, boolean conEliminados,
+                               long[] cierre, int[] inicioCondensado, int[] destinosCondensado) {
+        this.componente = componente;
+        this.tamanios = tamanios;
+        this.cantidad = cantidad;
+        this.conEliminados = conEliminados;
+        this.cierre = cierre;
+        this.palabras = (cantidad + 63) >>> 6;
+        this.inicioCondensado = inicioCondensado;
+        this.destinosCondensado = destinosCondensado;
+    }
+
+    public static ComponentesFuertes calcular(GrafoCompacto g) {
+        int n = g.getNumNodos();
+        int[] componente = new int[n];
+        int[] indice = new int[n];
+        int[] bajo = new int[n];
+        boolean[] enPila = new boolean[n];
+        int[] pila = new int[n];
+        int[] llamadas = new int[n];
+        int[] siguienteArista = new int[n];
+        Arrays.fill(componente, -1);
+        Arrays.fill(indice, -1);
+
+        int contador = 0, cantidad = 0, tope = 0;
+        boolean conEliminados = false;
+        int[] tamanios = new int[Math.max(n, 1)];
+
+        for (int s = 0; s < n; s++) {
+            if (g.estaEliminado(s)) {
+                conEliminados = true;
+                continue;
+            }
+            if (indice[s] >= 0) continue;
+
+            int llamadasActivas = 0;
+            indice[s] = bajo[s] = contador++;
+            pila[tope++] = s;
+            enPila[s] = true;
+            siguienteArista[s] = g.primeraArista(s);
+            llamadas[llamadasActivas++] = s;
+
+            while (llamadasActivas > 0) {
+                int v = llamadas[llamadasActivas - 1];
+                if (siguienteArista[v] < g.finAristas(v)) {
+                    int e = siguienteArista[v]++;
+                    if (g.peso(e) == Double.POSITIVE_INFINITY) continue;
+                    int w = g.destino(e);
+                    if (indice[w] < 0) {
+                        indice[w] = bajo[w] = contador++;
+                        pila[tope++] = w;
+                        enPila[w] = true;
+                        siguienteArista[w] = g.primeraArista(w);
+                        llamadas[llamadasActivas++] = w;
+                    } else if (enPila[w]) {
+                        bajo[v] = Math.min(bajo[v], indice[w]);
+                    }
+                    continue;
+                }
+
+                llamadasActivas--;
+                if (llamadasActivas > 0) {
+                    int padre = llamadas[llamadasActivas - 1];
+                    bajo[padre] = Math.min(bajo[padre], bajo[v]);
+                }
+                if (bajo[v] == indice[v]) {
+                    int w;
+                    do {
+                        w = pila[--tope];
+                        enPila[w] = false;
+                        componente[w] = cantidad;
+                        tamanios[cantidad]++;
+                    } while (w != v);
+                    cantidad++;
+                }
+            }
+        }
+
+        // Grafo de componentes; Tarjan numera de modo que sus aristas van
+        // de una componente a otra de número menor
+        int[] inicioCondensado = new int[cantidad + 1];
+        for (int u = 0; u < n; u++) {
+            if (componente[u] < 0) continue;
+            for (int e = g.primeraArista(u), fin = g.finAristas(u); e < fin; e++) {
+                if (esAristaEntreComponentes(g, componente, u, e)) inicioCondensado[componente[u] + 1]++;
+            }
+        }
+        for (int c = 0; c < cantidad; c++) {
+            inicioCondensado[c + 1] += inicioCondensado[c];
+        }
+        int[] destinosCondensado = new int[inicioCondensado[cantidad]];
+        int[] posicion = Arrays.copyOf(inicioCondensado, cantidad);
+        for (int u = 0; u < n; u++) {
+            if (componente[u] < 0) continue;
+            for (int e = g.primeraArista(u), fin = g.finAristas(u); e < fin; e++) {
+                if (esAristaEntreComponentes(g, componente, u, e)) {
+                    destinosCondensado[posicion[componente[u]]++] = componente[g.destino(e)];
+                }
+            }
+        }
+
+        long[] cierre = null;
+        if (cantidad <= MAX_COMPONENTES_CIERRE) {
+            int palabras = (cantidad + 63) >>> 6;
+            cierre = new long[cantidad * palabras];
+            // En orden creciente cada sucesor ya tiene su fila completa
+            for (int c = 0; c < cantidad; c++) {
+                int fila = c * palabras;
+                cierre[fila + (c >>> 6)] |= 1L << c;
+                for (int k = inicioCondensado[c]; k < inicioCondensado[c + 1]; k++) {
+                    int otra = destinosCondensado[k] * palabras;
+                    for (int p = 0; p < palabras; p++) {
+                        cierre[fila + p] |= cierre[otra + p];
+                    }
+                }
+            }
+            inicioCondensado = null;
+            destinosCondensado = null;
+        }
+        return new ComponentesFuertes(componente, Arrays.copyOf(tamanios, cantidad), cantidad,
+                conEliminados, cierre, inicioCondensado, destinosCondensado);
+    }
+
+    private static boolean esAristaEntreComponentes(GrafoCompacto g, int[] componente, int u, int e) {
+        if (g.peso(e) == Double.POSITIVE_INFINITY) return false;
+        int cv = componente[g.destino(e)];
+        return cv >= 0 && cv != componente[u];
+    }
+
+    /**
+     * Índice para g, que es el grafo de este índice con nodos agregados al
+     * final y las aristas origenes[i] -> destinos[i] abiertas. Retorna null
+     * si hace falta recalcular: alguna arista une componentes en un ciclo,
+     * hay demasiadas componentes o el índice tenía nodos eliminados
+     */
+    public ComponentesFuertes conAristas(GrafoCompacto g, int[] origenes, int[] destinos) {
+        int nuevosNodos = g.getNumNodos() - componente.length;
+        int nuevaCantidad = cantidad + nuevosNodos;
+        if (cierre == null || conEliminados || nuevosNodos < 0 || nuevaCantidad > MAX_COMPONENTES_CIERRE) {
+            return null;
+        }
+
+        // Cada nodo nuevo empieza como componente propia
+        int[] nuevoComponente = Arrays.copyOf(componente, g.getNumNodos());
+        int[] nuevosTamanios = Arrays.copyOf(tamanios, nuevaCantidad);
+        for (int k = 0; k < nuevosNodos; k++) {
+            nuevoComponente[componente.length + k] = cantidad + k;
+            nuevosTamanios[cantidad + k] = 1;
+        }
+        int nuevasPalabras = (nuevaCantidad + 63) >>> 6;
+        long[] nuevoCierre = new long[nuevaCantidad * nuevasPalabras];
+        for (int c = 0; c < cantidad; c++) {
+            System.arraycopy(cierre, c * palabras, nuevoCierre, c * nuevasPalabras, palabras);
+        }
+        for (int c = cantidad; c < nuevaCantidad; c++) {
+            nuevoCierre[c * nuevasPalabras + (c >>> 6)] |= 1L << c;
+        }
+
+        for (int i = 0; i < origenes.length; i++) {
+            int x = nuevoComponente[origenes[i]];
+            int y = nuevoComponente[destinos[i]];
+            if (x == y || bit(nuevoCierre, nuevasPalabras, x, y)) continue;
+            if (bit(nuevoCierre, nuevasPalabras, y, x)) {
+                return null;   // se forma un ciclo: varias componentes se funden
+            }
+            // Quien llegaba a x ahora llega también a todo lo que alcanza y
+            int filaY = y * nuevasPalabras;
+            for (int z = 0; z < nuevaCantidad; z++) {
+                if (!bit(nuevoCierre, nuevasPalabras, z, x)) continue;
+                int filaZ = z * nuevasPalabras;
+                for (int p = 0; p < nuevasPalabras; p++) {
+                    nuevoCierre[filaZ + p] |= nuevoCierre[filaY + p];
+                }
+            }
+        }
+        return new ComponentesFuertes(nuevoComponente, nuevosTamanios, nuevaCantidad, false,
+                nuevoCierre, null, null);
+    }
+
+    private static boolean bit(long[] cierre, int palabras, int desde, int hasta) {
+        return (cierre[desde * palabras + (hasta >>> 6)] & (1L << hasta)) != 0;
+    }
+
+    /**
+     * Cantidad de componentes (sin contar nodos eliminados)
+     */
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Componente del nodo (-1 si está eliminado)
+     */
+    public int componente(int nodo) {
+        return componente[nodo];
+    }
+
+    public int tamanio(int componente) {
+        return tamanios[componente];
+    }
+
+    /**
+     * Tamaño de la componente más grande
+     */
+    public int getMayor() {
+        int mayor = 0;
+        for (int t : tamanios) mayor = Math.max(mayor, t);
+        return mayor;
+    }
+
+    /**
+     * Todos los nodos se alcanzan entre sí (un grafo vacío también lo cumple)
+     */
+    public boolean esFuertementeConexo() {
+        return cantidad <= 1;
+    }
+
+    public boolean mismaComponente(int a, int b) {
+        return componente[a] >= 0 && componente[a] == componente[b];
+    }
+
+    /**
+     * Indica si hay camino de a hasta b; O(1) con cierre, si no recorre
+     * el grafo de componentes (mucho más chico que el grafo)
+     */
+    public boolean alcanza(int a, int b) {
+        int ca = componente[a], cb = componente[b];
+        if (ca < 0 || cb < 0) return false;
+        if (ca == cb) return true;
+        if (cierre != null) {
+            return bit(cierre, palabras, ca, cb);
+        }
+        // Las aristas del grafo de componentes van a números menores
+        if (cb > ca) return false;
+        boolean[] visto = new boolean[cantidad];
+        int[] pila = new int[cantidad];
+        int tope = 0;
+        pila[tope++] = ca;
+        visto[ca] = true;
+        while (tope > 0) {
+            int c = pila[--tope];
+            for (int k = inicioCondensado[c]; k < inicioCondensado[c + 1]; k++) {
+                int d = destinosCondensado[k];
+                if (d == cb) return true;
+                if (!visto[d] && d > cb) {
+                    visto[d] = true;
+                    pila[tope++] = d;
+                }
+            }
+        }
+        return false;
+    }
+
+    public int getNumNodos() {
+        return componente.length;
+    }
+}
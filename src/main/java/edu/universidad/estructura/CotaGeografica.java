@@ -0,0 +1,45 @@
+package edu.universidad.estructura;
+
+/**
+ * Cota inferior basada en la distancia de círculo máximo (haversine)
+ * entre las coordenadas de dos nodos, escalada a las unidades del peso
+ * Si alguno de los nodos no tiene coordenadas la cota es 0
+ */
+public class CotaGeografica implements CotaInferior {
+
+    private static final double RADIO_TIERRA_KM = 6371.0088;
+
+    private final GrafoCompacto grafo;
+    private final double factor;
+
+    /**
+     * @param factor unidades de peso por kilómetro en línea recta; para que la
+     *               cota sea admisible ninguna arista puede costar menos que
+     *               factor * distancia geográfica entre sus extremos
+     */
+    public CotaGeografica(GrafoCompacto grafo, double factor) {
+        this.grafo = grafo;
+        this.factor = factor;
+    }
+
+    @Override
+    public double estimar(int nodo, int destino) {
+        if (!grafo.tieneCoordenadas(nodo) || !grafo.tieneCoordenadas(destino)) {
+            return 0.0;
+        }
+        return factor * distanciaKm(grafo.latitud(nodo), grafo.longitud(nodo),
+                grafo.latitud(destino), grafo.longitud(destino));
+    }
+
+    /**
+     * Distancia de círculo máximo en kilómetros entre dos puntos en grados
+     */
+    public static double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RADIO_TIERRA_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
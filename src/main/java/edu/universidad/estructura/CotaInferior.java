@@ -0,0 +1,13 @@
+package edu.universidad.estructura;
+
+/**
+ * Estimación admisible de la distancia restante hasta un destino
+ * Usada por BusquedaAEstrella para dirigir la búsqueda
+ */
+public interface CotaInferior {
+
+    /**
+     * Cota inferior de la distancia de nodo a destino (nunca la sobreestima)
+     */
+    double estimar(int nodo, int destino);
+}
@@ -0,0 +1,309 @@
+package edu.universidad.estructura;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Caminos mínimos desde un origen a todos los nodos en paralelo (delta-stepping)
+ * Los nodos se agrupan en cubetas de ancho delta según su distancia tentativa
+ * Cada cubeta se procesa entera a la vez repartiendo su frontera entre los
+ * hilos del ForkJoinPool: primero las aristas livianas (peso <= delta), que
+ * pueden volver a meter nodos en la misma cubeta, y al vaciarla las pesadas
+ * Da las mismas distancias que Dijkstra; los predecesores se eligen al final
+ * entre los vecinos entrantes que dan exactamente la distancia de cada nodo
+ * Una instancia atiende una consulta a la vez
+ */
+public class DeltaStepping {
+
+    // Tamaño de frontera por debajo del cual no conviene repartir el trabajo
+    private static final int UMBRAL_PARALELO = 512;
+    // Máximo de cubetas circulares; si delta es menor se agranda
+    private static final int MAX_CUBETAS = 1 << 20;
+
+    private final GrafoCompacto g;
+    private final ForkJoinPool pool;
+    private final double delta;
+    private final int numCubetas;
+
+    // Distancias como bits de double para poder bajarlas con compareAndSet
+    private AtomicLongArray distancia;
+    private ListaEnteros[] cubetas;
+    private int pendientes;
+    private int[] enFrontera;
+    private int[] enCubeta;
+    private int ronda;
+
+    /**
+     * @param delta ancho de las cubetas (<= 0 elige el peso promedio de las aristas)
+     */
+    public DeltaStepping(GrafoCompacto g, double delta, ForkJoinPool pool) {
+        this.g = g;
+        this.pool = pool;
+        double maximo = 0.0, suma = 0.0;
+        int finitas = 0;
+        for (int e = 0; e < g.getNumAristas(); e++) {
+            double peso = g.peso(e);
+            if (peso == Double.POSITIVE_INFINITY) continue;
+            maximo = Math.max(maximo, peso);
+            suma += peso;
+            finitas++;
+        }
+        if (delta <= 0) {
+            delta = finitas > 0 && suma > 0 ? suma / finitas : 1.0;
+        }
+        this.delta = Math.max(delta, maximo / MAX_CUBETAS);
+        // Desde la cubeta i ninguna arista llega más allá de i + maximo / delta
+        this.numCubetas = (int) Math.ceil(maximo / this.delta) + 2;
+    }
+
+    public DeltaStepping(GrafoCompacto g) {
+        this(g, 0.0, ForkJoinPool.commonPool());
+    }
+
+    public double getDelta() {
+        return delta;
+    }
+
+    /**
+     * Distancias mínimas desde el origen (infinito si no es alcanzable)
+     */
+    public double[] distancias(int origen) {
+        ejecutar(origen);
+        int n = g.getNumNodos();
+        double[] resultado = new double[n];
+        for (int v = 0; v < n; v++) {
+            resultado[v] = Double.longBitsToDouble(distancia.get(v));
+        }
+        return resultado;
+    }
+
+    /**
+     * Árbol completo de caminos mínimos desde el origen
+     */
+    public ArbolCaminos arbol(int origen, long version) {
+        double[] d = distancias(origen);
+        int[] previo = new int[d.length];
+        // Cada distancia final es d[u] + peso para algún u: se busca ese u
+        // Solo entre los u más cercanos, para no formar ciclos con pesos 0
+        pool.submit(() -> IntStream.range(0, d.length).parallel().forEach(v -> {
+            previo[v] = -1;
+            if (v == origen || d[v] == Double.POSITIVE_INFINITY) return;
+            for (int e = g.primeraAristaEntrante(v), fin = g.finAristasEntrantes(v); e < fin; e++) {
+                int u = g.origen(e);
+                if (d[u] < d[v] && d[u] + g.pesoEntrante(e) == d[v]) {
+                    previo[v] = u;
+                    return;
+                }
+            }
+        })).join();
+        resolverEmpates(d, previo, origen);
+        return new ArbolCaminos(origen, version, d, previo);
+    }
+
+    /**
+     * Los nodos que solo se alcanzan por aristas de peso 0 desde otros a la
+     * misma distancia toman como previo a uno de ellos que ya esté resuelto
+     */
+    private void resolverEmpates(double[] d, int[] previo, int origen) {
+        ListaEnteros sinPrevio = new ListaEnteros();
+        for (int v = 0; v < d.length; v++) {
+            if (v != origen && previo[v] < 0 && d[v] < Double.POSITIVE_INFINITY) {
+                sinPrevio.agregar(v);
+            }
+        }
+        boolean avance = true;
+        while (sinPrevio.tamanio > 0 && avance) {
+            avance = false;
+            int quedan = 0;
+            for (int k = 0; k < sinPrevio.tamanio; k++) {
+                int v = sinPrevio.datos[k];
+                for (int e = g.primeraAristaEntrante(v), fin = g.finAristasEntrantes(v); e < fin; e++) {
+                    int u = g.origen(e);
+                    if ((u == origen || previo[u] >= 0) && d[u] + g.pesoEntrante(e) == d[v]) {
+                        previo[v] = u;
+                        avance = true;
+                        break;
+                    }
+                }
+                if (previo[v] < 0) {
+                    sinPrevio.datos[quedan++] = v;
+                }
+            }
+            sinPrevio.tamanio = quedan;
+        }
+    }
+
+    private void ejecutar(int origen) {
+        int n = g.getNumNodos();
+        distancia = new AtomicLongArray(n);
+        long infinito = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+        for (int v = 0; v < n; v++) {
+            distancia.set(v, infinito);
+        }
+        cubetas = new ListaEnteros[numCubetas];
+        for (int i = 0; i < numCubetas; i++) {
+            cubetas[i] = new ListaEnteros();
+        }
+        enFrontera = new int[n];
+        enCubeta = new int[n];
+        ronda = 0;
+        pendientes = 0;
+
+        distancia.set(origen, Double.doubleToRawLongBits(0.0));
+        agregarACubeta(origen);
+
+        ListaEnteros asentados = new ListaEnteros();
+        for (long i = 0; pendientes > 0; i++) {
+            int posicion = (int) (i % numCubetas);
+            if (cubetas[posicion].tamanio == 0) continue;
+
+            // Fase liviana: se repite mientras la cubeta reciba nodos
+            asentados.tamanio = 0;
+            int marcaCubeta = ++ronda;
+            while (cubetas[posicion].tamanio > 0) {
+                int[] frontera = tomarFrontera(posicion, i, asentados, marcaCubeta);
+                if (frontera.length > 0) {
+                    encolar(relajar(frontera, frontera.length, true));
+                }
+            }
+            // Fase pesada: una sola vez con las distancias ya definitivas
+            if (asentados.tamanio > 0) {
+                encolar(relajar(asentados.datos, asentados.tamanio, false));
+            }
+        }
+        cubetas = null;
+        enFrontera = null;
+        enCubeta = null;
+    }
+
+    /**
+     * Vacía la cubeta y retorna sus nodos vigentes (sin repetidos) y los
+     * agrega a asentados si aún no estaban
+     */
+    private int[] tomarFrontera(int posicion, long indice, ListaEnteros asentados, int marcaCubeta) {
+        ListaEnteros cubeta = cubetas[posicion];
+        pendientes -= cubeta.tamanio;
+        int marcaFrontera = ++ronda;
+        int[] frontera = new int[cubeta.tamanio];
+        int cantidad = 0;
+        for (int k = 0; k < cubeta.tamanio; k++) {
+            int v = cubeta.datos[k];
+            if (indiceCubeta(Double.longBitsToDouble(distancia.get(v))) != indice) continue;
+            if (enFrontera[v] == marcaFrontera) continue;
+            enFrontera[v] = marcaFrontera;
+            frontera[cantidad++] = v;
+            if (enCubeta[v] != marcaCubeta) {
+                enCubeta[v] = marcaCubeta;
+                asentados.agregar(v);
+            }
+        }
+        cubeta.tamanio = 0;
+        return Arrays.copyOf(frontera, cantidad);
+    }
+
+    private long indiceCubeta(double d) {
+        return (long) (d / delta);
+    }
+
+    private void agregarACubeta(int v) {
+        long indice = indiceCubeta(Double.longBitsToDouble(distancia.get(v)));
+        cubetas[(int) (indice % numCubetas)].agregar(v);
+        pendientes++;
+    }
+
+    private void encolar(ListaEnteros mejorados) {
+        for (int k = 0; k < mejorados.tamanio; k++) {
+            agregarACubeta(mejorados.datos[k]);
+        }
+    }
+
+    private ListaEnteros relajar(int[] nodos, int cantidad, boolean livianas) {
+        Relajacion tarea = new Relajacion(nodos, 0, cantidad, livianas);
+        return cantidad < UMBRAL_PARALELO ? tarea.compute() : pool.invoke(tarea);
+    }
+
+    /**
+     * Relaja las aristas livianas o pesadas de un tramo de nodos y retorna
+     * los vecinos cuya distancia bajó (puede haber repetidos)
+     */
+    private final class Relajacion extends RecursiveTask<ListaEnteros> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] nodos;
+        private final int desde;
+        private final int hasta;
+        private final boolean livianas;
+
+        Relajacion(int[] nodos, int desde, int hasta, boolean livianas) {
+            this.nodos = nodos;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.livianas = livianas;
+        }
+
+        @Override
+        protected ListaEnteros compute() {
+            if (hasta - desde > UMBRAL_PARALELO) {
+                int medio = (desde + hasta) >>> 1;
+                Relajacion izquierda = new Relajacion(nodos, desde, medio, livianas);
+                izquierda.fork();
+                ListaEnteros derecha = new Relajacion(nodos, medio, hasta, livianas).compute();
+                ListaEnteros resultado = izquierda.join();
+                resultado.agregarTodos(derecha);
+                return resultado;
+            }
+            ListaEnteros mejorados = new ListaEnteros();
+            for (int k = desde; k < hasta; k++) {
+                int actual = nodos[k];
+                double distanciaActual = Double.longBitsToDouble(distancia.get(actual));
+                for (int e = g.primeraArista(actual), fin = g.finAristas(actual); e < fin; e++) {
+                    double peso = g.peso(e);
+                    if (peso == Double.POSITIVE_INFINITY || (peso <= delta) != livianas) continue;
+                    int vecino = g.destino(e);
+                    if (bajarDistancia(vecino, distanciaActual + peso)) {
+                        mejorados.agregar(vecino);
+                    }
+                }
+            }
+            return mejorados;
+        }
+    }
+
+    private boolean bajarDistancia(int v, double nueva) {
+        long actual = distancia.get(v);
+        long bits = Double.doubleToRawLongBits(nueva);
+        while (nueva < Double.longBitsToDouble(actual)) {
+            if (distancia.compareAndSet(v, actual, bits)) {
+                return true;
+            }
+            actual = distancia.get(v);
+        }
+        return false;
+    }
+
+    /**
+     * Arreglo de enteros que crece (evita cajas de Integer)
+     */
+    private static final class ListaEnteros {
+        int[] datos = new int[16];
+        int tamanio;
+
+        void agregar(int valor) {
+            if (tamanio == datos.length) {
+                datos = Arrays.copyOf(datos, tamanio * 2);
+            }
+            datos[tamanio++] = valor;
+        }
+
+        void agregarTodos(ListaEnteros otra) {
+            if (tamanio + otra.tamanio > datos.length) {
+                datos = Arrays.copyOf(datos, Math.max(datos.length * 2, tamanio + otra.tamanio));
+            }
+            System.arraycopy(otra.datos, 0, datos, tamanio, otra.tamanio);
+            tamanio += otra.tamanio;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package edu.universidad.estructura;
+
+import java.util.Arrays;
+
+/**
+ * Flujo máximo de costo mínimo por caminos mínimos sucesivos con potenciales
+ * Cada aumento busca con Dijkstra (costos reducidos no negativos gracias a
+ * los potenciales) el camino más barato de la red residual y lo satura
+ * Las capacidades son double y pueden ser infinitas; los costos deben ser
+ * no negativos
+ */
+public class FlujoCostoMinimo {
+
+    private static final double EPSILON = 1e-9;
+
+    private final int n;
+    private final int[] cabeza;          // primera arista de cada nodo (-1 si ninguna)
+    private int[] siguiente = new int[16];
+    private int[] destino = new int[16];
+    private double[] capacidad = new double[16];
+    private double[] costo = new double[16];
+    private double[] flujo = new double[16];
+    private int m;                       // aristas residuales (2 por arista agregada)
+
+    private double flujoTotal;
+    private double costoTotal;
+
+    public FlujoCostoMinimo(int nodos) {
+        this.n = nodos;
+        this.cabeza = new int[nodos];
+        Arrays.fill(cabeza, -1);
+    }
+
+    /**
+     * Agrega la arista u -> v y retorna su identificador para consultar el flujo
+     */
+    public int agregarArista(int u, int v, double cap, double c) {
+        if (c < 0) {
+            throw new IllegalArgumentException("El costo no puede ser negativo");
+        }
+        if (m + 2 > destino.length) {
+            int nuevo = destino.length * 2;
+            siguiente = Arrays.copyOf(siguiente, nuevo);
+            destino = Arrays.copyOf(destino, nuevo);
+            capacidad = Arrays.copyOf(capacidad, nuevo);
+            costo = Arrays.copyOf(costo, nuevo);
+            flujo = Arrays.copyOf(flujo, nuevo);
+        }
+        int id = m;
+        enlazar(u, v, cap, c);
+        enlazar(v, u, 0, -c);   // residual inversa
+        return id;
+    }
+
+    private void enlazar(int u, int v, double cap, double c) {
+        destino[m] = v;
+        capacidad[m] = cap;
+        costo[m] = c;
+        siguiente[m] = cabeza[u];
+        cabeza[u] = m++;
+    }
+
+    /**
+     * Envía todo el flujo posible de fuente a sumidero al menor costo
+     */
+    public double resolver(int fuente, int sumidero) {
+        return resolver(fuente, sumidero, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Igual que resolver, pero sin pasar de limite unidades de flujo
+     */
+    public double resolver(int fuente, int sumidero, double limite) {
+        double[] potencial = new double[n];
+        double[] distancia = new double[n];
+        int[] aristaPrevia = new int[n];
+        MonticuloIndexado cola = new MonticuloIndexado(n);
+
+        while (flujoTotal < limite - EPSILON) {
+            // Dijkstra completo sobre costos reducidos
+            Arrays.fill(distancia, Double.POSITIVE_INFINITY);
+            distancia[fuente] = 0;
+            aristaPrevia[fuente] = -1;
+            cola.limpiar();
+            cola.insertarODisminuir(fuente, 0);
+            double maxima = 0;
+            while (!cola.estaVacio()) {
+                int u = cola.extraerMinimo();
+                maxima = distancia[u];
+                for (int e = cabeza[u]; e >= 0; e = siguiente[e]) {
+                    if (capacidad[e] - flujo[e] <= EPSILON) continue;
+                    int v = destino[e];
+                    double reducido = Math.max(0, costo[e] + potencial[u] - potencial[v]);
+                    double nueva = distancia[u] + reducido;
+                    if (nueva < distancia[v]) {
+                        distancia[v] = nueva;
+                        aristaPrevia[v] = e;
+                        cola.insertarODisminuir(v, nueva);
+                    }
+                }
+            }
+            if (distancia[sumidero] == Double.POSITIVE_INFINITY) break;
+
+            // Los no alcanzados suben lo máximo alcanzado: los costos reducidos siguen >= 0
+            for (int v = 0; v < n; v++) {
+                potencial[v] += distancia[v] == Double.POSITIVE_INFINITY ? maxima : distancia[v];
+            }
+
+            double aumento = limite - flujoTotal;
+            for (int v = sumidero; v != fuente; v = destino[aristaPrevia[v] ^ 1]) {
+                int e = aristaPrevia[v];
+                aumento = Math.min(aumento, capacidad[e] - flujo[e]);
+            }
+            if (aumento == Double.POSITIVE_INFINITY) {
+                throw new IllegalStateException("Flujo ilimitado: el camino no tiene capacidad finita");
+            }
+            for (int v = sumidero; v != fuente; v = destino[aristaPrevia[v] ^ 1]) {
+                int e = aristaPrevia[v];
+                flujo[e] += aumento;
+                flujo[e ^ 1] -= aumento;
+                costoTotal += aumento * costo[e];
+            }
+            flujoTotal += aumento;
+        }
+        return flujoTotal;
+    }
+
+    /**
+     * Flujo que pasa por la arista con el identificador dado
+     */
+    public double flujo(int arista) {
+        return flujo[arista];
+    }
+
+    public double getFlujoTotal() {
+        return flujoTotal;
+    }
+
+    /**
+     * Suma de flujo por costo en todas las aristas
+     */
+    public double getCostoTotal() {
+        return costoTotal;
+    }
+}
@@ -0,0 +1,244 @@
+package edu.universidad.estructura;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rutas Pareto-óptimas entre dos nodos según dos criterios: distancia y
+ * riesgo acumulado de los nodos atravesados (sin contar origen ni destino)
+ * Ninguna ruta del frente es a la vez más corta y menos riesgosa que otra
+ * Búsqueda por etiquetas bi-objetivo (BOA*): las etiquetas se expanden en
+ * orden lexicográfico de (distancia, riesgo) más cotas exactas hacia el
+ * destino calculadas con dos Dijkstra inversos, así una etiqueta está
+ * dominada si su riesgo no mejora el menor riesgo ya expandido en su nodo o
+ * en el destino, una comparación O(1)
+ * maxEtiquetas limita el trabajo: si se alcanza, el frente queda incompleto
+ * pero las rutas encontradas (las más cortas) siguen siendo Pareto-óptimas
+ */
+public class FrentePareto {
+
+    private final int[][] caminos;
+    private final double[] distancias;
+    private final double[] riesgos;
+    private final boolean completo;
+    private final int etiquetas;
+    private final long version;
+
+    private FrentePareto(int[][] caminos, double[] distancias, double[] riesgos, boolean completo,
+                         int etiquetas, long version) {
+        this.caminos = caminos;
+        this.distancias = distancias;
+        this.riesgos = riesgos;
+        this.completo = completo;
+        this.etiquetas = etiquetas;
+        this.version = version;
+    }
+
+    /**
+     * riesgo[v] es el costo de atravesar el nodo v (no negativo)
+     */
+    public static FrentePareto calcular(GrafoCompacto g, double[] riesgo, int origen, int destino,
+                                        int maxEtiquetas, long version) {
+        int n = g.getNumNodos();
+        double[] cotaDistancia = new double[n];
+        BusquedaDijkstra inversa = BusquedaDijkstra.delHilo();
+        inversa.ejecutarInverso(g, destino, -1);
+        for (int v = 0; v < n; v++) {
+            cotaDistancia[v] = inversa.distancia(v);
+        }
+        double[] cotaRiesgo = riesgoHasta(g, riesgo, destino);
+
+        Etiquetas e = new Etiquetas();
+        double[] menorRiesgo = new double[n];   // menor riesgo expandido en cada nodo
+        Arrays.fill(menorRiesgo, Double.POSITIVE_INFINITY);
+        List<Integer> soluciones = new ArrayList<>();
+        boolean completo = true;
+
+        if (cotaDistancia[origen] < Double.POSITIVE_INFINITY) {
+            e.agregar(origen, 0, 0, -1, cotaDistancia[origen], cotaRiesgo[origen]);
+        }
+        busqueda:
+        while (!e.vacia()) {
+            int l = e.extraer();
+            int v = e.nodo[l];
+            double r = e.riesgo[l];
+            if (r >= menorRiesgo[v] || r + cotaRiesgo[v] >= menorRiesgo[destino]) continue;
+            menorRiesgo[v] = r;
+            if (v == destino) {
+                soluciones.add(l);
+                continue;
+            }
+            for (int a = g.primeraArista(v), fin = g.finAristas(v); a < fin; a++) {
+                double peso = g.peso(a);
+                if (peso == Double.POSITIVE_INFINITY) continue;
+                int w = g.destino(a);
+                if (cotaDistancia[w] == Double.POSITIVE_INFINITY) continue;
+                double nuevoRiesgo = w == destino ? r : r + riesgo[w];
+                if (nuevoRiesgo >= menorRiesgo[w] || nuevoRiesgo + cotaRiesgo[w] >= menorRiesgo[destino]) continue;
+                if (e.cantidad >= maxEtiquetas) {
+                    completo = false;
+                    break busqueda;
+                }
+                double nuevaDistancia = e.distancia[l] + peso;
+                e.agregar(w, nuevaDistancia, nuevoRiesgo, l,
+                        nuevaDistancia + cotaDistancia[w], nuevoRiesgo + cotaRiesgo[w]);
+            }
+        }
+
+        int k = soluciones.size();
+        int[][] caminos = new int[k][];
+        double[] distancias = new double[k];
+        double[] riesgos = new double[k];
+        for (int i = 0; i < k; i++) {
+            int l = soluciones.get(i);
+            distancias[i] = e.distancia[l];
+            riesgos[i] = e.riesgo[l];
+            int largo = 0;
+            for (int x = l; x >= 0; x = e.padre[x]) largo++;
+            caminos[i] = new int[largo];
+            for (int x = l; x >= 0; x = e.padre[x]) {
+                caminos[i][--largo] = e.nodo[x];
+            }
+        }
+        return new FrentePareto(caminos, distancias, riesgos, completo, e.cantidad, version);
+    }
+
+    /**
+     * Menor riesgo desde cada nodo hasta destino (Dijkstra inverso donde
+     * entrar a x cuesta riesgo[x], salvo al destino)
+     */
+    private static double[] riesgoHasta(GrafoCompacto g, double[] riesgo, int destino) {
+        int n = g.getNumNodos();
+        double[] cota = new double[n];
+        Arrays.fill(cota, Double.POSITIVE_INFINITY);
+        MonticuloIndexado cola = new MonticuloIndexado(n);
+        cota[destino] = 0;
+        cola.insertarODisminuir(destino, 0);
+        while (!cola.estaVacio()) {
+            int x = cola.extraerMinimo();
+            double entrar = x == destino ? 0 : riesgo[x];
+            for (int a = g.primeraAristaEntrante(x), fin = g.finAristasEntrantes(x); a < fin; a++) {
+                if (g.pesoEntrante(a) == Double.POSITIVE_INFINITY) continue;
+                int u = g.origen(a);
+                double nueva = cota[x] + entrar;
+                if (nueva < cota[u]) {
+                    cota[u] = nueva;
+                    cola.insertarODisminuir(u, nueva);
+                }
+            }
+        }
+        return cota;
+    }
+
+    /**
+     * Etiquetas en arreglos paralelos con un heap binario ordenado por
+     * (distancia + cota, riesgo + cota)
+     */
+    private static final class Etiquetas {
+        int[] nodo = new int[64];
+        int[] padre = new int[64];
+        double[] distancia = new double[64];
+        double[] riesgo = new double[64];
+        double[] clave1 = new double[64];
+        double[] clave2 = new double[64];
+        int cantidad;
+        int[] heap = new int[64];
+        int tamanio;
+
+        void agregar(int v, double d, double r, int p, double f1, double f2) {
+            if (cantidad == nodo.length) {
+                int nueva = cantidad * 2;
+                nodo = Arrays.copyOf(nodo, nueva);
+                padre = Arrays.copyOf(padre, nueva);
+                distancia = Arrays.copyOf(distancia, nueva);
+                riesgo = Arrays.copyOf(riesgo, nueva);
+                clave1 = Arrays.copyOf(clave1, nueva);
+                clave2 = Arrays.copyOf(clave2, nueva);
+                heap = Arrays.copyOf(heap, nueva);
+            }
+            int l = cantidad++;
+            nodo[l] = v;
+            padre[l] = p;
+            distancia[l] = d;
+            riesgo[l] = r;
+            clave1[l] = f1;
+            clave2[l] = f2;
+            int i = tamanio++;
+            heap[i] = l;
+            while (i > 0 && menor(heap[i], heap[(i - 1) / 2])) {
+                intercambiar(i, (i - 1) / 2);
+                i = (i - 1) / 2;
+            }
+        }
+
+        boolean vacia() {
+            return tamanio == 0;
+        }
+
+        int extraer() {
+            int l = heap[0];
+            heap[0] = heap[--tamanio];
+            int i = 0;
+            while (true) {
+                int izq = 2 * i + 1, der = izq + 1, m = i;
+                if (izq < tamanio && menor(heap[izq], heap[m])) m = izq;
+                if (der < tamanio && menor(heap[der], heap[m])) m = der;
+                if (m == i) break;
+                intercambiar(i, m);
+                i = m;
+            }
+            return l;
+        }
+
+        private boolean menor(int a, int b) {
+            return clave1[a] < clave1[b] || (clave1[a] == clave1[b] && clave2[a] < clave2[b]);
+        }
+
+        private void intercambiar(int i, int j) {
+            int t = heap[i];
+            heap[i] = heap[j];
+            heap[j] = t;
+        }
+    }
+
+    /**
+     * Cantidad de rutas del frente, ordenadas de la más corta a la menos riesgosa
+     */
+    public int getCantidad() {
+        return caminos.length;
+    }
+
+    public int[] camino(int i) {
+        return caminos[i];
+    }
+
+    public double distancia(int i) {
+        return distancias[i];
+    }
+
+    public double riesgo(int i) {
+        return riesgos[i];
+    }
+
+    /**
+     * False si se cortó por el límite de etiquetas (faltan rutas más largas y menos riesgosas)
+     */
+    public boolean isCompleto() {
+        return completo;
+    }
+
+    /**
+     * Etiquetas creadas durante la búsqueda
+     */
+    public int getEtiquetas() {
+        return etiquetas;
+    }
+
+    /**
+     * Versión del grafo con la que se calculó
+     */
+    public long getVersion() {
+        return version;
+    }
+}
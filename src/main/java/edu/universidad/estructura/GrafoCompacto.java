@@ -0,0 +1,392 @@
+package edu.universidad.estructura;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Implementación propia de una vista compacta (CSR) de un grafo dirigido.
+ * Los nodos se identifican con enteros 0..n-1 y las aristas de cada nodo
+ * ocupan un rango contiguo de los arreglos destinos/pesos.
+ * También guarda el índice inverso (aristas entrantes de cada nodo) para las
+ * búsquedas que avanzan desde el destino.
+ * La vista es inmutable: se construye una vez y se comparte entre búsquedas.
+ * Los pesos se guardan en bloques de TAMANIO_BLOQUE aristas; las vistas con
+ * un peso cambiado comparten todos los bloques salvo los que tocan.
+ * Una arista con peso infinito está cerrada o eliminada y no se recorre.
+ */
+public final class GrafoCompacto {
+
+    private static final int BITS_BLOQUE = 10;
+    private static final int TAMANIO_BLOQUE = 1 << BITS_BLOQUE;
+    private static final int MASCARA_BLOQUE = TAMANIO_BLOQUE - 1;
+
+    private final String[] ids;
+    private final Map<String, Integer> indices;
+
+    // Aristas salientes del nodo u: posiciones inicio[u] .. inicio[u+1]-1
+    private final int[] inicio;
+    private final int[] destinos;
+    private final double[][] pesos;   // peso de la arista e: pesos[e >>> BITS_BLOQUE][e & MASCARA_BLOQUE]
+
+    // Aristas entrantes del nodo v: posiciones inicioInverso[v] .. inicioInverso[v+1]-1
+    private final int[] inicioInverso;
+    private final int[] origenesInversos;
+    private final double[][] pesosInversos;
+
+    // Coordenadas opcionales en grados (NaN si el nodo no tiene)
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    // Nodos eliminados después de construir la vista, en bloques como los
+    // pesos (null si ninguno; un bloque null no tiene eliminados)
+    private final boolean[][] eliminados;
+
+    // Huella calculada de forma perezosa (0 = aún no calculada)
+    private long huella;
+
+    /**
+     * Construye la vista a partir de una lista de aristas (origen, destino, peso)
+     * expresadas con índices de nodo. Conserva el orden relativo de las aristas
+     * de cada nodo.
+     */
+    public GrafoCompacto(String[] ids, int[] origenes, int[] destinosArista, double[] pesosArista, int numAristas) {
+        this(ids, origenes, destinosArista, pesosArista, numAristas, null, null);
+    }
+
+    /**
+     * Igual que el constructor anterior, con latitud/longitud por nodo
+     * (arreglos de tamaño n con NaN para nodos sin ubicación, o null)
+     */
+    public GrafoCompacto(String[] ids, int[] origenes, int[] destinosArista, double[] pesosArista, int numAristas,
+                         double[] latitudes, double[] longitudes) {
+        int n = ids.length;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.eliminados = null;
+        this.ids = ids;
+        this.indices = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indices.put(ids[i], i);
+        }
+
+        this.inicio = new int[n + 1];
+        this.destinos = new int[numAristas];
+        this.pesos = nuevosBloques(numAristas);
+
+        // Conteo por origen y suma acumulada
+        for (int e = 0; e < numAristas; e++) {
+            inicio[origenes[e] + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            inicio[u + 1] += inicio[u];
+        }
+
+        // Colocación estable de cada arista en su fila
+        int[] siguiente = new int[n];
+        System.arraycopy(inicio, 0, siguiente, 0, n);
+        for (int e = 0; e < numAristas; e++) {
+            int pos = siguiente[origenes[e]]++;
+            destinos[pos] = destinosArista[e];
+            pesos[pos >>> BITS_BLOQUE][pos & MASCARA_BLOQUE] = pesosArista[e];
+        }
+
+        // Índice inverso agrupado por destino
+        this.inicioInverso = new int[n + 1];
+        this.origenesInversos = new int[numAristas];
+        this.pesosInversos = nuevosBloques(numAristas);
+        for (int e = 0; e < numAristas; e++) {
+            inicioInverso[destinosArista[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            inicioInverso[v + 1] += inicioInverso[v];
+        }
+        System.arraycopy(inicioInverso, 0, siguiente, 0, n);
+        for (int e = 0; e < numAristas; e++) {
+            int pos = siguiente[destinosArista[e]]++;
+            origenesInversos[pos] = origenes[e];
+            pesosInversos[pos >>> BITS_BLOQUE][pos & MASCARA_BLOQUE] = pesosArista[e];
+        }
+    }
+
+    /**
+     * Copia que comparte toda la estructura con otra vista y solo cambia los
+     * pesos y los nodos eliminados
+     */
+    private GrafoCompacto(GrafoCompacto base, double[][] pesos, double[][] pesosInversos, boolean[][] eliminados) {
+        this.eliminados = eliminados;
+        this.ids = base.ids;
+        this.indices = base.indices;
+        this.inicio = base.inicio;
+        this.destinos = base.destinos;
+        this.pesos = pesos;
+        this.inicioInverso = base.inicioInverso;
+        this.origenesInversos = base.origenesInversos;
+        this.pesosInversos = pesosInversos;
+        this.latitudes = base.latitudes;
+        this.longitudes = base.longitudes;
+    }
+
+    private static double[][] nuevosBloques(int cantidad) {
+        double[][] bloques = new double[(cantidad + MASCARA_BLOQUE) >>> BITS_BLOQUE][];
+        for (int b = 0; b < bloques.length; b++) {
+            bloques[b] = new double[Math.min(TAMANIO_BLOQUE, cantidad - (b << BITS_BLOQUE))];
+        }
+        return bloques;
+    }
+
+    /**
+     * Escribe la posición i en copia, que empezó como clon de las referencias
+     * de base: el bloque se copia la primera vez que se toca
+     */
+    private static void escribir(double[][] copia, double[][] base, int i, double valor) {
+        int b = i >>> BITS_BLOQUE;
+        if (copia[b] == base[b]) {
+            copia[b] = base[b].clone();
+        }
+        copia[b][i & MASCARA_BLOQUE] = valor;
+    }
+
+    /**
+     * Retorna una vista nueva igual a esta salvo el peso de la arista u -> v
+     * Copia el bloque de la arista en cada sentido y las referencias a los
+     * bloques (E / TAMANIO_BLOQUE), no los E pesos; esta vista no se modifica
+     */
+    public GrafoCompacto conPeso(int u, int v, double peso) {
+        int e = arista(u, v);
+        if (e < 0) {
+            throw new IllegalArgumentException("No existe la arista " + ids[u] + " -> " + ids[v]);
+        }
+        double[][] nuevosPesos = pesos.clone();
+        double[][] nuevosPesosInversos = pesosInversos.clone();
+        escribir(nuevosPesos, pesos, e, peso);
+        for (int i = inicioInverso[v], fin = inicioInverso[v + 1]; i < fin; i++) {
+            if (origenesInversos[i] == u) escribir(nuevosPesosInversos, pesosInversos, i, peso);
+        }
+        return new GrafoCompacto(this, nuevosPesos, nuevosPesosInversos, eliminados);
+    }
+
+    /**
+     * Retorna una vista nueva en la que el nodo v queda eliminado: sus
+     * aristas pasan a peso infinito e indiceDe deja de encontrarlo
+     * Es una lápida; la próxima reconstrucción completa lo quita del todo
+     * Copia solo los bloques de pesos de sus aristas y el de su marca, no
+     * los arreglos completos
+     */
+    public GrafoCompacto sinNodo(int v) {
+        double[][] nuevosPesos = pesos.clone();
+        double[][] nuevosPesosInversos = pesosInversos.clone();
+        for (int e = inicio[v], fin = inicio[v + 1]; e < fin; e++) {
+            escribir(nuevosPesos, pesos, e, Double.POSITIVE_INFINITY);
+            int x = destinos[e];
+            for (int i = inicioInverso[x], finInverso = inicioInverso[x + 1]; i < finInverso; i++) {
+                if (origenesInversos[i] == v) escribir(nuevosPesosInversos, pesosInversos, i, Double.POSITIVE_INFINITY);
+            }
+        }
+        for (int i = inicioInverso[v], fin = inicioInverso[v + 1]; i < fin; i++) {
+            escribir(nuevosPesosInversos, pesosInversos, i, Double.POSITIVE_INFINITY);
+            int e = arista(origenesInversos[i], v);
+            if (e >= 0) escribir(nuevosPesos, pesos, e, Double.POSITIVE_INFINITY);
+        }
+        boolean[][] nuevosEliminados = eliminados != null
+                ? eliminados.clone() : new boolean[(ids.length + MASCARA_BLOQUE) >>> BITS_BLOQUE][];
+        int b = v >>> BITS_BLOQUE;
+        nuevosEliminados[b] = nuevosEliminados[b] != null ? nuevosEliminados[b].clone() : new boolean[TAMANIO_BLOQUE];
+        nuevosEliminados[b][v & MASCARA_BLOQUE] = true;
+        return new GrafoCompacto(this, nuevosPesos, nuevosPesosInversos, nuevosEliminados);
+    }
+
+    /**
+     * Indica si el nodo fue eliminado con sinNodo
+     */
+    public boolean estaEliminado(int v) {
+        if (eliminados == null) return false;
+        boolean[] bloque = eliminados[v >>> BITS_BLOQUE];
+        return bloque != null && bloque[v & MASCARA_BLOQUE];
+    }
+
+    /**
+     * Posición de la arista u -> v en los arreglos de salida (-1 si no existe)
+     */
+    public int arista(int u, int v) {
+        for (int e = inicio[u], fin = inicio[u + 1]; e < fin; e++) {
+            if (destinos[e] == v) return e;
+        }
+        return -1;
+    }
+
+    /**
+     * Retorna el número de nodos
+     */
+    public int getNumNodos() {
+        return ids.length;
+    }
+
+    /**
+     * Retorna el número de aristas
+     */
+    public int getNumAristas() {
+        return destinos.length;
+    }
+
+    /**
+     * Retorna el índice de un nodo o -1 si no existe
+     */
+    public int indiceDe(String id) {
+        Integer indice = indices.get(id);
+        return indice != null && !estaEliminado(indice) ? indice : -1;
+    }
+
+    /**
+     * Retorna el identificador de un nodo a partir de su índice
+     */
+    public String getId(int nodo) {
+        return ids[nodo];
+    }
+
+    /**
+     * Posición de la primera arista saliente del nodo
+     */
+    public int primeraArista(int nodo) {
+        return inicio[nodo];
+    }
+
+    /**
+     * Posición siguiente a la última arista saliente del nodo
+     */
+    public int finAristas(int nodo) {
+        return inicio[nodo + 1];
+    }
+
+    /**
+     * Nodo origen de la arista saliente en la posición dada (búsqueda binaria)
+     */
+    public int origenDeArista(int arista) {
+        int bajo = 0, alto = ids.length - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto + 1) >>> 1;
+            if (inicio[medio] <= arista) bajo = medio;
+            else alto = medio - 1;
+        }
+        return bajo;
+    }
+
+    /**
+     * Nodo destino de la arista en la posición dada
+     */
+    public int destino(int arista) {
+        return destinos[arista];
+    }
+
+    /**
+     * Peso de la arista en la posición dada
+     */
+    public double peso(int arista) {
+        return pesos[arista >>> BITS_BLOQUE][arista & MASCARA_BLOQUE];
+    }
+
+    /**
+     * Posición de la primera arista entrante del nodo en el índice inverso
+     */
+    public int primeraAristaEntrante(int nodo) {
+        return inicioInverso[nodo];
+    }
+
+    /**
+     * Posición siguiente a la última arista entrante del nodo
+     */
+    public int finAristasEntrantes(int nodo) {
+        return inicioInverso[nodo + 1];
+    }
+
+    /**
+     * Nodo origen de la arista entrante en la posición dada
+     */
+    public int origen(int aristaEntrante) {
+        return origenesInversos[aristaEntrante];
+    }
+
+    /**
+     * Peso de la arista entrante en la posición dada
+     */
+    public double pesoEntrante(int aristaEntrante) {
+        return pesosInversos[aristaEntrante >>> BITS_BLOQUE][aristaEntrante & MASCARA_BLOQUE];
+    }
+
+    /**
+     * Grado de entrada de un nodo
+     */
+    public int gradoEntrada(int nodo) {
+        return inicioInverso[nodo + 1] - inicioInverso[nodo];
+    }
+
+    /**
+     * Indica si el nodo tiene latitud y longitud
+     */
+    public boolean tieneCoordenadas(int nodo) {
+        return latitudes != null && !Double.isNaN(latitudes[nodo]) && !Double.isNaN(longitudes[nodo]);
+    }
+
+    public double latitud(int nodo) {
+        return latitudes != null ? latitudes[nodo] : Double.NaN;
+    }
+
+    public double longitud(int nodo) {
+        return longitudes != null ? longitudes[nodo] : Double.NaN;
+    }
+
+    /**
+     * Grado de salida de un nodo
+     */
+    public int gradoSalida(int nodo) {
+        return inicio[nodo + 1] - inicio[nodo];
+    }
+
+    /**
+     * Cantidad de bloques de pesos (salientes y entrantes) que esta vista no
+     * comparte con otra; si no comparten la estructura cuenta todos
+     */
+    public int bloquesPesosDistintos(GrafoCompacto otra) {
+        if (otra.destinos != destinos) {
+            return pesos.length + pesosInversos.length;
+        }
+        int distintos = 0;
+        for (int b = 0; b < pesos.length; b++) {
+            if (pesos[b] != otra.pesos[b]) distintos++;
+            if (pesosInversos[b] != otra.pesosInversos[b]) distintos++;
+        }
+        return distintos;
+    }
+
+    /**
+     * Huella de 64 bits de los nodos, aristas y pesos
+     * Permite saber si una estructura derivada (jerarquía, caché en disco)
+     * corresponde exactamente a este grafo
+     */
+    public long huella() {
+        long h = huella;
+        if (h == 0) {
+            h = 0xcbf29ce484222325L;
+            h = mezclar(h, ids.length);
+            for (String id : ids) h = mezclar(h, id.hashCode());
+            for (int valor : inicio) h = mezclar(h, valor);
+            for (int valor : destinos) h = mezclar(h, valor);
+            for (double[] bloque : pesos) {
+                for (double valor : bloque) h = mezclar(h, Double.doubleToLongBits(valor));
+            }
+            if (h == 0) h = 1;
+            huella = h;
+        }
+        return h;
+    }
+
+    private static long mezclar(long h, long valor) {
+        h ^= valor;
+        h *= 0x100000001b3L;
+        return h ^ (h >>> 29);
+    }
+
+    @Override
+    public String toString() {
+        return "GrafoCompacto[nodos=" + ids.length + ", aristas=" + destinos.length + "]";
+    }
+}
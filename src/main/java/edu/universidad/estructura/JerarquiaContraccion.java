@@ -0,0 +1,700 @@
+package edu.universidad.estructura;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Implementación propia de Contraction Hierarchies sobre GrafoCompacto
+ * Preprocesa el grafo contrayendo los nodos de menor importancia y agregando
+ * atajos que preservan las distancias; luego cada consulta es un Dijkstra
+ * bidireccional que solo sube en la jerarquía y toca muy pocos nodos
+ * Los atajos recuerdan su nodo intermedio para desempaquetar el camino real
+ */
+public class JerarquiaContraccion {
+
+    private static final int FIRMA_ARCHIVO = 0x43484431; // "CHD1"
+
+    // Límite de nodos asentados por búsqueda de testigos (al estimar y al contraer)
+    private static final int LIMITE_TESTIGOS_SIMULACION = 50;
+    private static final int LIMITE_TESTIGOS = 500;
+
+    private final int numNodos;
+    private final long huella;
+    private final int[] rango;
+    private final int numAtajos;
+
+    // Aristas hacia arriba desde u: u -> x con rango[x] > rango[u]
+    private final int[] inicioSubida;
+    private final int[] destinoSubida;
+    private final double[] pesoSubida;
+    private final int[] medioSubida;
+
+    // Aristas que llegan a u desde arriba: x -> u con rango[x] > rango[u]
+    private final int[] inicioBajada;
+    private final int[] origenBajada;
+    private final double[] pesoBajada;
+    private final int[] medioBajada;
+
+    private JerarquiaContraccion(int numNodos, long huella, int[] rango, int numAtajos,
+                                 int[] inicioSubida, int[] destinoSubida, double[] pesoSubida, int[] medioSubida,
+                                 int[] inicioBajada, int[] origenBajada, double[] pesoBajada, int[] medioBajada) {
+        this.numNodos = numNodos;
+        this.huella = huella;
+        this.rango = rango;
+        this.numAtajos = numAtajos;
+        this.inicioSubida = inicioSubida;
+        this.destinoSubida = destinoSubida;
+        this.pesoSubida = pesoSubida;
+        this.medioSubida = medioSubida;
+        this.inicioBajada = inicioBajada;
+        this.origenBajada = origenBajada;
+        this.pesoBajada = pesoBajada;
+        this.medioBajada = medioBajada;
+    }
+
+    /**
+     * Construye la jerarquía contrayendo todos los nodos del grafo
+     */
+    public static JerarquiaContraccion construir(GrafoCompacto g) {
+        return new Contractor(g).contraerTodo();
+    }
+
+    public int getNumNodos() {
+        return numNodos;
+    }
+
+    /**
+     * Huella del grafo a partir del cual se construyó la jerarquía
+     */
+    public long getHuella() {
+        return huella;
+    }
+
+    public int getNumAtajos() {
+        return numAtajos;
+    }
+
+    public int getRango(int nodo) {
+        return rango[nodo];
+    }
+
+    // =============== CONSULTAS ===============
+
+    /**
+     * Distancia mínima entre dos nodos (infinito si no hay camino)
+     */
+    public double distancia(int origen, int destino) {
+        EspacioConsulta c = EspacioConsulta.delHilo(numNodos);
+        buscar(c, origen, destino);
+        return c.mejorDistancia;
+    }
+
+    /**
+     * Camino mínimo desempaquetado a nodos originales (vacío si no hay camino)
+     */
+    public int[] camino(int origen, int destino) {
+        EspacioConsulta c = EspacioConsulta.delHilo(numNodos);
+        buscar(c, origen, destino);
+        if (c.encuentro < 0) {
+            return new int[0];
+        }
+
+        // Aristas de la jerarquía: origen -> encuentro -> destino
+        int[] desde = new int[16];
+        int[] hasta = new int[16];
+        int tramos = 0;
+        int[] pila = new int[16];
+        int tope = 0;
+        for (int v = c.encuentro; v != origen; v = c.previo[0][v]) {
+            pila = asegurar(pila, tope + 1);
+            pila[tope++] = v;
+        }
+        int anterior = origen;
+        while (tope > 0) {
+            int v = pila[--tope];
+            desde = asegurar(desde, tramos + 1);
+            hasta = asegurar(hasta, tramos + 1);
+            desde[tramos] = anterior;
+            hasta[tramos++] = v;
+            anterior = v;
+        }
+        for (int v = c.encuentro; v != destino; v = c.previo[1][v]) {
+            desde = asegurar(desde, tramos + 1);
+            hasta = asegurar(hasta, tramos + 1);
+            desde[tramos] = v;
+            hasta[tramos++] = c.previo[1][v];
+        }
+
+        // Desempaquetar cada tramo reemplazando atajos por sus dos mitades
+        int[] resultado = new int[16];
+        int tam = 0;
+        resultado[tam++] = origen;
+        int[] pilaDesde = new int[16];
+        int[] pilaHasta = new int[16];
+        for (int i = 0; i < tramos; i++) {
+            tope = 0;
+            pilaDesde[tope] = desde[i];
+            pilaHasta[tope++] = hasta[i];
+            while (tope > 0) {
+                int a = pilaDesde[--tope];
+                int b = pilaHasta[tope];
+                int medio = medioEntre(a, b);
+                if (medio < 0) {
+                    resultado = asegurar(resultado, tam + 1);
+                    resultado[tam++] = b;
+                } else {
+                    pilaDesde = asegurar(pilaDesde, tope + 2);
+                    pilaHasta = asegurar(pilaHasta, tope + 2);
+                    // Se apila primero la segunda mitad para procesar la primera antes
+                    pilaDesde[tope] = medio;
+                    pilaHasta[tope++] = b;
+                    pilaDesde[tope] = a;
+                    pilaHasta[tope++] = medio;
+                }
+            }
+        }
+        return Arrays.copyOf(resultado, tam);
+    }
+
+    /**
+     * Distancias de cada origen a cada destino, por filas, con cubetas: una
+     * búsqueda ascendente hacia atrás por destino deja (destino, distancia)
+     * en cada nodo que alcanza y luego una búsqueda ascendente por origen
+     * combina lo que encuentra en esas cubetas. Son dos búsquedas pequeñas
+     * por punto en lugar de un Dijkstra completo por origen
+     */
+    public double[] matriz(int[] origenes, int[] destinos) {
+        int columnas = destinos.length;
+        double[] valores = new double[origenes.length * columnas];
+        Arrays.fill(valores, Double.POSITIVE_INFINITY);
+        EspacioConsulta c = EspacioConsulta.delHilo(numNodos);
+
+        // Cubetas como listas enlazadas por nodo
+        int[] cabeza = new int[numNodos];
+        Arrays.fill(cabeza, -1);
+        int[] siguiente = new int[64];
+        int[] columna = new int[64];
+        double[] distanciaCubeta = new double[64];
+        int entradas = 0;
+        for (int j = 0; j < columnas; j++) {
+            c.iniciar();
+            c.alcanzar(1, destinos[j], 0.0, -1);
+            c.colas[1].insertarODisminuir(destinos[j], 0.0);
+            while (!c.colas[1].estaVacio()) {
+                int u = c.colas[1].extraerMinimo();
+                double du = c.distancia[1][u];
+                if (entradas == siguiente.length) {
+                    siguiente = Arrays.copyOf(siguiente, entradas * 2);
+                    columna = Arrays.copyOf(columna, entradas * 2);
+                    distanciaCubeta = Arrays.copyOf(distanciaCubeta, entradas * 2);
+                }
+                siguiente[entradas] = cabeza[u];
+                columna[entradas] = j;
+                distanciaCubeta[entradas] = du;
+                cabeza[u] = entradas++;
+                for (int e = inicioBajada[u]; e < inicioBajada[u + 1]; e++) {
+                    c.relajar(1, origenBajada[e], du + pesoBajada[e], u);
+                }
+            }
+        }
+
+        for (int i = 0; i < origenes.length; i++) {
+            int base = i * columnas;
+            c.iniciar();
+            c.alcanzar(0, origenes[i], 0.0, -1);
+            c.colas[0].insertarODisminuir(origenes[i], 0.0);
+            while (!c.colas[0].estaVacio()) {
+                int u = c.colas[0].extraerMinimo();
+                double du = c.distancia[0][u];
+                for (int k = cabeza[u]; k >= 0; k = siguiente[k]) {
+                    double total = du + distanciaCubeta[k];
+                    if (total < valores[base + columna[k]]) {
+                        valores[base + columna[k]] = total;
+                    }
+                }
+                for (int e = inicioSubida[u]; e < inicioSubida[u + 1]; e++) {
+                    c.relajar(0, destinoSubida[e], du + pesoSubida[e], u);
+                }
+            }
+        }
+        return valores;
+    }
+
+    /**
+     * Búsqueda bidireccional ascendente
+     */
+    private void buscar(EspacioConsulta c, int origen, int destino) {
+        c.iniciar();
+        c.alcanzar(0, origen, 0.0, -1);
+        c.alcanzar(1, destino, 0.0, -1);
+        c.colas[0].insertarODisminuir(origen, 0.0);
+        c.colas[1].insertarODisminuir(destino, 0.0);
+
+        while (true) {
+            boolean adelante = !c.colas[0].estaVacio() && c.colas[0].claveMinima() < c.mejorDistancia;
+            boolean atras = !c.colas[1].estaVacio() && c.colas[1].claveMinima() < c.mejorDistancia;
+            if (!adelante && !atras) break;
+
+            int lado;
+            if (adelante && atras) {
+                lado = c.colas[0].claveMinima() <= c.colas[1].claveMinima() ? 0 : 1;
+            } else {
+                lado = adelante ? 0 : 1;
+            }
+
+            int u = c.colas[lado].extraerMinimo();
+            double du = c.distancia[lado][u];
+            double total = du + c.distancia(1 - lado, u);
+            if (total < c.mejorDistancia) {
+                c.mejorDistancia = total;
+                c.encuentro = u;
+            }
+
+            if (lado == 0) {
+                for (int e = inicioSubida[u]; e < inicioSubida[u + 1]; e++) {
+                    c.relajar(0, destinoSubida[e], du + pesoSubida[e], u);
+                }
+            } else {
+                for (int e = inicioBajada[u]; e < inicioBajada[u + 1]; e++) {
+                    c.relajar(1, origenBajada[e], du + pesoBajada[e], u);
+                }
+            }
+        }
+    }
+
+    /**
+     * Nodo intermedio de la arista a -> b de la jerarquía (-1 si es original)
+     */
+    private int medioEntre(int a, int b) {
+        int mejor = -2;
+        double mejorPeso = Double.POSITIVE_INFINITY;
+        if (rango[a] < rango[b]) {
+            for (int e = inicioSubida[a]; e < inicioSubida[a + 1]; e++) {
+                if (destinoSubida[e] == b && (mejor == -2 || pesoSubida[e] < mejorPeso)) {
+                    mejorPeso = pesoSubida[e];
+                    mejor = medioSubida[e];
+                }
+            }
+        } else {
+            for (int e = inicioBajada[b]; e < inicioBajada[b + 1]; e++) {
+                if (origenBajada[e] == a && (mejor == -2 || pesoBajada[e] < mejorPeso)) {
+                    mejorPeso = pesoBajada[e];
+                    mejor = medioBajada[e];
+                }
+            }
+        }
+        if (mejor == -2) {
+            throw new IllegalStateException("Arista inexistente en la jerarquía: " + a + " -> " + b);
+        }
+        return mejor;
+    }
+
+    private static int[] asegurar(int[] arreglo, int tamanio) {
+        return tamanio <= arreglo.length ? arreglo : Arrays.copyOf(arreglo, Math.max(tamanio, arreglo.length * 2));
+    }
+
+    // =============== PERSISTENCIA ===============
+
+    /**
+     * Escribe la jerarquía en formato binario
+     */
+    public void escribir(DataOutputStream out) throws IOException {
+        out.writeInt(FIRMA_ARCHIVO);
+        out.writeInt(numNodos);
+        out.writeLong(huella);
+        out.writeInt(numAtajos);
+        escribirEnteros(out, rango);
+        escribirEnteros(out, inicioSubida);
+        escribirEnteros(out, destinoSubida);
+        escribirReales(out, pesoSubida);
+        escribirEnteros(out, medioSubida);
+        escribirEnteros(out, inicioBajada);
+        escribirEnteros(out, origenBajada);
+        escribirReales(out, pesoBajada);
+        escribirEnteros(out, medioBajada);
+    }
+
+    /**
+     * Lee una jerarquía escrita con escribir()
+     */
+    public static JerarquiaContraccion leer(DataInputStream in) throws IOException {
+        if (in.readInt() != FIRMA_ARCHIVO) {
+            throw new IOException("El archivo no contiene una jerarquía de contracción");
+        }
+        int numNodos = in.readInt();
+        long huella = in.readLong();
+        int numAtajos = in.readInt();
+        return new JerarquiaContraccion(numNodos, huella,
+                leerEnteros(in), numAtajos,
+                leerEnteros(in), leerEnteros(in), leerReales(in), leerEnteros(in),
+                leerEnteros(in), leerEnteros(in), leerReales(in), leerEnteros(in));
+    }
+
+    private static void escribirEnteros(DataOutputStream out, int[] datos) throws IOException {
+        out.writeInt(datos.length);
+        for (int dato : datos) out.writeInt(dato);
+    }
+
+    private static void escribirReales(DataOutputStream out, double[] datos) throws IOException {
+        out.writeInt(datos.length);
+        for (double dato : datos) out.writeDouble(dato);
+    }
+
+    private static int[] leerEnteros(DataInputStream in) throws IOException {
+        int[] datos = new int[in.readInt()];
+        for (int i = 0; i < datos.length; i++) datos[i] = in.readInt();
+        return datos;
+    }
+
+    private static double[] leerReales(DataInputStream in) throws IOException {
+        double[] datos = new double[in.readInt()];
+        for (int i = 0; i < datos.length; i++) datos[i] = in.readDouble();
+        return datos;
+    }
+
+    @Override
+    public String toString() {
+        return "JerarquiaContraccion[nodos=" + numNodos + ", atajos=" + numAtajos + "]";
+    }
+
+    // =============== ESPACIO DE CONSULTA ===============
+
+    /**
+     * Arreglos reutilizables de la búsqueda bidireccional, uno por hilo
+     */
+    private static class EspacioConsulta {
+        private static final ThreadLocal<EspacioConsulta> POR_HILO =
+                ThreadLocal.withInitial(EspacioConsulta::new);
+
+        final double[][] distancia = {new double[0], new double[0]};
+        final int[][] previo = {new int[0], new int[0]};
+        final int[][] marca = {new int[0], new int[0]};
+        final MonticuloIndexado[] colas = {new MonticuloIndexado(0), new MonticuloIndexado(0)};
+        int epoca;
+        double mejorDistancia;
+        int encuentro;
+
+        static EspacioConsulta delHilo(int n) {
+            EspacioConsulta c = POR_HILO.get();
+            if (c.marca[0].length < n) {
+                for (int lado = 0; lado < 2; lado++) {
+                    c.distancia[lado] = new double[n];
+                    c.previo[lado] = new int[n];
+                    c.marca[lado] = new int[n];
+                    c.colas[lado].asegurarCapacidad(n);
+                }
+                c.epoca = 0;
+            }
+            return c;
+        }
+
+        void iniciar() {
+            if (epoca == Integer.MAX_VALUE) {
+                Arrays.fill(marca[0], 0);
+                Arrays.fill(marca[1], 0);
+                epoca = 0;
+            }
+            epoca++;
+            colas[0].limpiar();
+            colas[1].limpiar();
+            mejorDistancia = Double.POSITIVE_INFINITY;
+            encuentro = -1;
+        }
+
+        void alcanzar(int lado, int nodo, double d, int padre) {
+            marca[lado][nodo] = epoca;
+            distancia[lado][nodo] = d;
+            previo[lado][nodo] = padre;
+        }
+
+        double distancia(int lado, int nodo) {
+            return marca[lado][nodo] == epoca ? distancia[lado][nodo] : Double.POSITIVE_INFINITY;
+        }
+
+        void relajar(int lado, int nodo, double d, int padre) {
+            if (d < distancia(lado, nodo)) {
+                alcanzar(lado, nodo, d, padre);
+                colas[lado].insertarODisminuir(nodo, d);
+            }
+        }
+    }
+
+    // =============== PREPROCESAMIENTO ===============
+
+    /**
+     * Lista dinámica de aristas de un nodo durante la contracción
+     */
+    private static class ListaAristas {
+        int[] otro = new int[2];
+        double[] peso = new double[2];
+        int[] medio = new int[2];
+        int tam;
+
+        /**
+         * Agrega la arista o conserva la de menor peso si ya existe
+         */
+        void agregarOMejorar(int nodo, double p, int m) {
+            for (int i = 0; i < tam; i++) {
+                if (otro[i] == nodo) {
+                    if (p < peso[i]) {
+                        peso[i] = p;
+                        medio[i] = m;
+                    }
+                    return;
+                }
+            }
+            if (tam == otro.length) {
+                otro = Arrays.copyOf(otro, tam * 2);
+                peso = Arrays.copyOf(peso, tam * 2);
+                medio = Arrays.copyOf(medio, tam * 2);
+            }
+            otro[tam] = nodo;
+            peso[tam] = p;
+            medio[tam++] = m;
+        }
+
+        /**
+         * Quita la arista hacia el nodo dado (sin conservar el orden)
+         */
+        void eliminar(int nodo) {
+            for (int i = 0; i < tam; i++) {
+                if (otro[i] == nodo) {
+                    tam--;
+                    otro[i] = otro[tam];
+                    peso[i] = peso[tam];
+                    medio[i] = medio[tam];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Realiza la contracción ordenada por importancia (diferencia de aristas)
+     */
+    private static class Contractor {
+        private final GrafoCompacto grafo;
+        private final int n;
+        private final ListaAristas[] salida;
+        private final ListaAristas[] entrada;
+        private final boolean[] contraido;
+        private final int[] vecinosContraidos;
+        private final int[] nivel;
+
+        // Búsqueda de testigos
+        private final double[] distTestigo;
+        private final int[] marcaTestigo;
+        private int epocaTestigo;
+        private final MonticuloIndexado colaTestigo;
+
+        private int atajos;
+
+        Contractor(GrafoCompacto g) {
+            this.grafo = g;
+            this.n = g.getNumNodos();
+            salida = new ListaAristas[n];
+            entrada = new ListaAristas[n];
+            for (int u = 0; u < n; u++) {
+                salida[u] = new ListaAristas();
+                entrada[u] = new ListaAristas();
+            }
+            for (int u = 0; u < n; u++) {
+                for (int e = g.primeraArista(u); e < g.finAristas(u); e++) {
+                    int v = g.destino(e);
+                    // Los lazos y las vías cerradas no aportan caminos
+                    if (v == u || g.peso(e) == Double.POSITIVE_INFINITY) continue;
+                    salida[u].agregarOMejorar(v, g.peso(e), -1);
+                    entrada[v].agregarOMejorar(u, g.peso(e), -1);
+                }
+            }
+            contraido = new boolean[n];
+            vecinosContraidos = new int[n];
+            nivel = new int[n];
+            distTestigo = new double[n];
+            marcaTestigo = new int[n];
+            colaTestigo = new MonticuloIndexado(n);
+        }
+
+        JerarquiaContraccion contraerTodo() {
+            int[] rango = new int[n];
+            ListaAristas[] subida = new ListaAristas[n];
+            ListaAristas[] bajada = new ListaAristas[n];
+
+            MonticuloIndexado orden = new MonticuloIndexado(n);
+            for (int u = 0; u < n; u++) {
+                orden.insertarODisminuir(u, prioridad(u));
+            }
+
+            int siguienteRango = 0;
+            while (!orden.estaVacio()) {
+                int u = orden.extraerMinimo();
+                // Actualización perezosa: si su prioridad real empeoró, se reinserta
+                double p = prioridad(u);
+                if (!orden.estaVacio() && p > orden.claveMinima()) {
+                    orden.insertarODisminuir(u, p);
+                    continue;
+                }
+                subida[u] = filtrarVivas(salida[u]);
+                bajada[u] = filtrarVivas(entrada[u]);
+                contraer(u, false);
+                rango[u] = siguienteRango++;
+
+                // La importancia de los vecinos cambia al agregar atajos
+                for (int i = 0; i < subida[u].tam; i++) {
+                    int w = subida[u].otro[i];
+                    if (orden.contiene(w)) orden.cambiarClave(w, prioridad(w));
+                }
+                for (int i = 0; i < bajada[u].tam; i++) {
+                    int w = bajada[u].otro[i];
+                    if (orden.contiene(w)) orden.cambiarClave(w, prioridad(w));
+                }
+            }
+
+            return empaquetar(rango, subida, bajada);
+        }
+
+        private ListaAristas filtrarVivas(ListaAristas lista) {
+            ListaAristas vivas = new ListaAristas();
+            for (int i = 0; i < lista.tam; i++) {
+                if (!contraido[lista.otro[i]]) {
+                    vivas.agregarOMejorar(lista.otro[i], lista.peso[i], lista.medio[i]);
+                }
+            }
+            return vivas;
+        }
+
+        /**
+         * Diferencia de aristas + vecinos ya contraídos + nivel (menor = contraer antes)
+         */
+        private double prioridad(int u) {
+            int grado = 0;
+            for (int i = 0; i < salida[u].tam; i++) if (!contraido[salida[u].otro[i]]) grado++;
+            for (int i = 0; i < entrada[u].tam; i++) if (!contraido[entrada[u].otro[i]]) grado++;
+            int atajosNecesarios = contraer(u, true);
+            return atajosNecesarios - grado + vecinosContraidos[u] + nivel[u];
+        }
+
+        /**
+         * Agrega los atajos necesarios para eliminar u (o solo los cuenta si simular)
+         */
+        private int contraer(int u, boolean simular) {
+            int agregados = 0;
+            ListaAristas entrantes = entrada[u];
+            ListaAristas salientes = salida[u];
+
+            for (int i = 0; i < entrantes.tam; i++) {
+                int v = entrantes.otro[i];
+                if (contraido[v]) continue;
+                double w1 = entrantes.peso[i];
+
+                // Un máximo de 0 no significa que no haya salidas: pueden pesar 0
+                double maximo = 0;
+                boolean haySalidas = false;
+                for (int j = 0; j < salientes.tam; j++) {
+                    int x = salientes.otro[j];
+                    if (!contraido[x] && x != v) {
+                        maximo = Math.max(maximo, salientes.peso[j]);
+                        haySalidas = true;
+                    }
+                }
+                if (!haySalidas) continue;
+
+                buscarTestigos(v, u, w1 + maximo, simular ? LIMITE_TESTIGOS_SIMULACION : LIMITE_TESTIGOS);
+                for (int j = 0; j < salientes.tam; j++) {
+                    int x = salientes.otro[j];
+                    if (contraido[x] || x == v) continue;
+                    double viaU = w1 + salientes.peso[j];
+                    if (distanciaTestigo(x) > viaU) {
+                        agregados++;
+                        if (!simular) {
+                            salida[v].agregarOMejorar(x, viaU, u);
+                            entrada[x].agregarOMejorar(v, viaU, u);
+                        }
+                    }
+                }
+            }
+
+            if (!simular) {
+                contraido[u] = true;
+                atajos += agregados;
+                // Las listas de los vecinos solo conservan aristas entre nodos vivos
+                for (int i = 0; i < salientes.tam; i++) {
+                    nivel[salientes.otro[i]] = Math.max(nivel[salientes.otro[i]], nivel[u] + 1);
+                    vecinosContraidos[salientes.otro[i]]++;
+                    entrada[salientes.otro[i]].eliminar(u);
+                }
+                for (int i = 0; i < entrantes.tam; i++) {
+                    nivel[entrantes.otro[i]] = Math.max(nivel[entrantes.otro[i]], nivel[u] + 1);
+                    vecinosContraidos[entrantes.otro[i]]++;
+                    salida[entrantes.otro[i]].eliminar(u);
+                }
+            }
+            return agregados;
+        }
+
+        /**
+         * Dijkstra local desde v que ignora a u y a los nodos contraídos
+         */
+        private void buscarTestigos(int v, int ignorado, double limite, int maxAsentados) {
+            if (epocaTestigo == Integer.MAX_VALUE) {
+                Arrays.fill(marcaTestigo, 0);
+                epocaTestigo = 0;
+            }
+            epocaTestigo++;
+            colaTestigo.limpiar();
+            marcaTestigo[v] = epocaTestigo;
+            distTestigo[v] = 0.0;
+            colaTestigo.insertarODisminuir(v, 0.0);
+            int asentados = 0;
+
+            while (!colaTestigo.estaVacio() && asentados < maxAsentados) {
+                if (colaTestigo.claveMinima() > limite) break;
+                int a = colaTestigo.extraerMinimo();
+                asentados++;
+                ListaAristas lista = salida[a];
+                for (int i = 0; i < lista.tam; i++) {
+                    int b = lista.otro[i];
+                    if (b == ignorado || contraido[b]) continue;
+                    double d = distTestigo[a] + lista.peso[i];
+                    if (d < distanciaTestigo(b)) {
+                        marcaTestigo[b] = epocaTestigo;
+                        distTestigo[b] = d;
+                        colaTestigo.insertarODisminuir(b, d);
+                    }
+                }
+            }
+        }
+
+        private double distanciaTestigo(int nodo) {
+            return marcaTestigo[nodo] == epocaTestigo ? distTestigo[nodo] : Double.POSITIVE_INFINITY;
+        }
+
+        private JerarquiaContraccion empaquetar(int[] rango, ListaAristas[] subida, ListaAristas[] bajada) {
+            int[] inicioSubida = new int[n + 1];
+            int[] inicioBajada = new int[n + 1];
+            for (int u = 0; u < n; u++) {
+                inicioSubida[u + 1] = inicioSubida[u] + subida[u].tam;
+                inicioBajada[u + 1] = inicioBajada[u] + bajada[u].tam;
+            }
+            int[] destinoSubida = new int[inicioSubida[n]];
+            double[] pesoSubida = new double[inicioSubida[n]];
+            int[] medioSubida = new int[inicioSubida[n]];
+            int[] origenBajada = new int[inicioBajada[n]];
+            double[] pesoBajada = new double[inicioBajada[n]];
+            int[] medioBajada = new int[inicioBajada[n]];
+            for (int u = 0; u < n; u++) {
+                System.arraycopy(subida[u].otro, 0, destinoSubida, inicioSubida[u], subida[u].tam);
+                System.arraycopy(subida[u].peso, 0, pesoSubida, inicioSubida[u], subida[u].tam);
+                System.arraycopy(subida[u].medio, 0, medioSubida, inicioSubida[u], subida[u].tam);
+                System.arraycopy(bajada[u].otro, 0, origenBajada, inicioBajada[u], bajada[u].tam);
+                System.arraycopy(bajada[u].peso, 0, pesoBajada, inicioBajada[u], bajada[u].tam);
+                System.arraycopy(bajada[u].medio, 0, medioBajada, inicioBajada[u], bajada[u].tam);
+            }
+            return new JerarquiaContraccion(n, grafo.huella(), rango, atajos,
+                    inicioSubida, destinoSubida, pesoSubida, medioSubida,
+                    inicioBajada, origenBajada, pesoBajada, medioBajada);
+        }
+    }
+}
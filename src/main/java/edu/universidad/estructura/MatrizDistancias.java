@@ -0,0 +1,135 @@
+package edu.universidad.estructura;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Matriz de distancias mínimas entre un conjunto de orígenes y uno de destinos
+ * Los valores se guardan en un único double[] por filas (origen i, destino j
+ * en i * columnas + j). Opcionalmente conserva el arreglo de predecesores de
+ * cada origen para reconstruir los caminos
+ */
+public class MatrizDistancias {
+
+    private final int[] origenes;
+    private final int[] destinos;
+    private final double[] valores;
+    private final int[][] previos;   // null si se calculó sin predecesores
+    private final long version;
+
+    private MatrizDistancias(int[] origenes, int[] destinos, double[] valores,
+                             int[][] previos, long version) {
+        this.origenes = origenes;
+        this.destinos = destinos;
+        this.valores = valores;
+        this.previos = previos;
+        this.version = version;
+    }
+
+    /**
+     * Calcula la matriz con una búsqueda por origen, en paralelo en el
+     * ForkJoinPool común. Cada búsqueda termina al asentar todos los destinos
+     */
+    public static MatrizDistancias calcular(GrafoCompacto g, int[] origenes, int[] destinos,
+                                            boolean conPredecesores, long version) {
+        int filas = origenes.length;
+        int columnas = destinos.length;
+        int n = g.getNumNodos();
+        double[] valores = new double[filas * columnas];
+        int[][] previos = conPredecesores ? new int[filas][] : null;
+
+        IntStream.range(0, filas).parallel().forEach(i -> {
+            BusquedaDijkstra busqueda = BusquedaDijkstra.delHilo();
+            busqueda.ejecutarHacia(g, origenes[i], destinos);
+            int base = i * columnas;
+            for (int j = 0; j < columnas; j++) {
+                valores[base + j] = busqueda.distancia(destinos[j]);
+            }
+            if (previos != null) {
+                int[] fila = new int[n];
+                for (int v = 0; v < n; v++) {
+                    fila[v] = busqueda.previo(v);
+                }
+                previos[i] = fila;
+            }
+        });
+        return new MatrizDistancias(origenes.clone(), destinos.clone(), valores, previos, version);
+    }
+
+    public int getFilas() {
+        return origenes.length;
+    }
+
+    public int getColumnas() {
+        return destinos.length;
+    }
+
+    /**
+     * Distancia del origen i al destino j (infinito si no hay camino)
+     */
+    public double distancia(int i, int j) {
+        return valores[i * destinos.length + j];
+    }
+
+    /**
+     * Arreglo plano de distancias, por filas
+     */
+    public double[] getValores() {
+        return valores;
+    }
+
+    public int origen(int i) {
+        return origenes[i];
+    }
+
+    public int destino(int j) {
+        return destinos[j];
+    }
+
+    public boolean tienePredecesores() {
+        return previos != null;
+    }
+
+    /**
+     * Camino de índices del origen i al destino j (vacío si no hay camino)
+     */
+    public int[] camino(int i, int j) {
+        if (previos == null) {
+            throw new IllegalStateException("La matriz se calculó sin predecesores");
+        }
+        if (distancia(i, j) == Double.POSITIVE_INFINITY) {
+            return new int[0];
+        }
+        int[] previo = previos[i];
+        int largo = 0;
+        for (int v = destinos[j]; v >= 0; v = previo[v]) largo++;
+        int[] camino = new int[largo];
+        for (int v = destinos[j]; v >= 0; v = previo[v]) {
+            camino[--largo] = v;
+        }
+        return camino;
+    }
+
+    /**
+     * Versión del grafo con la que se calculó la matriz
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Indica si la matriz sirve para esos orígenes y destinos en la versión dada
+     */
+    public boolean sirvePara(int[] otrosOrigenes, int[] otrosDestinos, boolean conPredecesores,
+                             long versionGrafo) {
+        return version == versionGrafo
+                && (!conPredecesores || previos != null)
+                && Arrays.equals(origenes, otrosOrigenes)
+                && Arrays.equals(destinos, otrosDestinos);
+    }
+
+    @Override
+    public String toString() {
+        return "MatrizDistancias{" + origenes.length + "x" + destinos.length + "}";
+    }
+}
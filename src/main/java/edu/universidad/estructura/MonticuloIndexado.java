@@ -0,0 +1,166 @@
+package edu.universidad.estructura;
+
+import java.util.Arrays;
+
+/**
+ * Implementación propia de un Min-Heap indexado con claves double
+ * Los elementos son enteros 0..n-1 y cada uno aparece como máximo una vez,
+ * lo que permite disminuir su clave (decrease-key) en O(log n)
+ * Usado por las búsquedas de caminos mínimos sobre GrafoCompacto
+ */
+public class MonticuloIndexado {
+
+    private int[] heap;        // posición en el heap -> elemento
+    private int[] posicion;    // elemento -> posición en el heap (-1 si no está)
+    private double[] claves;   // elemento -> clave actual
+    private int tamanio;
+
+    public MonticuloIndexado(int capacidad) {
+        heap = new int[capacidad];
+        posicion = new int[capacidad];
+        claves = new double[capacidad];
+        Arrays.fill(posicion, -1);
+    }
+
+    /**
+     * Garantiza espacio para elementos 0..capacidad-1
+     */
+    public void asegurarCapacidad(int capacidad) {
+        if (capacidad <= posicion.length) return;
+        int anterior = posicion.length;
+        heap = Arrays.copyOf(heap, capacidad);
+        posicion = Arrays.copyOf(posicion, capacidad);
+        claves = Arrays.copyOf(claves, capacidad);
+        Arrays.fill(posicion, anterior, capacidad, -1);
+    }
+
+    /**
+     * Inserta un elemento o disminuye su clave si ya está en el heap
+     * Retorna false si el elemento ya tenía una clave menor o igual
+     */
+    public boolean insertarODisminuir(int elemento, double clave) {
+        int pos = posicion[elemento];
+        if (pos < 0) {
+            claves[elemento] = clave;
+            heap[tamanio] = elemento;
+            posicion[elemento] = tamanio;
+            subir(tamanio++);
+            return true;
+        }
+        if (clave < claves[elemento]) {
+            claves[elemento] = clave;
+            subir(pos);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Cambia la clave de un elemento contenido en el heap, en cualquier sentido
+     */
+    public void cambiarClave(int elemento, double clave) {
+        int pos = posicion[elemento];
+        if (pos < 0) {
+            throw new IllegalArgumentException("El elemento no está en el montículo: " + elemento);
+        }
+        double anterior = claves[elemento];
+        claves[elemento] = clave;
+        if (clave < anterior) {
+            subir(pos);
+        } else {
+            bajar(pos);
+        }
+    }
+
+    /**
+     * Extrae el elemento con menor clave
+     */
+    public int extraerMinimo() {
+        if (tamanio == 0) {
+            throw new IllegalStateException("El montículo está vacío");
+        }
+        int minimo = heap[0];
+        posicion[minimo] = -1;
+        tamanio--;
+        if (tamanio > 0) {
+            int ultimo = heap[tamanio];
+            heap[0] = ultimo;
+            posicion[ultimo] = 0;
+            bajar(0);
+        }
+        return minimo;
+    }
+
+    /**
+     * Retorna la menor clave sin extraer el elemento
+     */
+    public double claveMinima() {
+        if (tamanio == 0) {
+            throw new IllegalStateException("El montículo está vacío");
+        }
+        return claves[heap[0]];
+    }
+
+    /**
+     * Retorna la clave registrada de un elemento contenido en el heap
+     */
+    public double clave(int elemento) {
+        return claves[elemento];
+    }
+
+    public boolean contiene(int elemento) {
+        return posicion[elemento] >= 0;
+    }
+
+    public boolean estaVacio() {
+        return tamanio == 0;
+    }
+
+    public int tamanio() {
+        return tamanio;
+    }
+
+    /**
+     * Vacía el heap en O(tamaño actual), sin recorrer toda la capacidad
+     */
+    public void limpiar() {
+        for (int i = 0; i < tamanio; i++) {
+            posicion[heap[i]] = -1;
+        }
+        tamanio = 0;
+    }
+
+    private void subir(int indice) {
+        int elemento = heap[indice];
+        double clave = claves[elemento];
+        while (indice > 0) {
+            int padre = (indice - 1) >>> 1;
+            int elementoPadre = heap[padre];
+            if (clave >= claves[elementoPadre]) break;
+            heap[indice] = elementoPadre;
+            posicion[elementoPadre] = indice;
+            indice = padre;
+        }
+        heap[indice] = elemento;
+        posicion[elemento] = indice;
+    }
+
+    private void bajar(int indice) {
+        int elemento = heap[indice];
+        double clave = claves[elemento];
+        while (true) {
+            int hijo = 2 * indice + 1;
+            if (hijo >= tamanio) break;
+            int der = hijo + 1;
+            if (der < tamanio && claves[heap[der]] < claves[heap[hijo]]) {
+                hijo = der;
+            }
+            if (claves[heap[hijo]] >= clave) break;
+            heap[indice] = heap[hijo];
+            posicion[heap[indice]] = indice;
+            indice = hijo;
+        }
+        heap[indice] = elemento;
+        posicion[elemento] = indice;
+    }
+}
@@ -0,0 +1,130 @@
+package edu.universidad.estructura;
+
+import java.util.Arrays;
+
+/**
+ * Duración de un tramo según el instante de salida: función lineal por
+ * partes dada por puntos (instante, duración), por ejemplo la hora punta o
+ * el nivel de una inundación
+ * Cumple FIFO (salir más tarde nunca hace llegar antes): en cada segmento la
+ * duración no baja más rápido que el reloj, pendiente >= -1
+ * Con periodo > 0 el perfil se repite (por ejemplo cada 24 h); si no, fuera
+ * del rango de puntos la duración es constante
+ * Es inmutable, así varias aristas pueden compartir el mismo perfil
+ */
+public final class PerfilTiempo {
+
+    private final double[] tiempos;
+    private final double[] duraciones;
+    private final double periodo;
+    private final double minima;
+
+    public PerfilTiempo(double[] tiempos, double[] duraciones) {
+        this(tiempos, duraciones, 0);
+    }
+
+    public PerfilTiempo(double[] tiempos, double[] duraciones, double periodo) {
+        if (tiempos.length == 0 || tiempos.length != duraciones.length) {
+            throw new IllegalArgumentException("El perfil necesita al menos un punto y una duración por instante");
+        }
+        if (periodo < 0 || (periodo > 0 && (tiempos[0] < 0 || tiempos[tiempos.length - 1] >= periodo))) {
+            throw new IllegalArgumentException("Los instantes de un perfil periódico deben estar en [0, periodo)");
+        }
+        double minima = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < tiempos.length; i++) {
+            if (!(duraciones[i] >= 0) || duraciones[i] == Double.POSITIVE_INFINITY) {
+                throw new IllegalArgumentException("Duración inválida: " + duraciones[i]);
+            }
+            if (i > 0) {
+                if (!(tiempos[i] > tiempos[i - 1])) {
+                    throw new IllegalArgumentException("Los instantes deben ser crecientes");
+                }
+                verificarFifo(tiempos[i - 1], duraciones[i - 1], tiempos[i], duraciones[i]);
+            }
+            minima = Math.min(minima, duraciones[i]);
+        }
+        if (periodo > 0 && tiempos.length > 1) {
+            int ultimo = tiempos.length - 1;
+            verificarFifo(tiempos[ultimo], duraciones[ultimo], tiempos[0] + periodo, duraciones[0]);
+        }
+        this.tiempos = tiempos.clone();
+        this.duraciones = duraciones.clone();
+        this.periodo = periodo;
+        this.minima = minima;
+    }
+
+    private static void verificarFifo(double t1, double d1, double t2, double d2) {
+        // Tolerancia de redondeo: pendiente exactamente -1 es válida (misma llegada)
+        double tolerancia = 1e-9 * Math.max(1, Math.abs(t2) + Math.abs(d1) + Math.abs(d2));
+        if (d2 - d1 < -(t2 - t1) - tolerancia) {
+            throw new IllegalArgumentException(String.format(
+                    "El perfil no cumple FIFO entre %.2f y %.2f: salir después llegaría antes", t1, t2));
+        }
+    }
+
+    /**
+     * Duración del tramo al salir en el instante dado
+     */
+    public double duracion(double salida) {
+        int n = tiempos.length;
+        if (n == 1) return duraciones[0];
+        double t = salida;
+        if (periodo > 0) {
+            t = salida - periodo * Math.floor(salida / periodo);
+            // Segmento que cruza el fin del periodo: del último punto al primero
+            if (t < tiempos[0]) {
+                return interpolar(tiempos[n - 1] - periodo, duraciones[n - 1], tiempos[0], duraciones[0], t);
+            }
+            if (t >= tiempos[n - 1]) {
+                return interpolar(tiempos[n - 1], duraciones[n - 1], tiempos[0] + periodo, duraciones[0], t);
+            }
+        } else {
+            if (t <= tiempos[0]) return duraciones[0];
+            if (t >= tiempos[n - 1]) return duraciones[n - 1];
+        }
+        int k = Arrays.binarySearch(tiempos, t);
+        if (k >= 0) return duraciones[k];
+        int i = -k - 2;   // tiempos[i] < t < tiempos[i + 1]
+        return interpolar(tiempos[i], duraciones[i], tiempos[i + 1], duraciones[i + 1], t);
+    }
+
+    private static double interpolar(double t1, double d1, double t2, double d2, double t) {
+        return d1 + (d2 - d1) * (t - t1) / (t2 - t1);
+    }
+
+    /**
+     * Instante de llegada al salir en el instante dado
+     */
+    public double llegada(double salida) {
+        return salida + duracion(salida);
+    }
+
+    /**
+     * Menor duración posible del tramo (cota inferior para cualquier salida)
+     */
+    public double getDuracionMinima() {
+        return minima;
+    }
+
+    public double getPeriodo() {
+        return periodo;
+    }
+
+    public int getCantidadPuntos() {
+        return tiempos.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PerfilTiempo)) return false;
+        PerfilTiempo otro = (PerfilTiempo) o;
+        return periodo == otro.periodo && Arrays.equals(tiempos, otro.tiempos)
+                && Arrays.equals(duraciones, otro.duraciones);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Arrays.hashCode(tiempos) + Arrays.hashCode(duraciones)) + Double.hashCode(periodo);
+    }
+}
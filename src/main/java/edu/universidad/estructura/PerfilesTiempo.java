@@ -0,0 +1,81 @@
+package edu.universidad.estructura;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Perfiles de tiempo alineados con las aristas de una vista compacta
+ * Cada arista guarda solo el número de su perfil (-1 si su peso es fijo) y
+ * los perfiles iguales se guardan una vez, así la memoria crece con la
+ * cantidad de perfiles distintos y no con la de aristas
+ */
+public class PerfilesTiempo {
+
+    private final int[] perfilDeArista;
+    private final PerfilTiempo[] perfiles;
+    private final long version;
+
+    private PerfilesTiempo(int[] perfilDeArista, PerfilTiempo[] perfiles, long version) {
+        this.perfilDeArista = perfilDeArista;
+        this.perfiles = perfiles;
+        this.version = version;
+    }
+
+    /**
+     * porArista[e] es el perfil de la arista en la posición e de g (null si es fija)
+     */
+    public static PerfilesTiempo construir(GrafoCompacto g, PerfilTiempo[] porArista, long version) {
+        int[] perfilDeArista = new int[g.getNumAristas()];
+        Arrays.fill(perfilDeArista, -1);
+        Map<PerfilTiempo, Integer> numeros = new HashMap<>();
+        List<PerfilTiempo> distintos = new ArrayList<>();
+        for (int e = 0; e < porArista.length; e++) {
+            PerfilTiempo perfil = porArista[e];
+            if (perfil == null) continue;
+            Integer numero = numeros.get(perfil);
+            if (numero == null) {
+                numero = distintos.size();
+                numeros.put(perfil, numero);
+                distintos.add(perfil);
+            }
+            perfilDeArista[e] = numero;
+        }
+        return new PerfilesTiempo(perfilDeArista, distintos.toArray(new PerfilTiempo[0]), version);
+    }
+
+    /**
+     * Instante de llegada por la arista e de g al salir en salida
+     * (infinito si la arista está cerrada)
+     */
+    public double llegada(GrafoCompacto g, int e, double salida) {
+        double peso = g.peso(e);
+        if (peso == Double.POSITIVE_INFINITY) return peso;
+        int perfil = perfilDeArista[e];
+        return perfil < 0 ? salida + peso : perfiles[perfil].llegada(salida);
+    }
+
+    /**
+     * Perfil de la arista en la posición dada (null si su peso es fijo)
+     */
+    public PerfilTiempo perfil(int arista) {
+        int perfil = perfilDeArista[arista];
+        return perfil < 0 ? null : perfiles[perfil];
+    }
+
+    /**
+     * Cantidad de perfiles distintos guardados
+     */
+    public int getCantidadPerfiles() {
+        return perfiles.length;
+    }
+
+    /**
+     * Versión del grafo con la que se construyó
+     */
+    public long getVersion() {
+        return version;
+    }
+}
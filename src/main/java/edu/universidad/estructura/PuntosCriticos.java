@@ -0,0 +1,153 @@
+package edu.universidad.estructura;
+
+import java.util.Arrays;
+
+/**
+ * Puentes (vías cuya caída desconecta el grafo) y puntos de articulación
+ * (nodos cuya caída lo desconecta) de la vista no dirigida del grafo
+ * En esa vista u -> v y v -> u son la misma vía; las aristas de peso
+ * infinito y los nodos eliminados no cuentan
+ * Un solo DFS iterativo con tiempos de descubrimiento y "low-link"
+ * (Hopcroft-Tarjan), O(V + E)
+ */
+public class PuntosCriticos {
+
+    private final long[] puentes;         // pares (menor << 32 | mayor), ordenados
+    private final boolean[] articulacion;
+    private final int cantidadArticulaciones;
+    private final long version;
+
+    private PuntosCriticos(long[] puentes, boolean[] articulacion, int cantidadArticulaciones, long version) {
+        this.puentes = puentes;
+        this.articulacion = articulacion;
+        this.cantidadArticulaciones = cantidadArticulaciones;
+        this.version = version;
+    }
+
+    public static PuntosCriticos calcular(GrafoCompacto g, long version) {
+        int n = g.getNumNodos();
+        int[] descubierto = new int[n];   // 0 = sin visitar
+        int[] bajo = new int[n];
+        int[] padre = new int[n];
+        int[] posicion = new int[n];      // vecino siguiente: salientes y luego entrantes
+        int[] pila = new int[n];
+        boolean[] articulacion = new boolean[n];
+        long[] puentes = new long[16];
+        int cantidadPuentes = 0;
+        int tiempo = 0;
+
+        for (int raiz = 0; raiz < n; raiz++) {
+            if (descubierto[raiz] != 0 || g.estaEliminado(raiz)) continue;
+            int hijosRaiz = 0;
+            int tope = 0;
+            descubierto[raiz] = bajo[raiz] = ++tiempo;
+            padre[raiz] = -1;
+            posicion[raiz] = 0;
+            pila[tope++] = raiz;
+
+            while (tope > 0) {
+                int u = pila[tope - 1];
+                int w = siguienteVecino(g, u, posicion);
+                if (w >= 0) {
+                    if (w == u || w == padre[u]) continue;
+                    if (descubierto[w] == 0) {
+                        descubierto[w] = bajo[w] = ++tiempo;
+                        padre[w] = u;
+                        posicion[w] = 0;
+                        pila[tope++] = w;
+                        if (u == raiz) hijosRaiz++;
+                    } else {
+                        bajo[u] = Math.min(bajo[u], descubierto[w]);
+                    }
+                    continue;
+                }
+
+                // u terminó: se informa a su padre
+                tope--;
+                int p = padre[u];
+                if (p < 0) continue;
+                bajo[p] = Math.min(bajo[p], bajo[u]);
+                if (bajo[u] > descubierto[p]) {
+                    if (cantidadPuentes == puentes.length) {
+                        puentes = Arrays.copyOf(puentes, cantidadPuentes * 2);
+                    }
+                    puentes[cantidadPuentes++] = clave(p, u);
+                }
+                if (p != raiz && bajo[u] >= descubierto[p]) {
+                    articulacion[p] = true;
+                }
+            }
+            if (hijosRaiz > 1) {
+                articulacion[raiz] = true;
+            }
+        }
+
+        long[] ordenados = Arrays.copyOf(puentes, cantidadPuentes);
+        Arrays.sort(ordenados);
+        int cantidadArticulaciones = 0;
+        for (boolean a : articulacion) {
+            if (a) cantidadArticulaciones++;
+        }
+        return new PuntosCriticos(ordenados, articulacion, cantidadArticulaciones, version);
+    }
+
+    /**
+     * Siguiente vecino no dirigido de u por una arista abierta (-1 si no quedan)
+     */
+    private static int siguienteVecino(GrafoCompacto g, int u, int[] posicion) {
+        int salientes = g.finAristas(u) - g.primeraArista(u);
+        int total = salientes + g.finAristasEntrantes(u) - g.primeraAristaEntrante(u);
+        while (posicion[u] < total) {
+            int k = posicion[u]++;
+            if (k < salientes) {
+                int e = g.primeraArista(u) + k;
+                if (g.peso(e) != Double.POSITIVE_INFINITY) return g.destino(e);
+            } else {
+                int e = g.primeraAristaEntrante(u) + k - salientes;
+                if (g.pesoEntrante(e) != Double.POSITIVE_INFINITY) return g.origen(e);
+            }
+        }
+        return -1;
+    }
+
+    private static long clave(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+
+    public int getCantidadPuentes() {
+        return puentes.length;
+    }
+
+    /**
+     * Extremos del k-ésimo puente (el menor índice primero)
+     */
+    public int puenteDesde(int k) {
+        return (int) (puentes[k] >>> 32);
+    }
+
+    public int puenteHasta(int k) {
+        return (int) puentes[k];
+    }
+
+    /**
+     * Indica si la vía entre u y v (en cualquier sentido) es un puente
+     */
+    public boolean esPuente(int u, int v) {
+        return Arrays.binarySearch(puentes, clave(u, v)) >= 0;
+    }
+
+    public boolean esArticulacion(int nodo) {
+        return articulacion[nodo];
+    }
+
+    public int getCantidadArticulaciones() {
+        return cantidadArticulaciones;
+    }
+
+    /**
+     * Versión del grafo con la que se calculó
+     */
+    public long getVersion() {
+        return version;
+    }
+}
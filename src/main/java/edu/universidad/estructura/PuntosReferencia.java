@@ -0,0 +1,215 @@
+package edu.universidad.estructura;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Tabla de puntos de referencia (landmarks) para A* sin coordenadas (ALT)
+ * Guarda la distancia desde y hacia cada punto de referencia L, y por la
+ * desigualdad triangular d(v,t) >= max(d(L,t) - d(L,v), d(v,L) - d(t,L))
+ * Las distancias se guardan por nodo (fila de k valores) para que estimar
+ * lea memoria contigua
+ */
+public class PuntosReferencia implements CotaInferior {
+
+    // Cuántos puntos de referencia usa cada consulta (los mejores para ese par)
+    private static final int ACTIVOS_POR_CONSULTA = 4;
+
+    private final int[] puntos;
+    private final double[] desde;   // desde[v * k + i] = d(puntos[i], v)
+    private final double[] hacia;   // hacia[v * k + i] = d(v, puntos[i])
+    private final long huella;
+
+    private PuntosReferencia(int[] puntos, double[] desde, double[] hacia, long huella) {
+        this.puntos = puntos;
+        this.desde = desde;
+        this.hacia = hacia;
+        this.huella = huella;
+    }
+
+    /**
+     * Elige hasta cantidad puntos por selección del más lejano y calcula sus
+     * tablas de distancia. Las búsquedas hacia los puntos corren en paralelo
+     */
+    public static PuntosReferencia calcular(GrafoCompacto g, int cantidad) {
+        int n = g.getNumNodos();
+        int k = Math.max(0, Math.min(cantidad, n));
+        int[] elegidos = new int[k];
+        double[][] distanciasDesde = new double[k][];
+
+        // Selección del más lejano: cada punto nuevo es el nodo con mayor
+        // distancia finita al punto ya elegido más cercano. Se parte del nodo
+        // de mayor grado para quedar en la componente principal; las islas
+        // que ningún punto alcanza solo se usan cuando no queda otra opción
+        double[] cercania = new double[n];
+        Arrays.fill(cercania, Double.POSITIVE_INFINITY);
+        BusquedaDijkstra busqueda = BusquedaDijkstra.delHilo();
+        int siguiente = k > 0 ? masLejano(g, busqueda, mayorGrado(g)) : -1;
+        int elegidosTotal = 0;
+        while (elegidosTotal < k && siguiente >= 0) {
+            elegidos[elegidosTotal] = siguiente;
+            busqueda.ejecutar(g, siguiente, -1);
+            double[] fila = new double[n];
+            for (int v = 0; v < n; v++) {
+                fila[v] = busqueda.distancia(v);
+                cercania[v] = Math.min(cercania[v], fila[v]);
+            }
+            distanciasDesde[elegidosTotal++] = fila;
+
+            siguiente = -1;
+            int aislado = -1;
+            double mayor = 0.0;
+            for (int v = 0; v < n; v++) {
+                double c = cercania[v];
+                if (c == Double.POSITIVE_INFINITY) {
+                    if (aislado < 0) aislado = v;
+                } else if (c > mayor) {
+                    mayor = c;
+                    siguiente = v;
+                }
+            }
+            if (siguiente < 0) siguiente = aislado;
+        }
+
+        int[] puntos = Arrays.copyOf(elegidos, elegidosTotal);
+        double[][] distanciasHacia = new double[puntos.length][];
+        IntStream.range(0, puntos.length).parallel().forEach(i -> {
+            BusquedaDijkstra inversa = BusquedaDijkstra.delHilo();
+            inversa.ejecutarInverso(g, puntos[i], -1);
+            double[] fila = new double[n];
+            for (int v = 0; v < n; v++) {
+                fila[v] = inversa.distancia(v);
+            }
+            distanciasHacia[i] = fila;
+        });
+
+        int total = puntos.length;
+        double[] desde = new double[n * total];
+        double[] hacia = new double[n * total];
+        for (int i = 0; i < total; i++) {
+            for (int v = 0; v < n; v++) {
+                desde[v * total + i] = distanciasDesde[i][v];
+                hacia[v * total + i] = distanciasHacia[i][v];
+            }
+        }
+        return new PuntosReferencia(puntos, desde, hacia, g.huella());
+    }
+
+    /**
+     * Nodo alcanzable más lejano desde inicio (inicio si no alcanza a nadie)
+     */
+    private static int masLejano(GrafoCompacto g, BusquedaDijkstra busqueda, int inicio) {
+        busqueda.ejecutar(g, inicio, -1);
+        int mejor = inicio;
+        double mayor = 0.0;
+        for (int v = 0; v < g.getNumNodos(); v++) {
+            double d = busqueda.distancia(v);
+            if (d != Double.POSITIVE_INFINITY && d > mayor) {
+                mayor = d;
+                mejor = v;
+            }
+        }
+        return mejor;
+    }
+
+    private static int mayorGrado(GrafoCompacto g) {
+        int mejor = 0;
+        int mayor = -1;
+        for (int v = 0; v < g.getNumNodos(); v++) {
+            if (g.estaEliminado(v)) continue;
+            int grado = g.gradoSalida(v) + g.gradoEntrada(v);
+            if (grado > mayor) {
+                mayor = grado;
+                mejor = v;
+            }
+        }
+        return mejor;
+    }
+
+    @Override
+    public double estimar(int nodo, int destino) {
+        int k = puntos.length;
+        double cota = 0.0;
+        for (int i = 0; i < k; i++) {
+            cota = Math.max(cota, termino(i, nodo, destino));
+        }
+        return cota;
+    }
+
+    /**
+     * Cota que usa solo los puntos de referencia más útiles para el par
+     * origen-destino; es más barata de evaluar que estimar con todos
+     */
+    public CotaInferior cotaPara(int origen, int destino) {
+        int k = puntos.length;
+        if (k <= ACTIVOS_POR_CONSULTA) {
+            return this;
+        }
+        // Selección parcial de los que dan la mayor cota en el origen
+        int[] orden = new int[k];
+        double[] valor = new double[k];
+        for (int i = 0; i < k; i++) {
+            orden[i] = i;
+            valor[i] = termino(i, origen, destino);
+        }
+        for (int a = 0; a < ACTIVOS_POR_CONSULTA; a++) {
+            int mejor = a;
+            for (int b = a + 1; b < k; b++) {
+                if (valor[orden[b]] > valor[orden[mejor]]) mejor = b;
+            }
+            int tmp = orden[a];
+            orden[a] = orden[mejor];
+            orden[mejor] = tmp;
+        }
+        int[] activos = Arrays.copyOf(orden, ACTIVOS_POR_CONSULTA);
+        return (nodo, objetivo) -> {
+            double cota = 0.0;
+            for (int i : activos) {
+                cota = Math.max(cota, termino(i, nodo, objetivo));
+            }
+            return cota;
+        };
+    }
+
+    /**
+     * Cota aportada por el punto i; los términos con distancias infinitas se ignoran
+     */
+    private double termino(int i, int nodo, int destino) {
+        int k = puntos.length;
+        double cota = 0.0;
+        double desdeDestino = desde[destino * k + i];
+        double desdeNodo = desde[nodo * k + i];
+        if (desdeDestino != Double.POSITIVE_INFINITY && desdeNodo != Double.POSITIVE_INFINITY) {
+            cota = desdeDestino - desdeNodo;
+        }
+        double haciaNodo = hacia[nodo * k + i];
+        double haciaDestino = hacia[destino * k + i];
+        if (haciaNodo != Double.POSITIVE_INFINITY && haciaDestino != Double.POSITIVE_INFINITY) {
+            cota = Math.max(cota, haciaNodo - haciaDestino);
+        }
+        return cota;
+    }
+
+    /**
+     * Índices de los nodos elegidos como puntos de referencia
+     */
+    public int[] getPuntos() {
+        return puntos.clone();
+    }
+
+    public int getCantidad() {
+        return puntos.length;
+    }
+
+    /**
+     * Huella del grafo para el que se calcularon las tablas
+     */
+    public long getHuella() {
+        return huella;
+    }
+
+    @Override
+    public String toString() {
+        return "PuntosReferencia{puntos=" + puntos.length + "}";
+    }
+}
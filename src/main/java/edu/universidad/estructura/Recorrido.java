@@ -0,0 +1,356 @@
+package edu.universidad.estructura;
+
+import java.util.Arrays;
+
+/**
+ * Orden de visita de varias paradas partiendo de un depósito (problema del
+ * viajante), sobre una matriz de distancias que puede ser asimétrica
+ * Se construyen dos recorridos (vecino más cercano e inserción más barata),
+ * cada uno se mejora con 2-opt y Or-opt hasta un óptimo local y se queda el
+ * mejor. No garantiza el óptimo, pero suele quedar a pocos puntos de él
+ * Internamente el recorrido es un camino de 0 a un nodo final fijo: una
+ * copia del depósito si hay que regresar, o un nodo a distancia 0 de todos
+ * si el recorrido termina en la última parada
+ */
+public class Recorrido {
+
+    private final int[] orden;
+    private final int[] inalcanzables;
+    private final double costo;
+    private final double costoInicial;
+
+    private Recorrido(int[] orden, int[] inalcanzables, double costo, double costoInicial) {
+        this.orden = orden;
+        this.inalcanzables = inalcanzables;
+        this.costo = costo;
+        this.costoInicial = costoInicial;
+    }
+
+    /**
+     * Optimiza el recorrido sobre la matriz paradas x paradas (por filas) en
+     * la que la posición 0 es el depósito. Las paradas a las que no se llega
+     * desde el depósito (o desde las que no se vuelve, si hay que regresar)
+     * quedan fuera y se informan en getInalcanzables
+     */
+    public static Recorrido optimizar(double[] distancias, int paradas, boolean regresar) {
+        if (paradas < 1 || distancias.length != paradas * paradas) {
+            throw new IllegalArgumentException("La matriz debe ser de paradas x paradas e incluir el depósito");
+        }
+        int[] alcanzables = new int[paradas];
+        int[] fuera = new int[paradas];
+        int k = 1, sinLlegada = 0;
+        alcanzables[0] = 0;
+        for (int s = 1; s < paradas; s++) {
+            boolean llega = distancias[s] != Double.POSITIVE_INFINITY
+                    && (!regresar || distancias[s * paradas] != Double.POSITIVE_INFINITY);
+            if (llega) alcanzables[k++] = s; else fuera[sinLlegada++] = s;
+        }
+
+        // Matriz interna de k + 1 nodos: 0..k-1 son las paradas y k el final
+        // Los tramos sin camino se penalizan con un valor finito mayor que
+        // cualquier recorrido sin ellos, así la aritmética de deltas no da NaN
+        int n = k + 1;
+        double mayor = 0;
+        for (int i = 0; i < k; i++) {
+            for (int j = 0; j < k; j++) {
+                double d = distancias[alcanzables[i] * paradas + alcanzables[j]];
+                if (d != Double.POSITIVE_INFINITY) mayor = Math.max(mayor, d);
+            }
+        }
+        double penalizacion = (mayor + 1) * n;
+        double[] d = new double[n * n];
+        for (int i = 0; i < k; i++) {
+            for (int j = 0; j < k; j++) {
+                double valor = distancias[alcanzables[i] * paradas + alcanzables[j]];
+                d[i * n + j] = valor == Double.POSITIVE_INFINITY ? penalizacion : valor;
+            }
+            d[i * n + k] = regresar ? d[i * n] : 0;
+        }
+
+        int[] vecino = vecinoMasCercano(d, n);
+        double costoInicial = costoReal(distancias, paradas, alcanzables, vecino, regresar);
+        mejorar(d, n, vecino);
+        int[] insercion = insercionMasBarata(d, n);
+        mejorar(d, n, insercion);
+        int[] mejor = costo(d, n, insercion) < costo(d, n, vecino) ? insercion : vecino;
+
+        // Si aún quedan tramos sin camino se descartan las paradas a las que
+        // no se llega desde la anterior conservada
+        int[] orden = new int[n];
+        int largo = 0;
+        orden[largo++] = 0;
+        for (int p = 1; p < n - 1; p++) {
+            int parada = alcanzables[mejor[p]];
+            if (distancias[orden[largo - 1] * paradas + parada] == Double.POSITIVE_INFINITY) {
+                fuera[sinLlegada++] = parada;
+            } else {
+                orden[largo++] = parada;
+            }
+        }
+        if (regresar) orden[largo++] = 0;
+        orden = Arrays.copyOf(orden, largo);
+
+        double total = 0;
+        for (int p = 0; p + 1 < largo; p++) {
+            total += distancias[orden[p] * paradas + orden[p + 1]];
+        }
+        int[] inalcanzables = Arrays.copyOf(fuera, sinLlegada);
+        Arrays.sort(inalcanzables);
+        return new Recorrido(orden, inalcanzables, total, costoInicial);
+    }
+
+    /**
+     * Costo con la matriz original de un recorrido interno (infinito si
+     * usa algún tramo sin camino)
+     */
+    private static double costoReal(double[] distancias, int paradas, int[] alcanzables,
+                                    int[] recorrido, boolean regresar) {
+        int n = recorrido.length;
+        double total = 0;
+        for (int p = 0; p + 2 < n; p++) {
+            total += distancias[alcanzables[recorrido[p]] * paradas + alcanzables[recorrido[p + 1]]];
+        }
+        if (regresar && n > 1) {
+            total += distancias[alcanzables[recorrido[n - 2]] * paradas];
+        }
+        return total;
+    }
+
+    private static double costo(double[] d, int n, int[] t) {
+        double total = 0;
+        for (int p = 0; p + 1 < n; p++) total += d[t[p] * n + t[p + 1]];
+        return total;
+    }
+
+    /**
+     * Desde el depósito va siempre a la parada pendiente más cercana, O(n²)
+     */
+    private static int[] vecinoMasCercano(double[] d, int n) {
+        int[] t = new int[n];
+        boolean[] visitada = new boolean[n];
+        visitada[0] = true;
+        t[n - 1] = n - 1;
+        for (int p = 1; p < n - 1; p++) {
+            int actual = t[p - 1], elegida = -1;
+            double minima = Double.POSITIVE_INFINITY;
+            for (int s = 1; s < n - 1; s++) {
+                if (!visitada[s] && d[actual * n + s] < minima) {
+                    minima = d[actual * n + s];
+                    elegida = s;
+                }
+            }
+            visitada[elegida] = true;
+            t[p] = elegida;
+        }
+        return t;
+    }
+
+    /**
+     * Parte del camino depósito -> final y en cada paso inserta la parada
+     * que menos alarga el recorrido, en su mejor posición. Cada parada
+     * recuerda su mejor tramo y solo lo recalcula entero si ese tramo se
+     * partió, así el costo típico es O(n²)
+     */
+    private static int[] insercionMasBarata(double[] d, int n) {
+        int fin = n - 1;
+        int[] siguiente = new int[n];
+        siguiente[0] = fin;
+        int[] tramo = new int[n];          // inicio del mejor tramo de cada parada pendiente
+        double[] aumento = new double[n];
+        boolean[] pendiente = new boolean[n];
+        for (int s = 1; s < fin; s++) {
+            pendiente[s] = true;
+            tramo[s] = 0;
+            aumento[s] = d[s] + d[s * n + fin] - d[fin];
+        }
+        for (int paso = 1; paso < fin; paso++) {
+            int x = -1;
+            for (int s = 1; s < fin; s++) {
+                if (pendiente[s] && (x < 0 || aumento[s] < aumento[x])) x = s;
+            }
+            int a = tramo[x], b = siguiente[a];
+            siguiente[a] = x;
+            siguiente[x] = b;
+            pendiente[x] = false;
+
+            for (int s = 1; s < fin; s++) {
+                if (!pendiente[s]) continue;
+                if (tramo[s] == a) {
+                    // Su mejor tramo ya no existe: recorre todo el camino
+                    aumento[s] = Double.POSITIVE_INFINITY;
+                    for (int u = 0; u != fin; u = siguiente[u]) {
+                        probarTramo(d, n, s, u, siguiente[u], tramo, aumento);
+                    }
+                } else {
+                    probarTramo(d, n, s, a, x, tramo, aumento);
+                    probarTramo(d, n, s, x, b, tramo, aumento);
+                }
+            }
+        }
+        int[] t = new int[n];
+        int p = 0;
+        for (int u = 0; u != fin; u = siguiente[u]) t[p++] = u;
+        t[p] = fin;
+        return t;
+    }
+
+    private static void probarTramo(double[] d, int n, int s, int u, int v, int[] tramo, double[] aumento) {
+        double valor = d[u * n + s] + d[s * n + v] - d[u * n + v];
+        if (valor < aumento[s]) {
+            aumento[s] = valor;
+            tramo[s] = u;
+        }
+    }
+
+    /**
+     * Búsqueda local hasta que ni 2-opt ni Or-opt mejoran
+     */
+    private static void mejorar(double[] d, int n, int[] t) {
+        if (n < 4) return;
+        double[] adelante = new double[n];
+        double[] atras = new double[n];
+        boolean mejoro = true;
+        while (mejoro) {
+            mejoro = dosOpt(d, n, t, adelante, atras);
+            mejoro |= orOpt(d, n, t);
+        }
+    }
+
+    // Umbral de mejora: evita ciclos por redondeo
+    private static double umbral(double[] d, int n, int[] t) {
+        return 1e-9 * (1 + costo(d, n, t));
+    }
+
+    private static void acumular(double[] d, int n, int[] t, double[] adelante, double[] atras) {
+        adelante[0] = 0;
+        atras[0] = 0;
+        for (int p = 1; p < n; p++) {
+            adelante[p] = adelante[p - 1] + d[t[p - 1] * n + t[p]];
+            atras[p] = atras[p - 1] + d[t[p] * n + t[p - 1]];
+        }
+    }
+
+    /**
+     * 2-opt: invierte el tramo t[i+1..j]. Como la matriz puede ser
+     * asimétrica, el costo del tramo invertido se obtiene en O(1) con sumas
+     * acumuladas en ambos sentidos
+     */
+    private static boolean dosOpt(double[] d, int n, int[] t, double[] adelante, double[] atras) {
+        boolean alguna = false;
+        double umbral = umbral(d, n, t);
+        acumular(d, n, t, adelante, atras);
+        for (int i = 0; i < n - 3; i++) {
+            int a = t[i], b = t[i + 1];
+            for (int j = i + 2; j < n - 1; j++) {
+                int c = t[j], e = t[j + 1];
+                double delta = d[a * n + c] + d[b * n + e] - d[a * n + b] - d[c * n + e]
+                        + (atras[j] - atras[i + 1]) - (adelante[j] - adelante[i + 1]);
+                if (delta < -umbral) {
+                    for (int x = i + 1, y = j; x < y; x++, y--) {
+                        int tmp = t[x];
+                        t[x] = t[y];
+                        t[y] = tmp;
+                    }
+                    acumular(d, n, t, adelante, atras);
+                    b = t[i + 1];
+                    alguna = true;
+                }
+            }
+        }
+        return alguna;
+    }
+
+    /**
+     * Or-opt: mueve un tramo de 1 a 3 paradas a otra posición, en su
+     * sentido o invertido
+     */
+    private static boolean orOpt(double[] d, int n, int[] t) {
+        boolean alguna = false;
+        double umbral = umbral(d, n, t);
+        int[] copia = new int[n];
+        for (int largo = 1; largo <= 3; largo++) {
+            for (int s = 1; s + largo < n; s++) {
+                int p = t[s - 1], primero = t[s], ultimo = t[s + largo - 1], q = t[s + largo];
+                double interno = 0, internoInvertido = 0;
+                for (int x = s; x < s + largo - 1; x++) {
+                    interno += d[t[x] * n + t[x + 1]];
+                    internoInvertido += d[t[x + 1] * n + t[x]];
+                }
+                double ahorro = d[p * n + primero] + d[ultimo * n + q] - d[p * n + q];
+                int mejorPos = -1;
+                boolean invertir = false;
+                double mejorDelta = -umbral;
+                for (int u = 0; u < n - 1; u++) {
+                    if (u >= s - 1 && u < s + largo) continue;
+                    int a = t[u], b = t[u + 1];
+                    double base = d[a * n + b];
+                    double directo = d[a * n + primero] + d[ultimo * n + b] - base - ahorro;
+                    if (directo < mejorDelta) {
+                        mejorDelta = directo;
+                        mejorPos = u;
+                        invertir = false;
+                    }
+                    double invertido = d[a * n + ultimo] + d[primero * n + b] - base - ahorro
+                            + internoInvertido - interno;
+                    if (invertido < mejorDelta) {
+                        mejorDelta = invertido;
+                        mejorPos = u;
+                        invertir = true;
+                    }
+                }
+                if (mejorPos < 0) continue;
+
+                // Reconstruye el recorrido con el tramo después de t[mejorPos]
+                int c = 0;
+                for (int u = 0; u < n; u++) {
+                    if (u >= s && u < s + largo) continue;
+                    copia[c++] = t[u];
+                    if (u == mejorPos) {
+                        for (int x = 0; x < largo; x++) {
+                            copia[c++] = t[invertir ? s + largo - 1 - x : s + x];
+                        }
+                    }
+                }
+                System.arraycopy(copia, 0, t, 0, n);
+                alguna = true;
+            }
+        }
+        return alguna;
+    }
+
+    /**
+     * Paradas (posiciones de la matriz) en orden de visita: empieza en el
+     * depósito 0 y, si hay que regresar, termina en él
+     */
+    public int[] getOrden() {
+        return orden.clone();
+    }
+
+    /**
+     * Paradas que quedaron fuera por no tener camino, en orden creciente
+     */
+    public int[] getInalcanzables() {
+        return inalcanzables.clone();
+    }
+
+    /**
+     * Distancia total del recorrido optimizado
+     */
+    public double getCosto() {
+        return costo;
+    }
+
+    /**
+     * Distancia del recorrido por vecino más cercano antes de mejorarlo
+     * (infinito si ese recorrido usaba algún tramo sin camino)
+     */
+    public double getCostoInicial() {
+        return costoInicial;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Recorrido[%d paradas, costo=%.2f, inicial=%.2f, %d inalcanzables]",
+                orden.length, costo, costoInicial, inalcanzables.length);
+    }
+}
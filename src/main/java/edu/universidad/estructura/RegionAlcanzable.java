@@ -0,0 +1,87 @@
+package edu.universidad.estructura;
+
+/**
+ * Nodos a distancia no mayor que un radio desde un nodo (isócrona), o que
+ * llegan a él dentro del radio en la variante inversa
+ * Se calcula con un Dijkstra acotado que se detiene al pasar el radio, así
+ * el costo depende del tamaño de la región y no del grafo
+ * Los nodos quedan ordenados por distancia creciente
+ */
+public class RegionAlcanzable {
+
+    private final int centro;
+    private final double radio;
+    private final boolean inversa;
+    private final int[] nodos;
+    private final double[] distancias;
+    private final long version;
+
+    private RegionAlcanzable(int centro, double radio, boolean inversa, int[] nodos,
+                             double[] distancias, long version) {
+        this.centro = centro;
+        this.radio = radio;
+        this.inversa = inversa;
+        this.nodos = nodos;
+        this.distancias = distancias;
+        this.version = version;
+    }
+
+    /**
+     * Región de los nodos alcanzables desde centro (o que alcanzan a centro
+     * si inversa es true) con distancia <= radio, incluido el centro
+     */
+    public static RegionAlcanzable calcular(GrafoCompacto g, int centro, double radio,
+                                            boolean inversa, long version) {
+        BusquedaDijkstra busqueda = BusquedaDijkstra.delHilo();
+        if (inversa) {
+            busqueda.ejecutarInversoAcotado(g, centro, -1, radio);
+        } else {
+            busqueda.ejecutarAcotado(g, centro, -1, radio);
+        }
+        int cantidad = busqueda.getNodosAsentados();
+        int[] nodos = new int[cantidad];
+        double[] distancias = new double[cantidad];
+        for (int k = 0; k < cantidad; k++) {
+            nodos[k] = busqueda.asentadoEnOrden(k);
+            distancias[k] = busqueda.distancia(nodos[k]);
+        }
+        return new RegionAlcanzable(centro, radio, inversa, nodos, distancias, version);
+    }
+
+    public int getCentro() {
+        return centro;
+    }
+
+    public double getRadio() {
+        return radio;
+    }
+
+    /**
+     * True si las distancias son hacia el centro y no desde él
+     */
+    public boolean isInversa() {
+        return inversa;
+    }
+
+    public int getCantidad() {
+        return nodos.length;
+    }
+
+    /**
+     * k-ésimo nodo de la región (0 es el centro)
+     */
+    public int nodo(int k) {
+        return nodos[k];
+    }
+
+    public double distancia(int k) {
+        return distancias[k];
+    }
+
+    /**
+     * Versión del grafo con la que se calculó
+     */
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,138 @@
+package edu.universidad.estructura;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Rutas más cortas de muchos pares origen-destino a la vez
+ * Los pares se agrupan por origen y cada origen distinto hace una sola
+ * búsqueda, que termina al asentar todos sus destinos; los grupos se
+ * calculan en paralelo en el ForkJoinPool común
+ */
+public class RutasEnLote {
+
+    private final int[] origenes;
+    private final int[] destinos;
+    private final double[] distancias;
+    private final int[][] caminos;   // null si se calculó sin caminos
+    private final int busquedas;
+    private final long version;
+
+    private RutasEnLote(int[] origenes, int[] destinos, double[] distancias, int[][] caminos,
+                        int busquedas, long version) {
+        this.origenes = origenes;
+        this.destinos = destinos;
+        this.distancias = distancias;
+        this.caminos = caminos;
+        this.busquedas = busquedas;
+        this.version = version;
+    }
+
+    /**
+     * Calcula el par i (origenes[i] -> destinos[i]) para todo i
+     */
+    public static RutasEnLote calcular(GrafoCompacto g, int[] origenes, int[] destinos,
+                                       boolean conCaminos, long version) {
+        if (origenes.length != destinos.length) {
+            throw new IllegalArgumentException("Debe haber tantos orígenes como destinos");
+        }
+        int pares = origenes.length;
+
+        // Orden por origen sin cajas: origen en los 32 bits altos, par en los bajos
+        long[] orden = new long[pares];
+        for (int i = 0; i < pares; i++) {
+            orden[i] = ((long) origenes[i] << 32) | i;
+        }
+        Arrays.sort(orden);
+        int[] inicioGrupo = new int[pares + 1];
+        int grupos = 0;
+        for (int k = 0; k < pares; k++) {
+            if (k == 0 || (orden[k] >>> 32) != (orden[k - 1] >>> 32)) {
+                inicioGrupo[grupos++] = k;
+            }
+        }
+        inicioGrupo[grupos] = pares;
+
+        double[] distancias = new double[pares];
+        int[][] caminos = conCaminos ? new int[pares][] : null;
+        IntStream.range(0, grupos).parallel().forEach(grupo -> {
+            int desde = inicioGrupo[grupo], hasta = inicioGrupo[grupo + 1];
+            int origen = (int) (orden[desde] >>> 32);
+            int[] objetivos = new int[hasta - desde];
+            for (int k = desde; k < hasta; k++) {
+                objetivos[k - desde] = destinos[(int) orden[k]];
+            }
+
+            BusquedaDijkstra busqueda = BusquedaDijkstra.delHilo();
+            busqueda.ejecutarHacia(g, origen, objetivos);
+            for (int k = desde; k < hasta; k++) {
+                int par = (int) orden[k];
+                distancias[par] = busqueda.distancia(destinos[par]);
+                if (caminos != null) {
+                    caminos[par] = camino(busqueda, destinos[par]);
+                }
+            }
+        });
+        return new RutasEnLote(origenes.clone(), destinos.clone(), distancias, caminos, grupos, version);
+    }
+
+    private static int[] camino(BusquedaDijkstra busqueda, int destino) {
+        if (busqueda.distancia(destino) == Double.POSITIVE_INFINITY) {
+            return new int[0];
+        }
+        int largo = 0;
+        for (int v = destino; v >= 0; v = busqueda.previo(v)) largo++;
+        int[] camino = new int[largo];
+        for (int v = destino; v >= 0; v = busqueda.previo(v)) {
+            camino[--largo] = v;
+        }
+        return camino;
+    }
+
+    public int getCantidad() {
+        return origenes.length;
+    }
+
+    /**
+     * Cantidad de búsquedas ejecutadas (una por origen distinto)
+     */
+    public int getBusquedas() {
+        return busquedas;
+    }
+
+    public int origen(int i) {
+        return origenes[i];
+    }
+
+    public int destino(int i) {
+        return destinos[i];
+    }
+
+    /**
+     * Distancia del par i (infinito si no hay camino)
+     */
+    public double distancia(int i) {
+        return distancias[i];
+    }
+
+    /**
+     * Camino de índices del par i (vacío si no hay camino)
+     */
+    public int[] camino(int i) {
+        if (caminos == null) {
+            throw new IllegalStateException("El lote se calculó sin caminos");
+        }
+        return caminos[i];
+    }
+
+    public boolean tieneCaminos() {
+        return caminos != null;
+    }
+
+    /**
+     * Versión del grafo con la que se calculó
+     */
+    public long getVersion() {
+        return version;
+    }
+}
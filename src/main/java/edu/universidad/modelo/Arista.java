@@ -1,12 +1,20 @@
 package edu.universidad.modelo;
 
+import edu.universidad.estructura.PerfilTiempo;
+
 public class Arista {
     private String origenId;
     private String destinoId;
     private double peso;
+    private PerfilTiempo perfil;   // opcional: duración según la hora de salida
     public Arista() {}
     public Arista(String o, String d, double p) { this.origenId=o; this.destinoId=d; this.peso=p;}
     public String getOrigenId(){return origenId;}
     public String getDestinoId(){return destinoId;}
     public double getPeso(){return peso;}
+    public void setPeso(double peso){this.peso=peso;}
+    public PerfilTiempo getPerfil(){return perfil;}
+    public void setPerfil(PerfilTiempo perfil){this.perfil=perfil;}
+    /** Peso al salir en el instante dado: el del perfil si tiene, si no el fijo (infinito si está cerrada) */
+    public double pesoEn(double salida){return perfil == null || peso == Double.POSITIVE_INFINITY ? peso : perfil.duracion(salida);}
 }
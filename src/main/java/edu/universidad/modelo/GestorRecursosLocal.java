@@ -2,7 +2,9 @@ package edu.universidad.modelo;
 
 import edu.universidad.util.PersistenciaJSON;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Gestor local de recursos, equipos y rutas
@@ -23,6 +25,9 @@ public class GestorRecursosLocal {
     private AtomicLong contadorZonas = new AtomicLong(1);
     private AtomicLong contadorRutas = new AtomicLong(1);
 
+    // Interesados en los cambios de zonas y rutas (p. ej. el grafo de rutas)
+    private final List<OyenteCambiosRecursos> oyentes = new CopyOnWriteArrayList<>();
+
     private GestorRecursosLocal() {
         cargarDatos();
     }
@@ -85,6 +90,22 @@ public class GestorRecursosLocal {
         }
     }
 
+    // =============== EVENTOS ===============
+
+    public void agregarOyente(OyenteCambiosRecursos oyente) {
+        oyentes.add(oyente);
+    }
+
+    public void quitarOyente(OyenteCambiosRecursos oyente) {
+        oyentes.remove(oyente);
+    }
+
+    private void notificar(Consumer<OyenteCambiosRecursos> evento) {
+        for (OyenteCambiosRecursos oyente : oyentes) {
+            evento.accept(oyente);
+        }
+    }
+
     // =============== RECURSOS ===============
 
     public List<Recurso> obtenerRecursos() {
@@ -208,17 +229,43 @@ public class GestorRecursosLocal {
         zonas.add(nueva);
         guardarZonas();
         System.out.println("✓ Zona agregada y guardada: " + nombre);
+        notificar(o -> o.zonaAgregada(nueva));
         return nueva;
     }
 
     public boolean actualizarZona(Long id, String nuevoNombre, String nuevoEstado, int nuevaPrioridad) {
         for (Zona z : zonas) {
             if (z.getId().equals(id)) {
+                String nombreAnterior = z.getNombre();
                 z.setNombre(nuevoNombre);
                 z.setEstado(nuevoEstado);
                 z.setPrioridad(nuevaPrioridad);
                 guardarZonas();
                 System.out.println("✓ Zona actualizada y guardada: " + nuevoNombre);
+
+                boolean renombrada = !nuevoNombre.equals(nombreAnterior);
+                if (renombrada) {
+                    renombrarZonaEnRutas(nombreAnterior, nuevoNombre);
+                    notificar(o -> o.zonaRenombrada(z, nombreAnterior));
+                }
+                notificar(o -> o.zonaActualizada(z));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Asigna (o borra, con null) las coordenadas de una zona
+     */
+    public boolean actualizarCoordenadasZona(Long id, Double latitud, Double longitud) {
+        for (Zona z : zonas) {
+            if (z.getId().equals(id)) {
+                z.setLatitud(latitud);
+                z.setLongitud(longitud);
+                guardarZonas();
+                System.out.println("✓ Coordenadas de zona actualizadas: " + z.getNombre());
+                notificar(o -> o.zonaActualizada(z));
                 return true;
             }
         }
@@ -229,12 +276,37 @@ public class GestorRecursosLocal {
      * NUEVO: Elimina una zona por ID
      */
     public boolean eliminarZona(Long id) {
-        boolean eliminado = zonas.removeIf(z -> z.getId().equals(id));
-        if (eliminado) {
-            guardarZonas();
-            System.out.println("✓ Zona eliminada y guardada: " + id);
+        for (Iterator<Zona> it = zonas.iterator(); it.hasNext(); ) {
+            Zona z = it.next();
+            if (z.getId().equals(id)) {
+                it.remove();
+                guardarZonas();
+                System.out.println("✓ Zona eliminada y guardada: " + id);
+                notificar(o -> o.zonaEliminada(z));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Las rutas guardan el nombre de la zona: se actualizan al renombrarla
+     */
+    private void renombrarZonaEnRutas(String nombreAnterior, String nuevoNombre) {
+        boolean cambio = false;
+        for (Ruta r : rutas) {
+            if (nombreAnterior.equals(r.getOrigenZona())) {
+                r.setOrigenZona(nuevoNombre);
+                cambio = true;
+            }
+            if (nombreAnterior.equals(r.getDestinoZona())) {
+                r.setDestinoZona(nuevoNombre);
+                cambio = true;
+            }
+        }
+        if (cambio) {
+            guardarRutas();
         }
-        return eliminado;
     }
 
     /**
@@ -278,9 +350,47 @@ public class GestorRecursosLocal {
         rutas.add(nueva);
         guardarRutas();
         System.out.println("✓ Ruta agregada y guardada: " + origen + " → " + destino);
+        notificar(o -> o.rutaAgregada(nueva));
         return nueva;
     }
 
+    /**
+     * Cambia la distancia (peso) de una ruta
+     */
+    public boolean actualizarPesoRuta(Long id, double nuevoPeso) {
+        for (Ruta r : rutas) {
+            if (r.getId().equals(id)) {
+                double pesoAnterior = r.getPeso();
+                r.setPeso(nuevoPeso);
+                guardarRutas();
+                System.out.println("✓ Peso de ruta actualizado: " + r);
+                notificar(o -> o.rutaPesoCambiado(r, pesoAnterior));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cambia la capacidad (personas por hora) de una ruta; null la deja sin límite
+     * No altera el grafo: solo la usa el planificador de evacuación
+     */
+    public boolean actualizarCapacidadRuta(Long id, Double capacidad) {
+        if (capacidad != null && capacidad < 0) {
+            System.err.println("❌ Capacidad de ruta inválida: " + capacidad);
+            return false;
+        }
+        for (Ruta r : rutas) {
+            if (r.getId().equals(id)) {
+                r.setCapacidad(capacidad);
+                guardarRutas();
+                System.out.println("✓ Capacidad de ruta actualizada: " + r);
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Elimina una ruta por ID (String)
      */
@@ -298,12 +408,17 @@ public class GestorRecursosLocal {
      * Elimina una ruta por ID (Long)
      */
     public boolean eliminarRuta(Long id) {
-        boolean eliminado = rutas.removeIf(r -> r.getId().equals(id));
-        if (eliminado) {
-            guardarRutas();
-            System.out.println("✓ Ruta eliminada y guardada: " + id);
+        for (Iterator<Ruta> it = rutas.iterator(); it.hasNext(); ) {
+            Ruta r = it.next();
+            if (r.getId().equals(id)) {
+                it.remove();
+                guardarRutas();
+                System.out.println("✓ Ruta eliminada y guardada: " + id);
+                notificar(o -> o.rutaEliminada(r));
+                return true;
+            }
         }
-        return eliminado;
+        return false;
     }
 
     /**
@@ -347,6 +462,7 @@ public class GestorRecursosLocal {
     public void recargarDatos() {
         cargarDatos();
         System.out.println("✓ Datos recargados desde archivos JSON");
+        notificar(OyenteCambiosRecursos::datosRecargados);
     }
 
     /**
@@ -382,6 +498,7 @@ public class GestorRecursosLocal {
         guardarRutas();
 
         System.out.println("✓ Todos los datos han sido limpiados");
+        notificar(OyenteCambiosRecursos::datosRecargados);
     }
 
     /**
@@ -1,31 +1,421 @@
 package edu.universidad.modelo;
 
-import edu.universidad.estructura.ColaPrioridad;
+import edu.universidad.estructura.ArbolCaminos;
+import edu.universidad.estructura.BusquedaAEstrella;
+import edu.universidad.estructura.BusquedaBidireccional;
+import edu.universidad.estructura.BusquedaDependienteTiempo;
+import edu.universidad.estructura.BusquedaDijkstra;
+import edu.universidad.estructura.CacheArboles;
+import edu.universidad.estructura.CaminosAlternativos;
+import edu.universidad.estructura.Centralidad;
+import edu.universidad.estructura.CercaniaObjetivos;
+import edu.universidad.estructura.ComponentesFuertes;
+import edu.universidad.estructura.CotaGeografica;
+import edu.universidad.estructura.GrafoCompacto;
+import edu.universidad.estructura.CotaInferior;
+import edu.universidad.estructura.DeltaStepping;
+import edu.universidad.estructura.FrentePareto;
+import edu.universidad.estructura.JerarquiaContraccion;
+import edu.universidad.estructura.MatrizDistancias;
+import edu.universidad.estructura.PerfilTiempo;
+import edu.universidad.estructura.PerfilesTiempo;
+import edu.universidad.estructura.PuntosCriticos;
+import edu.universidad.estructura.PuntosReferencia;
+import edu.universidad.estructura.Recorrido;
+import edu.universidad.estructura.RegionAlcanzable;
+import edu.universidad.estructura.RutasEnLote;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 /**
- * Grafo dirigido mejorado que usa ColaPrioridad propia
+ * Grafo dirigido mejorado que usa un montículo indexado propio
+ * Las búsquedas recorren una vista compacta (CSR) que se reconstruye
+ * solo cuando cambia la estructura del grafo
+ * Los cambios se hacen desde un solo hilo a la vez (métodos synchronized);
+ * para consultar desde otros hilos se usa instantanea()
  */
 public class Grafo {
+    // Hilo de fondo compartido para recalcular estructuras derivadas
+    private static final ExecutorService SEGUNDO_PLANO = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "grafo-segundo-plano");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    // Compactaciones: mínimo de huecos/lápidas y fracción de aristas que las dispara
+    private static final int MINIMO_PARA_COMPACTAR = 64;
+    private static final double FRACCION_PARA_COMPACTAR = 0.25;
+
+    // Presupuesto por defecto de la caché de árboles de caminos
+    private static final long PRESUPUESTO_CACHE_ARBOLES = 32L * 1024 * 1024;
+
+    // Desde este tamaño los árboles completos se calculan en paralelo (delta-stepping)
+    private static final int MINIMO_NODOS_PARALELO = 100_000;
+
+    // Aristas abiertas que se acumulan antes de recalcular las componentes desde cero
+    private static final int MAX_ARISTAS_SIN_INDEXAR = 1024;
+
+    // Límites de encontrarTodosCaminos
+    private static final int MAX_CAMINOS = 20;
+    private static final long PRESUPUESTO_CAMINOS_MS = 500;
+
+    // Etiquetas que puede crear una búsqueda Pareto antes de cortar (mantiene interactivo el mapa)
+    private static final int MAX_ETIQUETAS_PARETO = 200_000;
+
+    // Semilla de los orígenes muestreados en la centralidad aproximada
+    private static final long SEMILLA_CENTRALIDAD = 42L;
+
     private Map<String, Nodo> nodos = new LinkedHashMap<>();
+    // Las aristas eliminadas dejan un hueco (null) hasta la próxima compactación
     private List<Arista> aristas = new ArrayList<>();
+    private Map<String, Integer> indiceAristas = new HashMap<>();   // clave origen + '\0' + destino -> posición
+    private int huecosAristas;
+
+    // Versión estructural: aumenta con cada cambio de nodos, aristas o pesos
+    // Solo la cambian los métodos synchronized; es volatile para las instantáneas
+    private volatile long version;
+
+    // Última instantánea publicada para los lectores de otros hilos
+    private volatile InstantaneaGrafo instantanea;
+
+    // Vista compacta congelada y nodos indexados por su posición en ella
+    private GrafoCompacto vistaCompacta;
+    private Nodo[] nodosIndexados;
+    private long versionVista = -1;
+    private int lapidasEnVista;   // aristas anuladas en la vista sin reconstruirla
+
+    // Árboles completos de caminos mínimos de los orígenes consultados
+    private final CacheArboles cacheArboles = new CacheArboles(PRESUPUESTO_CACHE_ARBOLES);
+
+    // Última matriz de distancias calculada, reutilizable mientras no cambie el grafo
+    private volatile MatrizDistancias ultimaMatriz;
+
+    // Contraction Hierarchies: válida solo para la versión en que se instaló
+    private JerarquiaContraccion jerarquia;
+    private long versionJerarquia = -1;
+
+    // Puntos de referencia (ALT): se publican desde el hilo de fondo
+    private volatile PuntosReferencia puntosReferencia;
+    private int cantidadPuntosReferencia = 8;
+    private CompletableFuture<PuntosReferencia> recalculoPuntos;
+    private boolean recalculoEnCurso;   // el recálculo lanzado aún no instaló sus tablas
 
-    public void agregarNodo(Nodo n) {
+    // Componentes fuertemente conexas: solo se recalculan si se cerró o quitó
+    // alguna arista; las aristas abiertas después se agregan al índice anterior
+    private ComponentesFuertes componentes;
+    private long versionComponentes = -1;
+    private boolean componentesInvalidas;
+    private final List<String[]> aristasSinIndexar = new ArrayList<>();
+
+    // Puentes y puntos de articulación de la última versión consultada
+    private PuntosCriticos puntosCriticos;
+
+    // Perfiles de tiempo alineados con la vista; cambiosPerfiles cuenta las asignaciones
+    private PerfilesTiempo perfilesVista;
+    private long cambiosPerfiles;
+    private long cambiosPerfilesVista = -1;
+
+    // Unidades de peso por km en línea recta para la cota de A* (Ruta.peso está en km)
+    private double factorCotaGeografica = 1.0;
+
+    // Ancho de cubeta de delta-stepping (<= 0 lo elige según los pesos)
+    private double deltaParalelo = 0.0;
+
+    /**
+     * Agrega un nodo; si ya existe uno con ese id lo reemplaza y se quitan
+     * las aristas del anterior, igual que al eliminarlo
+     */
+    public synchronized void agregarNodo(Nodo n) {
+        Nodo anterior = nodos.get(n.getId());
+        if (anterior != null) {
+            componentesInvalidas = true;
+            if (anterior != n) {
+                for (String destino : new ArrayList<>(anterior.getVecinos().keySet())) {
+                    quitarArista(n.getId(), destino);
+                }
+                for (String origen : new ArrayList<>(anterior.getPredecesores().keySet())) {
+                    quitarArista(origen, n.getId());
+                }
+                compactarAristasSiConviene();
+            }
+        }
         nodos.put(n.getId(), n);
+        version++;
+        programarPuntosReferencia();
     }
 
-    public void agregarArista(String origen, String destino, double peso) {
+    public synchronized void agregarArista(String origen, String destino, double peso) {
         Nodo o = nodos.get(origen), d = nodos.get(destino);
         if (o == null || d == null) return;
-        aristas.add(new Arista(origen, destino, peso));
+        // Una sola arista por par: repetirla solo cambia su peso
+        Arista existente = getArista(origen, destino);
+        registrarConectividad(origen, destino,
+                existente != null ? existente.getPeso() : Double.POSITIVE_INFINITY, peso);
+        if (existente != null) {
+            existente.setPeso(peso);
+        } else {
+            indiceAristas.put(claveArista(origen, destino), aristas.size());
+            aristas.add(new Arista(origen, destino, peso));
+        }
         o.addVecino(destino, peso);
+        d.addPredecesor(origen, peso);
+        version++;
+        programarPuntosReferencia();
+    }
+
+    private static String claveArista(String origen, String destino) {
+        return origen + '\0' + destino;
+    }
+
+    /**
+     * Cambia el peso de una arista existente (por ejemplo por congestión)
+     * No reconstruye la vista compacta: copia solo los bloques de pesos que
+     * contienen la arista (ver GrafoCompacto.conPeso), y los árboles de
+     * caminos en caché se reparan en la zona afectada en vez de descartarse
+     * Retorna false si la arista no existe
+     */
+    public synchronized boolean actualizarPeso(String origenId, String destinoId, double peso) {
+        Arista arista = getArista(origenId, destinoId);
+        if (arista == null) return false;
+        double anterior = arista.getPeso();
+        if (Double.compare(anterior, peso) == 0) return true;
+
+        registrarConectividad(origenId, destinoId, anterior, peso);
+        arista.setPeso(peso);
+        nodos.get(origenId).addVecino(destinoId, peso);
+        nodos.get(destinoId).addPredecesor(origenId, peso);
+
+        long versionAnterior = version;
+        version++;
+        if (vistaCompacta != null && versionVista == versionAnterior) {
+            int u = vistaCompacta.indiceDe(origenId);
+            int v = vistaCompacta.indiceDe(destinoId);
+            GrafoCompacto g = vistaCompacta.conPeso(u, v, peso);
+            vistaCompacta = g;
+            versionVista = version;
+            long versionNueva = version;
+            cacheArboles.reparar(versionAnterior, versionNueva,
+                    arbol -> arbol.reparar(g, u, v, anterior, versionNueva));
+        }
+        programarPuntosReferencia();
+        return true;
+    }
+
+    /**
+     * Cierra una vía: su peso pasa a infinito y ninguna ruta la usa
+     * Se reabre con actualizarPeso
+     */
+    public boolean bloquearArista(String origenId, String destinoId) {
+        return actualizarPeso(origenId, destinoId, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Retorna la arista origen -> destino (null si no existe)
+     */
+    public Arista getArista(String origenId, String destinoId) {
+        Integer posicion = indiceAristas.get(claveArista(origenId, destinoId));
+        return posicion != null ? aristas.get(posicion) : null;
+    }
+
+    /**
+     * Elimina la arista origen -> destino sin costo O(E): deja un hueco en la
+     * lista de aristas y una lápida (peso infinito) en la vista compacta, que
+     * copia solo los bloques de pesos tocados, y repara los árboles en caché
+     * La compactación posterior es el único paso O(E). Retorna false si no existe
+     */
+    public synchronized boolean eliminarArista(String origenId, String destinoId) {
+        double anterior = quitarArista(origenId, destinoId);
+        if (Double.isNaN(anterior)) return false;
+        registrarConectividad(origenId, destinoId, anterior, Double.POSITIVE_INFINITY);
+
+        long versionAnterior = version;
+        version++;
+        if (vistaAdmiteLapidas(versionAnterior, 1)) {
+            int u = vistaCompacta.indiceDe(origenId);
+            int v = vistaCompacta.indiceDe(destinoId);
+            GrafoCompacto g = vistaCompacta.conPeso(u, v, Double.POSITIVE_INFINITY);
+            instalarVistaConLapidas(g, 1);
+            long versionNueva = version;
+            cacheArboles.reparar(versionAnterior, versionNueva,
+                    arbol -> arbol.reparar(g, u, v, anterior, versionNueva));
+        }
+        compactarAristasSiConviene();
+        programarPuntosReferencia();
+        return true;
+    }
+
+    /**
+     * Elimina un nodo con todas sus aristas; cuesta O(grado) más los bloques de
+     * pesos que tocan sus aristas y no reconstruye la vista compacta (el nodo
+     * queda como lápida hasta la compactación)
+     * Retorna false si no existe
+     */
+    public synchronized boolean eliminarNodo(String id) {
+        Nodo nodo = nodos.get(id);
+        if (nodo == null) return false;
+        componentesInvalidas = true;   // cambian los índices de los nodos
+
+        int grado = 0;
+        for (String destino : new ArrayList<>(nodo.getVecinos().keySet())) {
+            quitarArista(id, destino);
+            grado++;
+        }
+        for (String origen : new ArrayList<>(nodo.getPredecesores().keySet())) {
+            quitarArista(origen, id);
+            grado++;
+        }
+        nodos.remove(id);
+
+        long versionAnterior = version;
+        version++;
+        if (vistaAdmiteLapidas(versionAnterior, grado)) {
+            int x = vistaCompacta.indiceDe(id);
+            GrafoCompacto g = vistaCompacta.sinNodo(x);
+            instalarVistaConLapidas(g, grado);
+            long versionNueva = version;
+            cacheArboles.reparar(versionAnterior, versionNueva,
+                    arbol -> arbol.repararSinNodo(g, x, versionNueva));
+        }
+        compactarAristasSiConviene();
+        programarPuntosReferencia();
+        return true;
+    }
+
+    /**
+     * Cambia el id de un nodo conservando su ubicación y sus aristas
+     * Si ya existe un nodo con el id nuevo, las aristas se le agregan
+     * Retorna false si el nodo actual no existe
+     */
+    public synchronized boolean renombrarNodo(String actualId, String nuevoId) {
+        Nodo actual = nodos.get(actualId);
+        if (actual == null) return false;
+        if (actualId.equals(nuevoId)) return true;
+
+        Map<String, Double> salientes = new HashMap<>(actual.getVecinos());
+        Map<String, Double> entrantes = new HashMap<>(actual.getPredecesores());
+        Map<String, PerfilTiempo> perfilesSalientes = new HashMap<>();
+        Map<String, PerfilTiempo> perfilesEntrantes = new HashMap<>();
+        for (String destino : salientes.keySet()) {
+            PerfilTiempo perfil = getArista(actualId, destino).getPerfil();
+            if (perfil != null) perfilesSalientes.put(destino, perfil);
+        }
+        for (String origen : entrantes.keySet()) {
+            PerfilTiempo perfil = getArista(origen, actualId).getPerfil();
+            if (perfil != null) perfilesEntrantes.put(origen, perfil);
+        }
+        eliminarNodo(actualId);
+
+        Nodo nuevo = nodos.get(nuevoId);
+        if (nuevo == null) {
+            nuevo = new Nodo(nuevoId);
+            agregarNodo(nuevo);
+        }
+        if (!nuevo.tieneCoordenadas() && actual.tieneCoordenadas()) {
+            asignarCoordenadas(nuevoId, actual.getLatitud(), actual.getLongitud());
+        }
+        for (Map.Entry<String, Double> e : salientes.entrySet()) {
+            String destino = e.getKey().equals(actualId) ? nuevoId : e.getKey();
+            agregarArista(nuevoId, destino, e.getValue());
+            if (perfilesSalientes.containsKey(e.getKey())) {
+                asignarPerfil(nuevoId, destino, perfilesSalientes.get(e.getKey()));
+            }
+        }
+        for (Map.Entry<String, Double> e : entrantes.entrySet()) {
+            if (e.getKey().equals(actualId)) continue;   // el lazo ya se agregó
+            agregarArista(e.getKey(), nuevoId, e.getValue());
+            if (perfilesEntrantes.containsKey(e.getKey())) {
+                asignarPerfil(e.getKey(), nuevoId, perfilesEntrantes.get(e.getKey()));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Anota cómo afecta a las componentes que la arista pase de un peso a
+     * otro: abrirla se puede agregar al índice, cerrarla obliga a recalcularlo
+     */
+    private void registrarConectividad(String origenId, String destinoId, double anterior, double nuevo) {
+        if (componentes == null || componentesInvalidas) return;
+        boolean abierta = anterior < Double.POSITIVE_INFINITY;
+        boolean abre = nuevo < Double.POSITIVE_INFINITY;
+        if (abierta && !abre) {
+            componentesInvalidas = true;
+        } else if (!abierta && abre) {
+            if (aristasSinIndexar.size() < MAX_ARISTAS_SIN_INDEXAR) {
+                aristasSinIndexar.add(new String[]{origenId, destinoId});
+            } else {
+                componentesInvalidas = true;
+            }
+        }
+    }
+
+    /**
+     * Quita la arista de la lista y de los mapas de vecinos
+     * Retorna su peso, o NaN si no existía
+     */
+    private double quitarArista(String origenId, String destinoId) {
+        Integer posicion = indiceAristas.remove(claveArista(origenId, destinoId));
+        if (posicion == null) return Double.NaN;
+        double peso = aristas.get(posicion).getPeso();
+        aristas.set(posicion, null);
+        huecosAristas++;
+        // Un extremo puede faltar si se reemplazó o eliminó a medias
+        Nodo origen = nodos.get(origenId);
+        Nodo destino = nodos.get(destinoId);
+        if (origen != null) origen.getVecinos().remove(destinoId);
+        if (destino != null) destino.getPredecesores().remove(origenId);
+        return peso;
+    }
+
+    /**
+     * Indica si la vista actual puede absorber más lápidas en lugar de
+     * reconstruirse; pasado el umbral se deja caducar y se compacta al usarla
+     */
+    private boolean vistaAdmiteLapidas(long versionAnterior, int nuevas) {
+        if (vistaCompacta == null || versionVista != versionAnterior) return false;
+        int limite = Math.max(MINIMO_PARA_COMPACTAR,
+                (int) (vistaCompacta.getNumAristas() * FRACCION_PARA_COMPACTAR));
+        return lapidasEnVista + nuevas <= limite;
+    }
+
+    private void instalarVistaConLapidas(GrafoCompacto g, int nuevas) {
+        vistaCompacta = g;
+        versionVista = version;
+        lapidasEnVista += nuevas;
+    }
+
+    /**
+     * Quita los huecos de la lista de aristas cuando son demasiados
+     */
+    private void compactarAristasSiConviene() {
+        if (huecosAristas >= Math.max(MINIMO_PARA_COMPACTAR, (int) (aristas.size() * FRACCION_PARA_COMPACTAR))) {
+            compactarAristas();
+        }
+    }
+
+    private void compactarAristas() {
+        List<Arista> compactas = new ArrayList<>(aristas.size() - huecosAristas);
+        for (Arista arista : aristas) {
+            if (arista == null) continue;
+            indiceAristas.put(claveArista(arista.getOrigenId(), arista.getDestinoId()), compactas.size());
+            compactas.add(arista);
+        }
+        aristas = compactas;
+        huecosAristas = 0;
     }
 
     public Collection<Nodo> getNodos() {
         return nodos.values();
     }
 
-    public List<Arista> getAristas() {
+    public synchronized List<Arista> getAristas() {
+        // Quien recorre la lista paga O(E) de todos modos
+        if (huecosAristas > 0) {
+            compactarAristas();
+        }
         return aristas;
     }
 
@@ -34,126 +424,959 @@ public class Grafo {
     }
 
     /**
-     * Algoritmo de Dijkstra usando ColaPrioridad PROPIA
-     * Calcula la ruta más corta entre dos nodos
+     * Asigna la ubicación de un nodo (null para quitarla)
+     */
+    public synchronized void asignarCoordenadas(String id, Double latitud, Double longitud) {
+        Nodo n = nodos.get(id);
+        if (n == null) return;
+        n.setLatitud(latitud);
+        n.setLongitud(longitud);
+        version++;
+    }
+
+    public double getFactorCotaGeografica() {
+        return factorCotaGeografica;
+    }
+
+    /**
+     * Define cuántas unidades de peso equivalen como mínimo a un km en línea
+     * recta. Debe ser menor o igual al costo real por km para que A* sea exacto
+     */
+    public synchronized void setFactorCotaGeografica(double factor) {
+        this.factorCotaGeografica = factor;
+    }
+
+    /**
+     * Retorna la versión estructural actual del grafo
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Retorna la vista compacta (CSR) del grafo, construyéndola si
+     * el grafo cambió desde la última vez
+     */
+    public synchronized GrafoCompacto getVistaCompacta() {
+        if (vistaCompacta == null || versionVista != version) {
+            construirVistaCompacta();
+        }
+        return vistaCompacta;
+    }
+
+    private void construirVistaCompacta() {
+        Nodo[] indexados = new Nodo[nodos.size()];
+        vistaCompacta = compactar(indexados);
+        nodosIndexados = indexados;
+        versionVista = version;
+        lapidasEnVista = 0;
+    }
+
+    /**
+     * Vista compacta sin lápidas (nodos o aristas eliminados), por ejemplo
+     * para guardarla en disco. Si la vista actual tiene lápidas se arma una
+     * aparte sin instalarla, así no cambian los índices de lo ya calculado
+     */
+    public synchronized GrafoCompacto getVistaSinLapidas() {
+        GrafoCompacto g = getVistaCompacta();
+        boolean limpia = lapidasEnVista == 0;
+        for (int v = 0; limpia && v < g.getNumNodos(); v++) {
+            limpia = !g.estaEliminado(v);
+        }
+        return limpia ? g : compactar(new Nodo[nodos.size()]);
+    }
+
+    /**
+     * Congela los nodos y sus vecinos en arreglos primitivos; indexados
+     * recibe cada nodo en su posición de la vista
+     */
+    private GrafoCompacto compactar(Nodo[] indexados) {
+        int n = nodos.size();
+        String[] ids = new String[n];
+        Map<String, Integer> indices = new HashMap<>(n * 2);
+        double[] latitudes = null;
+        double[] longitudes = null;
+
+        int i = 0;
+        int m = 0;
+        for (Nodo nodo : nodos.values()) {
+            ids[i] = nodo.getId();
+            indexados[i] = nodo;
+            indices.put(nodo.getId(), i);
+            m += nodo.getVecinos().size();
+            if (nodo.tieneCoordenadas()) {
+                if (latitudes == null) {
+                    latitudes = new double[n];
+                    longitudes = new double[n];
+                    Arrays.fill(latitudes, Double.NaN);
+                    Arrays.fill(longitudes, Double.NaN);
+                }
+                latitudes[i] = nodo.getLatitud();
+                longitudes[i] = nodo.getLongitud();
+            }
+            i++;
+        }
+
+        int[] origenes = new int[m];
+        int[] destinos = new int[m];
+        double[] pesos = new double[m];
+        int e = 0;
+        for (int u = 0; u < n; u++) {
+            for (Map.Entry<String, Double> vecino : indexados[u].getVecinos().entrySet()) {
+                Integer v = indices.get(vecino.getKey());
+                if (v == null) continue;
+                origenes[e] = u;
+                destinos[e] = v;
+                pesos[e] = vecino.getValue();
+                e++;
+            }
+        }
+
+        return new GrafoCompacto(ids, origenes, destinos, pesos, e, latitudes, longitudes);
+    }
+
+    /**
+     * Grafo con los nodos y aristas de una vista compacta sin lápidas (por
+     * ejemplo leída de disco). La vista queda instalada tal cual, así la
+     * primera búsqueda no tiene que reconstruirla
+     */
+    public static Grafo desdeVistaCompacta(GrafoCompacto g) {
+        int n = g.getNumNodos();
+        int m = g.getNumAristas();
+        Grafo grafo = new Grafo();
+        grafo.nodos = new LinkedHashMap<>(Math.max(16, (int) (n / 0.75f) + 1));
+        grafo.aristas = new ArrayList<>(m);
+        grafo.indiceAristas = new HashMap<>(Math.max(16, (int) (m / 0.75f) + 1));
+        Nodo[] indexados = new Nodo[n];
+        for (int v = 0; v < n; v++) {
+            if (g.estaEliminado(v)) {
+                throw new IllegalArgumentException("La vista tiene nodos eliminados");
+            }
+            Nodo nodo = new Nodo(g.getId(v));
+            if (g.tieneCoordenadas(v)) {
+                nodo.setLatitud(g.latitud(v));
+                nodo.setLongitud(g.longitud(v));
+            }
+            if (grafo.nodos.put(nodo.getId(), nodo) != null) {
+                throw new IllegalArgumentException("Nodo repetido en la vista: " + nodo.getId());
+            }
+            indexados[v] = nodo;
+        }
+        for (int u = 0; u < n; u++) {
+            String origen = indexados[u].getId();
+            for (int e = g.primeraArista(u), fin = g.finAristas(u); e < fin; e++) {
+                String destino = indexados[g.destino(e)].getId();
+                double peso = g.peso(e);
+                if (grafo.indiceAristas.put(claveArista(origen, destino), grafo.aristas.size()) != null) {
+                    throw new IllegalArgumentException("Arista repetida en la vista: " + origen + " -> " + destino);
+                }
+                grafo.aristas.add(new Arista(origen, destino, peso));
+                indexados[u].addVecino(destino, peso);
+                indexados[g.destino(e)].addPredecesor(origen, peso);
+            }
+        }
+        grafo.version = 1;
+        grafo.vistaCompacta = g;
+        grafo.nodosIndexados = indexados;
+        grafo.versionVista = grafo.version;
+        return grafo;
+    }
+
+    /**
+     * Versión inmutable del grafo actual para consultar desde cualquier hilo
+     * Si el grafo no cambió retorna la misma instantánea sin tomar el lock;
+     * si cambió, la primera consulta publica una nueva (los cambios de peso
+     * y eliminaciones la comparten casi entera con la anterior)
+     */
+    public InstantaneaGrafo instantanea() {
+        InstantaneaGrafo actual = instantanea;
+        if (actual != null && actual.getVersion() == version) {
+            return actual;
+        }
+        return publicarInstantanea();
+    }
+
+    private synchronized InstantaneaGrafo publicarInstantanea() {
+        InstantaneaGrafo actual = instantanea;
+        if (actual != null && actual.getVersion() == version) {
+            return actual;
+        }
+        GrafoCompacto g = getVistaCompacta();
+        PuntosReferencia puntos = puntosReferencia;
+        if (puntos != null && puntos.getHuella() != g.huella()) {
+            puntos = null;
+        }
+        actual = new InstantaneaGrafo(version, g, nodosIndexados, factorCotaGeografica,
+                jerarquiaVigente() ? jerarquia : null, puntos);
+        instantanea = actual;
+        return actual;
+    }
+
+    public CacheArboles getCacheArboles() {
+        return cacheArboles;
+    }
+
+    /**
+     * Memoria máxima (bytes) para árboles de caminos en caché; 0 la desactiva
+     */
+    public void setPresupuestoCacheArboles(long bytes) {
+        cacheArboles.setPresupuestoBytes(bytes);
+    }
+
+    /**
+     * Árbol de caminos mínimos desde origen, tomado de la caché o calculado
+     * y guardado en ella. Retorna null si no cabe en el presupuesto
+     */
+    private ArbolCaminos arbolDesde(GrafoCompacto g, int origen) {
+        ArbolCaminos arbol = cacheArboles.obtener(origen, version);
+        if (arbol == null && cacheArboles.admite(g.getNumNodos())) {
+            if (g.getNumNodos() >= MINIMO_NODOS_PARALELO && ForkJoinPool.getCommonPoolParallelism() > 1) {
+                arbol = new DeltaStepping(g, deltaParalelo, ForkJoinPool.commonPool()).arbol(origen, version);
+            } else {
+                BusquedaDijkstra busqueda = BusquedaDijkstra.delHilo();
+                busqueda.ejecutar(g, origen, -1);
+                arbol = ArbolCaminos.desde(busqueda, g.getNumNodos(), origen, version);
+            }
+            cacheArboles.guardar(arbol);
+        }
+        return arbol;
+    }
+
+    /**
+     * Árbol completo de caminos mínimos calculado siempre en paralelo con
+     * delta-stepping en el pool indicado (se guarda en la caché si cabe)
+     * Retorna null si el nodo no existe
+     */
+    public ArbolCaminos arbolParalelo(String origenId, ForkJoinPool pool) {
+        GrafoCompacto g = getVistaCompacta();
+        int origen = g.indiceDe(origenId);
+        if (origen < 0) return null;
+        ArbolCaminos arbol = new DeltaStepping(g, deltaParalelo, pool).arbol(origen, version);
+        if (cacheArboles.admite(g.getNumNodos())) {
+            cacheArboles.guardar(arbol);
+        }
+        return arbol;
+    }
+
+    public double getDeltaParalelo() {
+        return deltaParalelo;
+    }
+
+    /**
+     * Ancho de cubeta de delta-stepping: más chico se parece a Dijkstra
+     * (menos trabajo repetido), más grande da fronteras más paralelas
+     * 0 lo elige según el peso promedio de las aristas
+     */
+    public void setDeltaParalelo(double delta) {
+        this.deltaParalelo = delta;
+    }
+
+    /**
+     * Árbol completo de caminos mínimos desde un nodo (null si no existe
+     * o si la caché está desactivada)
+     */
+    public ArbolCaminos arbolDesde(String origenId) {
+        GrafoCompacto g = getVistaCompacta();
+        int origen = g.indiceDe(origenId);
+        return origen < 0 ? null : arbolDesde(g, origen);
+    }
+
+    /**
+     * Algoritmo de Dijkstra con montículo indexado propio
+     * Calcula la ruta más corta entre dos nodos usando distancias exactas
+     * y el espacio de búsqueda reutilizable del hilo actual
+     * El árbol completo del origen queda en caché, así las siguientes
+     * consultas desde el mismo origen solo recorren predecesores
      */
     public List<Nodo> dijkstra(String origenId, String destinoId) {
-        if (!nodos.containsKey(origenId) || !nodos.containsKey(destinoId)) {
+        GrafoCompacto g = getVistaCompacta();
+        int origen = g.indiceDe(origenId);
+        int destino = g.indiceDe(destinoId);
+        if (origen < 0 || destino < 0) {
             return Collections.emptyList();
         }
 
-        // Estructuras de datos
-        Map<String, Double> distancias = new HashMap<>();
-        Map<String, String> previos = new HashMap<>();
-        Set<String> visitados = new HashSet<>();
+        ArbolCaminos arbol = arbolDesde(g, origen);
+        if (arbol != null) {
+            int[] camino = arbol.camino(destino);
+            return camino.length == 0 ? new LinkedList<>() : convertirCamino(camino);
+        }
 
-        // Inicializar distancias
-        for (String id : nodos.keySet()) {
-            distancias.put(id, Double.POSITIVE_INFINITY);
-            previos.put(id, null);
+        BusquedaDijkstra busqueda = BusquedaDijkstra.delHilo();
+        if (!busqueda.ejecutar(g, origen, destino)) {
+            return new LinkedList<>();
         }
-        distancias.put(origenId, 0.0);
+        return reconstruirCamino(busqueda, origen, destino);
+    }
+
+    /**
+     * Asigna a la arista un perfil de duración según la hora de salida (null
+     * vuelve al peso fijo). El peso fijo se sigue usando en las rutas que no
+     * dependen del tiempo y una arista cerrada sigue cerrada aunque tenga perfil
+     * Retorna false si la arista no existe
+     */
+    public synchronized boolean asignarPerfil(String origenId, String destinoId, PerfilTiempo perfil) {
+        Arista arista = getArista(origenId, destinoId);
+        if (arista == null) return false;
+        arista.setPerfil(perfil);
+        cambiosPerfiles++;
+        return true;
+    }
 
-        // Cola de prioridad propia (menor distancia = mayor prioridad)
-        ColaPrioridad<NodoDistancia> colaPrioridad = new ColaPrioridad<>();
-        colaPrioridad.insertar(new NodoDistancia(origenId, 0.0), 0);
+    /**
+     * Ruta de llegada más temprana saliendo de origen en el instante salida,
+     * con cada arista evaluada en el instante en que se la toma
+     */
+    public RutaTemporal rutaDependienteTiempo(String origenId, String destinoId, double salida) {
+        GrafoCompacto g;
+        PerfilesTiempo perfiles;
+        Nodo[] indexados;
+        synchronized (this) {
+            g = getVistaCompacta();
+            perfiles = perfilesVigentes(g);
+            indexados = nodosIndexados;
+        }
+        int origen = g.indiceDe(origenId);
+        int destino = g.indiceDe(destinoId);
+        if (origen < 0 || destino < 0) {
+            return new RutaTemporal(Collections.emptyList(), salida, Double.POSITIVE_INFINITY);
+        }
+        BusquedaDependienteTiempo busqueda = BusquedaDependienteTiempo.delHilo();
+        busqueda.ejecutar(g, perfiles, origen, salida, destino);
+        List<Nodo> camino = new ArrayList<>();
+        for (int v : busqueda.camino(destino)) {
+            camino.add(indexados[v]);
+        }
+        return new RutaTemporal(camino, salida, busqueda.llegada(destino));
+    }
 
-        while (!colaPrioridad.estaVacia()) {
-            NodoDistancia actual = colaPrioridad.extraer();
-            String actualId = actual.nodoId;
+    /**
+     * Rutas Pareto-óptimas por distancia y riesgo: cada una es la más corta
+     * para su nivel de riesgo. El riesgo de una ruta es la suma del riesgo de
+     * las zonas que atraviesa (sin contar origen ni destino); las zonas que
+     * no aparecen en el mapa no suman. Ordenadas de la más corta a la más segura
+     */
+    public FrentePareto rutasPareto(String origenId, String destinoId, Map<String, Double> riesgoPorZona) {
+        return rutasPareto(origenId, destinoId, riesgoPorZona, MAX_ETIQUETAS_PARETO);
+    }
 
-            // Si ya visitamos este nodo, continuar
-            if (visitados.contains(actualId)) {
-                continue;
+    public FrentePareto rutasPareto(String origenId, String destinoId, Map<String, Double> riesgoPorZona,
+                                    int maxEtiquetas) {
+        GrafoCompacto g = getVistaCompacta();
+        int origen = g.indiceDe(origenId);
+        int destino = g.indiceDe(destinoId);
+        if (origen < 0 || destino < 0) {
+            throw new IllegalArgumentException("Nodo no encontrado: " + (origen < 0 ? origenId : destinoId));
+        }
+        double[] riesgo = new double[g.getNumNodos()];
+        for (int v = 0; v < riesgo.length; v++) {
+            if (g.estaEliminado(v)) continue;
+            Double valor = riesgoPorZona.get(g.getId(v));
+            if (valor != null && !(valor >= 0)) {
+                throw new IllegalArgumentException("Riesgo inválido para " + g.getId(v) + ": " + valor);
             }
+            riesgo[v] = valor != null ? valor : 0;
+        }
+        return FrentePareto.calcular(g, riesgo, origen, destino, maxEtiquetas, version);
+    }
 
-            visitados.add(actualId);
+    /**
+     * Camino de la i-ésima ruta de un frente Pareto
+     */
+    public List<Nodo> caminoPareto(FrentePareto frente, int i) {
+        verificarVersion(frente.getVersion());
+        return convertirCamino(frente.camino(i));
+    }
 
-            // Si llegamos al destino, podemos terminar
-            if (actualId.equals(destinoId)) {
-                break;
+    /**
+     * Perfiles alineados con la vista dada; se reconstruyen solo si cambió
+     * el grafo o algún perfil
+     */
+    private PerfilesTiempo perfilesVigentes(GrafoCompacto g) {
+        if (perfilesVista != null && perfilesVista.getVersion() == version
+                && cambiosPerfilesVista == cambiosPerfiles) {
+            return perfilesVista;
+        }
+        PerfilTiempo[] porArista = new PerfilTiempo[g.getNumAristas()];
+        if (cambiosPerfiles > 0) {
+            for (int u = 0; u < g.getNumNodos(); u++) {
+                if (g.estaEliminado(u)) continue;
+                for (int e = g.primeraArista(u), fin = g.finAristas(u); e < fin; e++) {
+                    Arista arista = getArista(g.getId(u), g.getId(g.destino(e)));
+                    if (arista != null) porArista[e] = arista.getPerfil();
+                }
             }
+        }
+        perfilesVista = PerfilesTiempo.construir(g, porArista, version);
+        cambiosPerfilesVista = cambiosPerfiles;
+        return perfilesVista;
+    }
 
-            Nodo nodoActual = nodos.get(actualId);
-            double distanciaActual = distancias.get(actualId);
+    /**
+     * Dijkstra bidireccional: busca a la vez desde el origen y desde el
+     * destino (índice inverso) y se detiene al encontrarse ambas búsquedas
+     * Retorna la misma distancia que dijkstra asentando menos nodos
+     */
+    public List<Nodo> dijkstraBidireccional(String origenId, String destinoId) {
+        GrafoCompacto g = getVistaCompacta();
+        int origen = g.indiceDe(origenId);
+        int destino = g.indiceDe(destinoId);
+        if (origen < 0 || destino < 0) {
+            return Collections.emptyList();
+        }
+        if (sinCaminoSegunComponentes(origen, destino)) {
+            return new LinkedList<>();
+        }
 
-            // Explorar vecinos
-            for (Map.Entry<String, Double> vecino : nodoActual.getVecinos().entrySet()) {
-                String vecinoId = vecino.getKey();
-                double pesoArista = vecino.getValue();
+        BusquedaBidireccional busqueda = BusquedaBidireccional.delHilo();
+        busqueda.ejecutar(g, origen, destino);
+        return convertirCamino(busqueda.getCamino());
+    }
 
-                if (visitados.contains(vecinoId)) {
-                    continue;
-                }
+    /**
+     * Búsqueda A* usando la distancia geográfica como cota inferior
+     * Requiere coordenadas en los nodos; sin ellas se comporta como Dijkstra
+     */
+    public List<Nodo> aEstrella(String origenId, String destinoId) {
+        GrafoCompacto g = getVistaCompacta();
+        int origen = g.indiceDe(origenId);
+        int destino = g.indiceDe(destinoId);
+        if (origen < 0 || destino < 0) {
+            return Collections.emptyList();
+        }
+
+        return ejecutarAEstrella(g, origen, destino, new CotaGeografica(g, factorCotaGeografica));
+    }
+
+    private List<Nodo> ejecutarAEstrella(GrafoCompacto g, int origen, int destino, CotaInferior cota) {
+        if (sinCaminoSegunComponentes(origen, destino)) {
+            return new LinkedList<>();
+        }
+        BusquedaAEstrella busqueda = BusquedaAEstrella.delHilo();
+        if (!busqueda.ejecutar(g, origen, destino, cota)) {
+            return new LinkedList<>();
+        }
+        LinkedList<Nodo> camino = new LinkedList<>();
+        for (int actual = destino; actual >= 0; actual = busqueda.previo(actual)) {
+            camino.addFirst(nodosIndexados[actual]);
+        }
+        return camino;
+    }
 
-                double nuevaDistancia = distanciaActual + pesoArista;
+    public int getCantidadPuntosReferencia() {
+        return cantidadPuntosReferencia;
+    }
 
-                if (nuevaDistancia < distancias.get(vecinoId)) {
-                    distancias.put(vecinoId, nuevaDistancia);
-                    previos.put(vecinoId, actualId);
+    /**
+     * Cantidad de puntos de referencia que se eligen en el próximo cálculo
+     */
+    public void setCantidadPuntosReferencia(int cantidad) {
+        this.cantidadPuntosReferencia = cantidad;
+    }
 
-                    // Insertar en cola con prioridad basada en distancia
-                    // Multiplicamos por 100 y convertimos a int para la prioridad
-                    int prioridad = (int) (nuevaDistancia * 100);
-                    colaPrioridad.insertar(new NodoDistancia(vecinoId, nuevaDistancia), prioridad);
+    /**
+     * Calcula e instala las tablas de puntos de referencia del grafo actual
+     */
+    public PuntosReferencia prepararPuntosReferencia() {
+        PuntosReferencia nuevos = PuntosReferencia.calcular(getVistaCompacta(), cantidadPuntosReferencia);
+        puntosReferencia = nuevos;
+        instantanea = null;
+        return nuevos;
+    }
+
+    /**
+     * Recalcula las tablas en el hilo de fondo. Si ya hay un cálculo en curso
+     * se reutiliza en lugar de lanzar otro: ese toma la vista al empezar y
+     * vuelve a empezar si el grafo cambia antes de instalar sus tablas
+     */
+    public synchronized CompletableFuture<PuntosReferencia> recalcularPuntosReferenciaEnSegundoPlano() {
+        if (recalculoEnCurso) {
+            return recalculoPuntos;
+        }
+        recalculoEnCurso = true;
+        recalculoPuntos = CompletableFuture.supplyAsync(this::calcularPuntosVigentes, SEGUNDO_PLANO);
+        return recalculoPuntos;
+    }
+
+    /**
+     * Calcula las tablas de la vista actual sin tomar el lock durante el
+     * cálculo y las instala solo si siguen correspondiendo al grafo
+     */
+    private PuntosReferencia calcularPuntosVigentes() {
+        try {
+            while (true) {
+                GrafoCompacto g;
+                int cantidad;
+                synchronized (this) {
+                    g = getVistaCompacta();
+                    cantidad = cantidadPuntosReferencia;
+                }
+                PuntosReferencia nuevos = PuntosReferencia.calcular(g, cantidad);
+                synchronized (this) {
+                    if (nuevos.getHuella() == getVistaCompacta().huella()) {
+                        puntosReferencia = nuevos;
+                        instantanea = null;
+                        recalculoEnCurso = false;
+                        return nuevos;
+                    }
                 }
             }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                recalculoEnCurso = false;
+            }
+            throw e;
         }
+    }
+
+    /**
+     * Tras un cambio de rutas, si ALT ya se usó, programa el recálculo de sus
+     * tablas; mientras tanto rutaALT responde con la cota geográfica
+     */
+    private void programarPuntosReferencia() {
+        if (puntosReferencia != null || recalculoPuntos != null) {
+            recalcularPuntosReferenciaEnSegundoPlano();
+        }
+    }
 
-        // Reconstruir camino
-        return reconstruirCamino(previos, origenId, destinoId);
+    /**
+     * Indica si las tablas instaladas corresponden al grafo actual
+     */
+    public boolean puntosReferenciaVigentes() {
+        PuntosReferencia actuales = puntosReferencia;
+        return actuales != null && actuales.getHuella() == getVistaCompacta().huella();
+    }
+
+    /**
+     * A* guiado por puntos de referencia (ALT); no necesita coordenadas
+     * Si las tablas faltan o están desactualizadas usa la cota geográfica
+     * (Dijkstra si no hay coordenadas) sin esperar su recálculo, que corre
+     * en segundo plano desde el cambio de rutas
+     */
+    public List<Nodo> rutaALT(String origenId, String destinoId) {
+        GrafoCompacto g = getVistaCompacta();
+        int origen = g.indiceDe(origenId);
+        int destino = g.indiceDe(destinoId);
+        if (origen < 0 || destino < 0) {
+            return Collections.emptyList();
+        }
+        PuntosReferencia actuales = puntosReferencia;
+        if (actuales == null || actuales.getHuella() != g.huella()) {
+            recalcularPuntosReferenciaEnSegundoPlano();
+            return ejecutarAEstrella(g, origen, destino, new CotaGeografica(g, factorCotaGeografica));
+        }
+        return ejecutarAEstrella(g, origen, destino, actuales.cotaPara(origen, destino));
+    }
+
+    /**
+     * Construye la jerarquía de contracción del grafo actual y la instala
+     */
+    public JerarquiaContraccion prepararJerarquia() {
+        JerarquiaContraccion nueva = JerarquiaContraccion.construir(getVistaCompacta());
+        instalarJerarquia(nueva);
+        return nueva;
+    }
+
+    /**
+     * Instala una jerarquía (por ejemplo cargada de disco) si corresponde
+     * exactamente al grafo actual. Retorna false si fue construida para otro
+     */
+    public synchronized boolean instalarJerarquia(JerarquiaContraccion nueva) {
+        if (nueva == null || nueva.getHuella() != getVistaCompacta().huella()) {
+            return false;
+        }
+        jerarquia = nueva;
+        versionJerarquia = version;
+        instantanea = null;   // la próxima instantánea ya la incluye
+        return true;
+    }
+
+    /**
+     * Indica si hay una jerarquía instalada que sigue correspondiendo al grafo
+     */
+    public synchronized boolean jerarquiaVigente() {
+        if (jerarquia == null) return false;
+        if (versionJerarquia != version) {
+            // Cambios que no alteran aristas ni pesos no la invalidan
+            if (jerarquia.getHuella() != getVistaCompacta().huella()) return false;
+            versionJerarquia = version;
+        }
+        return true;
+    }
+
+    /**
+     * Ruta más corta usando Contraction Hierarchies
+     * Mientras la jerarquía no exista o esté desactualizada usa Dijkstra
+     */
+    public List<Nodo> rutaJerarquica(String origenId, String destinoId) {
+        if (!jerarquiaVigente()) {
+            return dijkstra(origenId, destinoId);
+        }
+        GrafoCompacto g = getVistaCompacta();
+        int origen = g.indiceDe(origenId);
+        int destino = g.indiceDe(destinoId);
+        if (origen < 0 || destino < 0) {
+            return Collections.emptyList();
+        }
+        return convertirCamino(jerarquia.camino(origen, destino));
+    }
+
+    /**
+     * Distancia mínima entre dos nodos (infinito si no hay camino)
+     */
+    public double distanciaMinima(String origenId, String destinoId) {
+        GrafoCompacto g = getVistaCompacta();
+        int origen = g.indiceDe(origenId);
+        int destino = g.indiceDe(destinoId);
+        if (origen < 0 || destino < 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        ArbolCaminos arbol = arbolDesde(g, origen);
+        if (arbol != null) {
+            return arbol.distancia(destino);
+        }
+        BusquedaDijkstra busqueda = BusquedaDijkstra.delHilo();
+        busqueda.ejecutar(g, origen, destino);
+        return busqueda.distancia(destino);
+    }
+
+    /**
+     * Matriz de distancias mínimas de cada origen a cada destino
+     * Ejecuta una búsqueda por origen en paralelo; si se pide conPredecesores
+     * se pueden recuperar los caminos con caminoEnMatriz. La última matriz se
+     * reutiliza mientras el grafo y los nodos pedidos no cambien
+     */
+    public MatrizDistancias matrizDistancias(List<String> origenesIds, List<String> destinosIds,
+                                             boolean conPredecesores) {
+        GrafoCompacto g = getVistaCompacta();
+        int[] origenes = indicesDe(g, origenesIds);
+        int[] destinos = indicesDe(g, destinosIds);
+
+        MatrizDistancias anterior = ultimaMatriz;
+        if (anterior != null && anterior.sirvePara(origenes, destinos, conPredecesores, version)) {
+            return anterior;
+        }
+        MatrizDistancias matriz = MatrizDistancias.calcular(g, origenes, destinos, conPredecesores, version);
+        ultimaMatriz = matriz;
+        return matriz;
+    }
+
+    /**
+     * Camino del origen i al destino j de una matriz calculada con predecesores
+     */
+    public List<Nodo> caminoEnMatriz(MatrizDistancias matriz, int i, int j) {
+        verificarVersion(matriz.getVersion());
+        return convertirCamino(matriz.camino(i, j));
+    }
+
+    /**
+     * Rutas de muchos pares a la vez: el par i va de origenesIds[i] a
+     * destinosIds[i]. Se hace una búsqueda por origen distinto (en paralelo)
+     * en lugar de una por par; los caminos se leen con caminoEnLote
+     */
+    public RutasEnLote rutasEnLote(List<String> origenesIds, List<String> destinosIds, boolean conCaminos) {
+        GrafoCompacto g = getVistaCompacta();
+        return RutasEnLote.calcular(g, indicesDe(g, origenesIds), indicesDe(g, destinosIds),
+                conCaminos, version);
+    }
+
+    /**
+     * Camino del par i de un lote calculado con caminos
+     */
+    public List<Nodo> caminoEnLote(RutasEnLote lote, int i) {
+        verificarVersion(lote.getVersion());
+        return convertirCamino(lote.camino(i));
+    }
+
+    /**
+     * Recorrido de un equipo que sale del depósito y visita todas las zonas
+     * en un orden casi óptimo (ver Recorrido), con el camino completo unido
+     * tramo a tramo. Si regresar es true el recorrido vuelve al depósito
+     * Con una jerarquía vigente la matriz se calcula por cubetas y los tramos
+     * con consultas CH; si no, con una búsqueda por punto en paralelo
+     * Las zonas repetidas o iguales al depósito se visitan una vez; las que
+     * no tienen camino se informan aparte
+     */
+    public RecorridoRescate planificarRecorrido(String depositoId, List<String> zonasIds, boolean regresar) {
+        GrafoCompacto g;
+        Nodo[] indexados;
+        JerarquiaContraccion ch;
+        long versionCalculo;
+        synchronized (this) {
+            g = getVistaCompacta();
+            indexados = nodosIndexados;
+            ch = jerarquiaVigente() ? jerarquia : null;
+            versionCalculo = version;
+        }
+        Set<String> unicas = new LinkedHashSet<>(zonasIds);
+        unicas.remove(depositoId);
+        List<String> puntosIds = new ArrayList<>(unicas.size() + 1);
+        puntosIds.add(depositoId);
+        puntosIds.addAll(unicas);
+        int[] puntos = indicesDe(g, puntosIds);
+
+        double[] distancias = ch != null
+                ? ch.matriz(puntos, puntos)
+                : MatrizDistancias.calcular(g, puntos, puntos, false, versionCalculo).getValores();
+        Recorrido recorrido = Recorrido.optimizar(distancias, puntos.length, regresar);
+
+        int[] orden = recorrido.getOrden();
+        int tramos = Math.max(0, orden.length - 1);
+        int[][] caminosTramo = new int[tramos][];
+        if (ch != null) {
+            for (int t = 0; t < tramos; t++) {
+                caminosTramo[t] = ch.camino(puntos[orden[t]], puntos[orden[t + 1]]);
+            }
+        } else {
+            // Una búsqueda por tramo, todas en paralelo
+            int[] desde = new int[tramos];
+            int[] hasta = new int[tramos];
+            for (int t = 0; t < tramos; t++) {
+                desde[t] = puntos[orden[t]];
+                hasta[t] = puntos[orden[t + 1]];
+            }
+            RutasEnLote lote = RutasEnLote.calcular(g, desde, hasta, true, versionCalculo);
+            for (int t = 0; t < tramos; t++) {
+                caminosTramo[t] = lote.camino(t);
+            }
+        }
+
+        List<Nodo> paradas = new ArrayList<>(orden.length);
+        for (int p : orden) {
+            paradas.add(indexados[puntos[p]]);
+        }
+        List<Nodo> camino = new ArrayList<>();
+        camino.add(indexados[puntos[0]]);
+        for (int[] tramo : caminosTramo) {
+            for (int i = 1; i < tramo.length; i++) {
+                camino.add(indexados[tramo[i]]);
+            }
+        }
+        List<Nodo> inalcanzables = new ArrayList<>();
+        for (int p : recorrido.getInalcanzables()) {
+            inalcanzables.add(indexados[puntos[p]]);
+        }
+        return new RecorridoRescate(paradas, camino, inalcanzables,
+                recorrido.getCosto(), recorrido.getCostoInicial());
+    }
+
+    /**
+     * Etiqueta cada nodo con el objetivo más cercano (p. ej. el refugio más
+     * cercano a cada zona) y su distancia, en una sola búsqueda multi-origen
+     * sobre el grafo inverso
+     */
+    public CercaniaObjetivos cercaniaA(List<String> objetivosIds) {
+        GrafoCompacto g = getVistaCompacta();
+        return CercaniaObjetivos.calcular(g, indicesDe(g, objetivosIds), version);
+    }
+
+    /**
+     * Objetivo más cercano a un nodo según una cercanía calculada (null si no alcanza ninguno)
+     */
+    public Nodo objetivoMasCercano(CercaniaObjetivos cercania, String nodoId) {
+        int nodo = indiceVigente(cercania.getVersion(), nodoId);
+        int objetivo = nodo < 0 ? -1 : cercania.objetivo(nodo);
+        return objetivo < 0 ? null : nodosIndexados[objetivo];
+    }
+
+    /**
+     * Distancia de un nodo a su objetivo más cercano (infinito si no alcanza ninguno)
+     */
+    public double distanciaAlMasCercano(CercaniaObjetivos cercania, String nodoId) {
+        int nodo = indiceVigente(cercania.getVersion(), nodoId);
+        return nodo < 0 ? Double.POSITIVE_INFINITY : cercania.distancia(nodo);
+    }
+
+    /**
+     * Camino de un nodo hasta su objetivo más cercano
+     */
+    public List<Nodo> caminoAlMasCercano(CercaniaObjetivos cercania, String nodoId) {
+        int nodo = indiceVigente(cercania.getVersion(), nodoId);
+        return nodo < 0 ? Collections.emptyList() : convertirCamino(cercania.camino(nodo));
+    }
+
+    /**
+     * Nodos alcanzables desde origen con distancia <= radio (incluido el
+     * origen), ordenados por distancia. Solo recorre esa región del grafo
+     */
+    public Map<String, Double> alcanzablesDesde(String origenId, double radio) {
+        return regionComoMapa(origenId, radio, false);
+    }
+
+    /**
+     * Nodos que llegan a destino con distancia <= radio (variante inversa),
+     * ordenados por distancia
+     */
+    public Map<String, Double> alcanzanA(String destinoId, double radio) {
+        return regionComoMapa(destinoId, radio, true);
+    }
+
+    /**
+     * Región acotada en índices de la vista compacta (null si el nodo no existe)
+     */
+    public RegionAlcanzable regionAlcanzable(String centroId, double radio, boolean inversa) {
+        GrafoCompacto g = getVistaCompacta();
+        int centro = g.indiceDe(centroId);
+        return centro < 0 ? null : RegionAlcanzable.calcular(g, centro, radio, inversa, version);
+    }
+
+    private Map<String, Double> regionComoMapa(String centroId, double radio, boolean inversa) {
+        RegionAlcanzable region = regionAlcanzable(centroId, radio, inversa);
+        if (region == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Double> resultado = new LinkedHashMap<>(region.getCantidad() * 2);
+        for (int k = 0; k < region.getCantidad(); k++) {
+            resultado.put(nodosIndexados[region.nodo(k)].getId(), region.distancia(k));
+        }
+        return resultado;
+    }
+
+    /**
+     * Centralidad de intermediación de zonas y rutas (cuántos caminos mínimos
+     * pasan por cada una). Con muestras <= 0 o >= cantidad de nodos es exacta;
+     * si no, se estima desde esa cantidad de orígenes al azar con semilla fija
+     */
+    public Centralidad centralidad(int muestras) {
+        GrafoCompacto g = getVistaCompacta();
+        if (muestras <= 0 || muestras >= g.getNumNodos()) {
+            return Centralidad.exacta(g, version);
+        }
+        return Centralidad.aproximada(g, muestras, SEMILLA_CENTRALIDAD, version);
+    }
+
+    /**
+     * Las cantidad zonas por las que pasan más caminos mínimos, de mayor a menor
+     */
+    public Map<String, Double> zonasMasTransitadas(Centralidad centralidad, int cantidad) {
+        verificarVersion(centralidad.getVersion());
+        Map<String, Double> ranking = new LinkedHashMap<>();
+        for (int v : centralidad.mayoresNodos(cantidad)) {
+            ranking.put(vistaCompacta.getId(v), centralidad.nodo(v));
+        }
+        return ranking;
+    }
+
+    /**
+     * Las cantidad rutas por las que pasan más caminos mínimos (cuellos de
+     * botella a despejar primero), de mayor a menor
+     */
+    public List<Arista> rutasMasTransitadas(Centralidad centralidad, int cantidad) {
+        verificarVersion(centralidad.getVersion());
+        GrafoCompacto g = vistaCompacta;
+        List<Arista> ranking = new ArrayList<>();
+        for (int e : centralidad.mayoresAristas(cantidad)) {
+            Arista arista = getArista(g.getId(g.origenDeArista(e)), g.getId(g.destino(e)));
+            if (arista != null) ranking.add(arista);
+        }
+        return ranking;
+    }
+
+    private int indiceVigente(long versionCalculo, String id) {
+        verificarVersion(versionCalculo);
+        return getVistaCompacta().indiceDe(id);
+    }
+
+    /**
+     * Garantiza que un resultado precalculado use los índices de la vista actual
+     */
+    private void verificarVersion(long versionCalculo) {
+        if (versionCalculo != version) {
+            throw new IllegalStateException("El resultado corresponde a otra versión del grafo");
+        }
+        getVistaCompacta();
+    }
+
+    private int[] indicesDe(GrafoCompacto g, List<String> ids) {
+        int[] indices = new int[ids.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = g.indiceDe(ids.get(i));
+            if (indices[i] < 0) {
+                throw new IllegalArgumentException("Nodo no encontrado: " + ids.get(i));
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Reconstruye el camino recorriendo los predecesores de una búsqueda
+     */
+    private List<Nodo> reconstruirCamino(BusquedaDijkstra busqueda, int origen, int destino) {
+        LinkedList<Nodo> camino = new LinkedList<>();
+        for (int actual = destino; actual >= 0; actual = busqueda.previo(actual)) {
+            camino.addFirst(nodosIndexados[actual]);
+            if (actual == origen) break;
+        }
+        return camino;
     }
 
     /**
      * Reconstruye el camino desde origen hasta destino
      */
-    private List<Nodo> reconstruirCamino(Map<String, String> previos, String origen, String destino) {
+    private List<Nodo> reconstruirCamino(int[] previos, int origen, int destino) {
         LinkedList<Nodo> camino = new LinkedList<>();
-        String actual = destino;
 
         // Si no hay camino al destino
-        if (previos.get(actual) == null && !actual.equals(origen)) {
+        if (previos[destino] < 0 && destino != origen) {
             return camino;
         }
 
         // Reconstruir desde destino hacia origen
-        while (actual != null) {
-            camino.addFirst(nodos.get(actual));
-            actual = previos.get(actual);
+        for (int actual = destino; actual >= 0; actual = previos[actual]) {
+            camino.addFirst(nodosIndexados[actual]);
+            if (actual == origen) break;
         }
 
         return camino;
     }
 
+    /**
+     * Convierte un camino de índices en la lista de nodos correspondiente
+     */
+    private List<Nodo> convertirCamino(int[] indices) {
+        List<Nodo> camino = new ArrayList<>(indices.length);
+        for (int indice : indices) {
+            camino.add(nodosIndexados[indice]);
+        }
+        return camino;
+    }
+
     /**
      * Búsqueda en anchura (BFS) para encontrar camino
      */
     public List<Nodo> bfs(String origenId, String destinoId) {
-        if (!nodos.containsKey(origenId) || !nodos.containsKey(destinoId)) {
+        GrafoCompacto g = getVistaCompacta();
+        int origen = g.indiceDe(origenId);
+        int destino = g.indiceDe(destinoId);
+        if (origen < 0 || destino < 0) {
             return Collections.emptyList();
         }
 
-        Queue<String> cola = new LinkedList<>();
-        Set<String> visitados = new HashSet<>();
-        Map<String, String> previos = new HashMap<>();
+        int n = g.getNumNodos();
+        int[] cola = new int[n];
+        int cabeza = 0, fin = 0;
+        boolean[] visitados = new boolean[n];
+        int[] previos = new int[n];
+        Arrays.fill(previos, -1);
 
-        cola.add(origenId);
-        visitados.add(origenId);
-        previos.put(origenId, null);
+        cola[fin++] = origen;
+        visitados[origen] = true;
 
-        while (!cola.isEmpty()) {
-            String actual = cola.poll();
+        while (cabeza < fin) {
+            int actual = cola[cabeza++];
 
-            if (actual.equals(destinoId)) {
-                return reconstruirCamino(previos, origenId, destinoId);
+            if (actual == destino) {
+                return reconstruirCamino(previos, origen, destino);
             }
 
-            Nodo nodoActual = nodos.get(actual);
-            for (String vecino : nodoActual.getVecinos().keySet()) {
-                if (!visitados.contains(vecino)) {
-                    cola.add(vecino);
-                    visitados.add(vecino);
-                    previos.put(vecino, actual);
+            for (int e = g.primeraArista(actual), ultima = g.finAristas(actual); e < ultima; e++) {
+                if (g.peso(e) == Double.POSITIVE_INFINITY) continue;   // vía cerrada o eliminada
+                int vecino = g.destino(e);
+                if (!visitados[vecino]) {
+                    cola[fin++] = vecino;
+                    visitados[vecino] = true;
+                    previos[vecino] = actual;
                 }
             }
         }
@@ -162,69 +1385,167 @@ public class Grafo {
     }
 
     /**
-     * Calcula todos los caminos posibles entre dos nodos
+     * Las k rutas simples más cortas entre dos nodos, en orden de costo
+     * (algoritmo de Yen). Sirve para ofrecer alternativas cuando una vía se
+     * bloquea; si se agota presupuestoMs retorna las que alcanzó a confirmar
      */
-    public List<List<Nodo>> encontrarTodosCaminos(String origen, String destino, int maxProfundidad) {
-        List<List<Nodo>> caminos = new ArrayList<>();
-        List<Nodo> caminoActual = new ArrayList<>();
-        Set<String> visitados = new HashSet<>();
-
-        encontrarCaminosRecursivo(origen, destino, visitados, caminoActual, caminos, 0, maxProfundidad);
-
-        return caminos;
+    public List<List<Nodo>> kRutasMasCortas(String origenId, String destinoId, int k, long presupuestoMs) {
+        return rutasAlternativas(origenId, destinoId, k, presupuestoMs, Integer.MAX_VALUE);
     }
 
-    private void encontrarCaminosRecursivo(String actual, String destino,
-                                           Set<String> visitados,
-                                           List<Nodo> caminoActual,
-                                           List<List<Nodo>> caminos,
-                                           int profundidad,
-                                           int maxProfundidad) {
+    /**
+     * Caminos entre dos nodos con a lo sumo maxProfundidad tramos
+     * Antes enumeraba todos los caminos simples por DFS (exponencial); ahora
+     * retorna los MAX_CAMINOS más cortos entre los que respetan la
+     * profundidad (el límite se aplica dentro de cada búsqueda de Yen)
+     */
+    public List<List<Nodo>> encontrarTodosCaminos(String origen, String destino, int maxProfundidad) {
+        if (maxProfundidad < 0) return new ArrayList<>();
+        return rutasAlternativas(origen, destino, MAX_CAMINOS, PRESUPUESTO_CAMINOS_MS, maxProfundidad);
+    }
 
-        if (profundidad > maxProfundidad) return;
+    private List<List<Nodo>> rutasAlternativas(String origenId, String destinoId, int k,
+                                               long presupuestoMs, int maxTramos) {
+        GrafoCompacto g = getVistaCompacta();
+        int origen = g.indiceDe(origenId);
+        int destino = g.indiceDe(destinoId);
+        List<List<Nodo>> rutas = new ArrayList<>();
+        if (origen < 0 || destino < 0) {
+            return rutas;
+        }
 
-        visitados.add(actual);
-        caminoActual.add(nodos.get(actual));
+        CaminosAlternativos alternativos = CaminosAlternativos.calcular(g, origen, destino, k,
+                presupuestoMs * 1_000_000L, maxTramos);
+        for (int i = 0; i < alternativos.getCantidad(); i++) {
+            rutas.add(convertirCamino(alternativos.camino(i)));
+        }
+        return rutas;
+    }
 
-        if (actual.equals(destino)) {
-            caminos.add(new ArrayList<>(caminoActual));
-        } else {
-            Nodo nodoActual = nodos.get(actual);
-            for (String vecino : nodoActual.getVecinos().keySet()) {
-                if (!visitados.contains(vecino)) {
-                    encontrarCaminosRecursivo(vecino, destino, visitados,
-                            caminoActual, caminos,
-                            profundidad + 1, maxProfundidad);
-                }
+    /**
+     * Índice de componentes fuertemente conexas de la versión actual
+     * Se reutiliza mientras el grafo no cambie y, si solo se abrieron
+     * aristas o se agregaron nodos, se actualiza sin recorrer el grafo
+     */
+    public synchronized ComponentesFuertes componentesFuertes() {
+        GrafoCompacto g = getVistaCompacta();
+        if (componentes != null && versionComponentes == version) {
+            return componentes;
+        }
+        ComponentesFuertes nuevas = null;
+        if (componentes != null && !componentesInvalidas) {
+            int[] origenes = new int[aristasSinIndexar.size()];
+            int[] destinos = new int[aristasSinIndexar.size()];
+            for (int i = 0; i < origenes.length; i++) {
+                origenes[i] = g.indiceDe(aristasSinIndexar.get(i)[0]);
+                destinos[i] = g.indiceDe(aristasSinIndexar.get(i)[1]);
             }
+            nuevas = componentes.conAristas(g, origenes, destinos);
         }
+        if (nuevas == null) {
+            nuevas = ComponentesFuertes.calcular(g);
+        }
+        componentes = nuevas;
+        versionComponentes = version;
+        componentesInvalidas = false;
+        aristasSinIndexar.clear();
+        return nuevas;
+    }
 
-        caminoActual.remove(caminoActual.size() - 1);
-        visitados.remove(actual);
+    /**
+     * Indica si hay algún camino de origen a destino, sin buscarlo
+     */
+    public boolean puedeAlcanzar(String origenId, String destinoId) {
+        ComponentesFuertes c = componentesFuertes();
+        GrafoCompacto g = getVistaCompacta();
+        int origen = g.indiceDe(origenId);
+        int destino = g.indiceDe(destinoId);
+        return origen >= 0 && destino >= 0 && c.alcanza(origen, destino);
     }
 
     /**
-     * Verifica si el grafo está conectado
+     * Indica si los dos nodos se alcanzan mutuamente
      */
-    public boolean esConectado() {
-        if (nodos.isEmpty()) return true;
+    public boolean mismaComponente(String aId, String bId) {
+        ComponentesFuertes c = componentesFuertes();
+        GrafoCompacto g = getVistaCompacta();
+        int a = g.indiceDe(aId);
+        int b = g.indiceDe(bId);
+        return a >= 0 && b >= 0 && c.mismaComponente(a, b);
+    }
 
-        String primerNodo = nodos.keySet().iterator().next();
-        Set<String> alcanzables = new HashSet<>();
-        dfsAlcanzables(primerNodo, alcanzables);
+    /**
+     * Si ya hay un índice de componentes vigente, indica si descarta el
+     * camino; no lo calcula para no cargar cada búsqueda con él
+     */
+    private synchronized boolean sinCaminoSegunComponentes(int origen, int destino) {
+        return componentes != null && versionComponentes == version && versionVista == version
+                && !componentes.alcanza(origen, destino);
+    }
 
-        return alcanzables.size() == nodos.size();
+    /**
+     * Puentes y puntos de articulación de la vista no dirigida, calculados
+     * una vez por versión del grafo
+     */
+    public synchronized PuntosCriticos puntosCriticos() {
+        GrafoCompacto g = getVistaCompacta();
+        if (puntosCriticos == null || puntosCriticos.getVersion() != version) {
+            puntosCriticos = PuntosCriticos.calcular(g, version);
+        }
+        return puntosCriticos;
     }
 
-    private void dfsAlcanzables(String nodo, Set<String> alcanzables) {
-        alcanzables.add(nodo);
-        Nodo actual = nodos.get(nodo);
+    /**
+     * Vías cuya caída desconecta parte de la red (ambos sentidos si existen)
+     */
+    public synchronized List<Arista> getPuentes() {
+        PuntosCriticos criticos = puntosCriticos();
+        List<Arista> puentes = new ArrayList<>();
+        for (int k = 0; k < criticos.getCantidadPuentes(); k++) {
+            String a = vistaCompacta.getId(criticos.puenteDesde(k));
+            String b = vistaCompacta.getId(criticos.puenteHasta(k));
+            Arista ida = getArista(a, b);
+            Arista vuelta = getArista(b, a);
+            if (ida != null && ida.getPeso() < Double.POSITIVE_INFINITY) puentes.add(ida);
+            if (vuelta != null && vuelta.getPeso() < Double.POSITIVE_INFINITY) puentes.add(vuelta);
+        }
+        return puentes;
+    }
 
-        for (String vecino : actual.getVecinos().keySet()) {
-            if (!alcanzables.contains(vecino)) {
-                dfsAlcanzables(vecino, alcanzables);
-            }
+    /**
+     * Nodos cuya caída desconecta parte de la red
+     */
+    public synchronized List<Nodo> getPuntosArticulacion() {
+        PuntosCriticos criticos = puntosCriticos();
+        List<Nodo> articulaciones = new ArrayList<>(criticos.getCantidadArticulaciones());
+        for (int v = 0; v < vistaCompacta.getNumNodos(); v++) {
+            if (criticos.esArticulacion(v)) articulaciones.add(nodosIndexados[v]);
         }
+        return articulaciones;
+    }
+
+    /**
+     * Indica si la vía entre los dos nodos (en cualquier sentido) es un puente
+     */
+    public synchronized boolean esRutaCritica(String origenId, String destinoId) {
+        PuntosCriticos criticos = puntosCriticos();
+        int u = vistaCompacta.indiceDe(origenId);
+        int v = vistaCompacta.indiceDe(destinoId);
+        return u >= 0 && v >= 0 && criticos.esPuente(u, v);
+    }
+
+    public synchronized boolean esZonaCritica(String id) {
+        PuntosCriticos criticos = puntosCriticos();
+        int v = vistaCompacta.indiceDe(id);
+        return v >= 0 && criticos.esArticulacion(v);
+    }
+
+    /**
+     * Verifica si el grafo es fuertemente conexo: desde cada nodo se llega
+     * a todos los demás (las vías cerradas no cuentan)
+     */
+    public boolean esConectado() {
+        return componentesFuertes().esFuertementeConexo();
     }
 
     /**
@@ -232,34 +1553,17 @@ public class Grafo {
      */
     public String obtenerEstadisticas() {
         int numNodos = nodos.size();
-        int numAristas = aristas.size();
+        int numAristas = aristas.size() - huecosAristas;
         double densidad = numNodos > 1 ?
                 (double) numAristas / (numNodos * (numNodos - 1)) : 0;
 
+        ComponentesFuertes c = componentesFuertes();
         return String.format(
-                "Nodos: %d | Aristas: %d | Densidad: %.2f | Conectado: %s",
-                numNodos, numAristas, densidad, esConectado() ? "Sí" : "No"
+                "Nodos: %d | Aristas: %d | Densidad: %.2f | Conectado: %s | Componentes: %d",
+                numNodos, numAristas, densidad, c.esFuertementeConexo() ? "Sí" : "No", c.getCantidad()
         );
     }
 
-    /**
-     * Clase auxiliar para Dijkstra
-     */
-    private static class NodoDistancia {
-        String nodoId;
-        double distancia;
-
-        NodoDistancia(String nodoId, double distancia) {
-            this.nodoId = nodoId;
-            this.distancia = distancia;
-        }
-
-        @Override
-        public String toString() {
-            return nodoId + ":" + String.format("%.1f", distancia);
-        }
-    }
-
     /**
      * Crea un grafo de muestra
      */
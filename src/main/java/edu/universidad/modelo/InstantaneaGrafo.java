@@ -0,0 +1,238 @@
+package edu.universidad.modelo;
+
+import edu.universidad.estructura.BusquedaAEstrella;
+import edu.universidad.estructura.BusquedaDijkstra;
+import edu.universidad.estructura.CotaGeografica;
+import edu.universidad.estructura.CotaInferior;
+import edu.universidad.estructura.GrafoCompacto;
+import edu.universidad.estructura.JerarquiaContraccion;
+import edu.universidad.estructura.MatrizDistancias;
+import edu.universidad.estructura.PuntosReferencia;
+import edu.universidad.estructura.RegionAlcanzable;
+import edu.universidad.estructura.RutasEnLote;
+import java.util.*;
+
+/**
+ * Versión congelada del grafo para consultar desde cualquier hilo sin locks
+ * Se obtiene con Grafo.instantanea(); los cambios posteriores del grafo
+ * publican otra instantánea y no alteran esta. Comparte la vista compacta
+ * con el grafo (un cambio de peso solo copia los pesos, no la estructura)
+ * Las búsquedas usan los espacios de trabajo de cada hilo
+ * Los Nodo retornados son los del grafo: sirven para identificar el nodo,
+ * no para leer sus vecinos, que pueden haber cambiado
+ */
+public final class InstantaneaGrafo {
+
+    private final long version;
+    private final GrafoCompacto vista;
+    private final Nodo[] nodos;
+    private final double factorCotaGeografica;
+    private final JerarquiaContraccion jerarquia;      // null si no estaba vigente
+    private final PuntosReferencia puntosReferencia;   // null si no estaban vigentes
+
+    InstantaneaGrafo(long version, GrafoCompacto vista, Nodo[] nodos, double factorCotaGeografica,
+                     JerarquiaContraccion jerarquia, PuntosReferencia puntosReferencia) {
+        this.version = version;
+        this.vista = vista;
+        this.nodos = nodos;
+        this.factorCotaGeografica = factorCotaGeografica;
+        this.jerarquia = jerarquia;
+        this.puntosReferencia = puntosReferencia;
+    }
+
+    /**
+     * Versión del grafo que representa
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public GrafoCompacto getVistaCompacta() {
+        return vista;
+    }
+
+    /**
+     * Retorna el nodo con ese id (null si no existía en esta versión)
+     */
+    public Nodo getNodo(String id) {
+        int indice = vista.indiceDe(id);
+        return indice < 0 ? null : nodos[indice];
+    }
+
+    public boolean tieneJerarquia() {
+        return jerarquia != null;
+    }
+
+    public boolean tienePuntosReferencia() {
+        return puntosReferencia != null;
+    }
+
+    /**
+     * Ruta más corta con Dijkstra
+     */
+    public List<Nodo> dijkstra(String origenId, String destinoId) {
+        int origen = vista.indiceDe(origenId);
+        int destino = vista.indiceDe(destinoId);
+        if (origen < 0 || destino < 0) {
+            return Collections.emptyList();
+        }
+        BusquedaDijkstra busqueda = BusquedaDijkstra.delHilo();
+        if (!busqueda.ejecutar(vista, origen, destino)) {
+            return new LinkedList<>();
+        }
+        LinkedList<Nodo> camino = new LinkedList<>();
+        for (int actual = destino; actual >= 0; actual = busqueda.previo(actual)) {
+            camino.addFirst(nodos[actual]);
+            if (actual == origen) break;
+        }
+        return camino;
+    }
+
+    /**
+     * Distancia mínima entre dos nodos (infinito si no hay camino)
+     */
+    public double distanciaMinima(String origenId, String destinoId) {
+        int origen = vista.indiceDe(origenId);
+        int destino = vista.indiceDe(destinoId);
+        if (origen < 0 || destino < 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (jerarquia != null) {
+            return jerarquia.distancia(origen, destino);
+        }
+        BusquedaDijkstra busqueda = BusquedaDijkstra.delHilo();
+        busqueda.ejecutar(vista, origen, destino);
+        return busqueda.distancia(destino);
+    }
+
+    /**
+     * A* con la cota geográfica; sin coordenadas se comporta como Dijkstra
+     */
+    public List<Nodo> aEstrella(String origenId, String destinoId) {
+        return aEstrella(origenId, destinoId, null);
+    }
+
+    /**
+     * Ruta más rápida disponible: jerarquía de contracción si estaba vigente,
+     * si no A* con puntos de referencia, y si tampoco hay, A* geográfico
+     */
+    public List<Nodo> ruta(String origenId, String destinoId) {
+        int origen = vista.indiceDe(origenId);
+        int destino = vista.indiceDe(destinoId);
+        if (origen < 0 || destino < 0) {
+            return Collections.emptyList();
+        }
+        if (jerarquia != null) {
+            return convertirCamino(jerarquia.camino(origen, destino));
+        }
+        return aEstrella(origenId, destinoId, puntosReferencia != null
+                ? puntosReferencia.cotaPara(origen, destino) : null);
+    }
+
+    private List<Nodo> aEstrella(String origenId, String destinoId, CotaInferior cota) {
+        int origen = vista.indiceDe(origenId);
+        int destino = vista.indiceDe(destinoId);
+        if (origen < 0 || destino < 0) {
+            return Collections.emptyList();
+        }
+        if (cota == null) {
+            cota = new CotaGeografica(vista, factorCotaGeografica);
+        }
+        BusquedaAEstrella busqueda = BusquedaAEstrella.delHilo();
+        if (!busqueda.ejecutar(vista, origen, destino, cota)) {
+            return new LinkedList<>();
+        }
+        LinkedList<Nodo> camino = new LinkedList<>();
+        for (int actual = destino; actual >= 0; actual = busqueda.previo(actual)) {
+            camino.addFirst(nodos[actual]);
+        }
+        return camino;
+    }
+
+    /**
+     * Matriz de distancias de cada origen a cada destino (en paralelo)
+     */
+    public MatrizDistancias matrizDistancias(List<String> origenesIds, List<String> destinosIds,
+                                             boolean conPredecesores) {
+        return MatrizDistancias.calcular(vista, indicesDe(origenesIds), indicesDe(destinosIds),
+                conPredecesores, version);
+    }
+
+    /**
+     * Camino del origen i al destino j de una matriz de esta instantánea
+     */
+    public List<Nodo> caminoEnMatriz(MatrizDistancias matriz, int i, int j) {
+        if (matriz.getVersion() != version) {
+            throw new IllegalStateException("La matriz es de otra versión del grafo");
+        }
+        return convertirCamino(matriz.camino(i, j));
+    }
+
+    /**
+     * Rutas de muchos pares a la vez, una búsqueda por origen distinto
+     */
+    public RutasEnLote rutasEnLote(List<String> origenesIds, List<String> destinosIds, boolean conCaminos) {
+        return RutasEnLote.calcular(vista, indicesDe(origenesIds), indicesDe(destinosIds), conCaminos, version);
+    }
+
+    /**
+     * Camino del par i de un lote de esta instantánea
+     */
+    public List<Nodo> caminoEnLote(RutasEnLote lote, int i) {
+        if (lote.getVersion() != version) {
+            throw new IllegalStateException("El lote es de otra versión del grafo");
+        }
+        return convertirCamino(lote.camino(i));
+    }
+
+    /**
+     * Nodos alcanzables desde origen con distancia <= radio, por distancia
+     */
+    public Map<String, Double> alcanzablesDesde(String origenId, double radio) {
+        return regionComoMapa(origenId, radio, false);
+    }
+
+    /**
+     * Nodos que llegan a destino con distancia <= radio, por distancia
+     */
+    public Map<String, Double> alcanzanA(String destinoId, double radio) {
+        return regionComoMapa(destinoId, radio, true);
+    }
+
+    private Map<String, Double> regionComoMapa(String centroId, double radio, boolean inversa) {
+        int centro = vista.indiceDe(centroId);
+        if (centro < 0) {
+            return Collections.emptyMap();
+        }
+        RegionAlcanzable region = RegionAlcanzable.calcular(vista, centro, radio, inversa, version);
+        Map<String, Double> resultado = new LinkedHashMap<>(region.getCantidad() * 2);
+        for (int k = 0; k < region.getCantidad(); k++) {
+            resultado.put(vista.getId(region.nodo(k)), region.distancia(k));
+        }
+        return resultado;
+    }
+
+    private int[] indicesDe(List<String> ids) {
+        int[] indices = new int[ids.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = vista.indiceDe(ids.get(i));
+            if (indices[i] < 0) {
+                throw new IllegalArgumentException("Nodo no encontrado: " + ids.get(i));
+            }
+        }
+        return indices;
+    }
+
+    private List<Nodo> convertirCamino(int[] indices) {
+        List<Nodo> camino = new ArrayList<>(indices.length);
+        for (int indice : indices) {
+            camino.add(nodos[indice]);
+        }
+        return camino;
+    }
+
+    @Override
+    public String toString() {
+        return "InstantaneaGrafo{version=" + version + ", " + vista + "}";
+    }
+}
@@ -6,9 +6,19 @@ import java.util.Map;
 public class Nodo {
     private String id;
     private Map<String,Double> vecinos = new LinkedHashMap<>();
+    private Map<String,Double> predecesores = new LinkedHashMap<>();
+    private Double latitud;   // opcional, en grados
+    private Double longitud;  // opcional, en grados
     public Nodo() {}
     public Nodo(String id) { this.id = id; }
     public String getId() { return id; }
     public Map<String,Double> getVecinos() { return vecinos; }
     public void addVecino(String id, double peso) { vecinos.put(id,peso); }
+    public Map<String,Double> getPredecesores() { return predecesores; }
+    public void addPredecesor(String id, double peso) { predecesores.put(id,peso); }
+    public Double getLatitud() { return latitud; }
+    public void setLatitud(Double latitud) { this.latitud = latitud; }
+    public Double getLongitud() { return longitud; }
+    public void setLongitud(Double longitud) { this.longitud = longitud; }
+    public boolean tieneCoordenadas() { return latitud != null && longitud != null; }
 }
@@ -0,0 +1,33 @@
+package edu.universidad.modelo;
+
+/**
+ * Recibe los cambios de zonas y rutas que hace GestorRecursosLocal
+ * Se notifica después de guardar; todos los métodos son opcionales
+ */
+public interface OyenteCambiosRecursos {
+
+    default void zonaAgregada(Zona zona) {}
+
+    /**
+     * Cambió el estado, la prioridad o las coordenadas de la zona
+     */
+    default void zonaActualizada(Zona zona) {}
+
+    /**
+     * La zona cambió de nombre; sus rutas ya usan el nombre nuevo
+     */
+    default void zonaRenombrada(Zona zona, String nombreAnterior) {}
+
+    default void zonaEliminada(Zona zona) {}
+
+    default void rutaAgregada(Ruta ruta) {}
+
+    default void rutaEliminada(Ruta ruta) {}
+
+    default void rutaPesoCambiado(Ruta ruta, double pesoAnterior) {}
+
+    /**
+     * Los datos se recargaron o limpiaron por completo
+     */
+    default void datosRecargados() {}
+}
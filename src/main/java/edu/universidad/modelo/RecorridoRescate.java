@@ -0,0 +1,61 @@
+package edu.universidad.modelo;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de un recorrido de varias paradas: orden de visita, camino
+ * completo por el grafo y paradas que quedaron fuera por no tener camino
+ */
+public class RecorridoRescate {
+
+    private final List<Nodo> paradas;
+    private final List<Nodo> camino;
+    private final List<Nodo> inalcanzables;
+    private final double distancia;
+    private final double distanciaInicial;
+
+    public RecorridoRescate(List<Nodo> paradas, List<Nodo> camino, List<Nodo> inalcanzables,
+                            double distancia, double distanciaInicial) {
+        this.paradas = Collections.unmodifiableList(paradas);
+        this.camino = Collections.unmodifiableList(camino);
+        this.inalcanzables = Collections.unmodifiableList(inalcanzables);
+        this.distancia = distancia;
+        this.distanciaInicial = distanciaInicial;
+    }
+
+    /**
+     * Depósito y zonas en orden de visita (termina en el depósito si hay que regresar)
+     */
+    public List<Nodo> getParadas() {
+        return paradas;
+    }
+
+    /**
+     * Camino nodo a nodo que une todas las paradas
+     */
+    public List<Nodo> getCamino() {
+        return camino;
+    }
+
+    public List<Nodo> getInalcanzables() {
+        return inalcanzables;
+    }
+
+    public double getDistancia() {
+        return distancia;
+    }
+
+    /**
+     * Distancia visitando siempre la zona más cercana, como referencia
+     */
+    public double getDistanciaInicial() {
+        return distanciaInicial;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RecorridoRescate[%d paradas, %d nodos, distancia=%.2f, %d inalcanzables]",
+                paradas.size(), camino.size(), distancia, inalcanzables.size());
+    }
+}
@@ -10,6 +10,7 @@ public class Ruta {
     private String origenZona;
     private String destinoZona;
     private double peso; // Distancia en km
+    private Double capacidad; // Personas por hora (null = sin límite conocido)
 
     // Constructor vacío (necesario para Jackson)
     public Ruta() {}
@@ -54,6 +55,14 @@ public class Ruta {
         this.peso = peso;
     }
 
+    public Double getCapacidad() {
+        return capacidad;
+    }
+
+    public void setCapacidad(Double capacidad) {
+        this.capacidad = capacidad;
+    }
+
     @Override
     public String toString() {
         return String.format("Ruta[id=%d, %s → %s, %.1f km]",
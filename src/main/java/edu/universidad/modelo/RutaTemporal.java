@@ -0,0 +1,49 @@
+package edu.universidad.modelo;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de una ruta dependiente del tiempo: camino, instante de salida
+ * e instante de llegada más temprano
+ */
+public class RutaTemporal {
+
+    private final List<Nodo> camino;
+    private final double salida;
+    private final double llegada;
+
+    public RutaTemporal(List<Nodo> camino, double salida, double llegada) {
+        this.camino = Collections.unmodifiableList(camino);
+        this.salida = salida;
+        this.llegada = llegada;
+    }
+
+    public List<Nodo> getCamino() {
+        return camino;
+    }
+
+    public double getSalida() {
+        return salida;
+    }
+
+    /**
+     * Instante de llegada (infinito si no hay camino)
+     */
+    public double getLlegada() {
+        return llegada;
+    }
+
+    public double getDuracion() {
+        return llegada - salida;
+    }
+
+    public boolean existe() {
+        return !camino.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RutaTemporal[%d nodos, salida=%.2f, llegada=%.2f]", camino.size(), salida, llegada);
+    }
+}
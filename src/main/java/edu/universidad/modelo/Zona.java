@@ -13,6 +13,8 @@ public class Zona {
     private String nombre;
     private String estado; // "normal", "afectada", "evacuando", "evacuada"
     private int prioridad; // mayor = más necesidad (0-100)
+    private Double latitud;  // opcional, en grados
+    private Double longitud; // opcional, en grados
     private List<EquipoRescate> equiposAsignados = new ArrayList<>();
 
     // Constructor vacío (necesario para Jackson)
@@ -58,6 +60,22 @@ public class Zona {
         this.prioridad = prioridad;
     }
 
+    public Double getLatitud() {
+        return latitud;
+    }
+
+    public void setLatitud(Double latitud) {
+        this.latitud = latitud;
+    }
+
+    public Double getLongitud() {
+        return longitud;
+    }
+
+    public void setLongitud(Double longitud) {
+        this.longitud = longitud;
+    }
+
     public List<EquipoRescate> getEquiposAsignados() {
         return equiposAsignados;
     }
@@ -71,6 +89,21 @@ public class Zona {
         return prioridad;
     }
 
+    /**
+     * Riesgo de atravesar la zona al calcular rutas: la prioridad (0-100)
+     * ponderada por el estado (afectada pesa todo, normal casi nada)
+     */
+    public double getRiesgo() {
+        double factor;
+        switch (estado == null ? "" : estado) {
+            case "afectada": factor = 1.0; break;
+            case "evacuando": factor = 0.75; break;
+            case "evacuada": factor = 0.5; break;
+            default: factor = 0.1;
+        }
+        return Math.max(0, prioridad) * factor;
+    }
+
     public void asignarEquipo(EquipoRescate equipo) {
         if (!equiposAsignados.contains(equipo)) {
             equiposAsignados.add(equipo);
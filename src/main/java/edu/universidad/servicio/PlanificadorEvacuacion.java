@@ -0,0 +1,277 @@
+package edu.universidad.servicio;
+
+import edu.universidad.estructura.FlujoCostoMinimo;
+import edu.universidad.estructura.GrafoCompacto;
+import edu.universidad.modelo.*;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Planificador de evacuaciones masivas sobre la red de rutas
+ * Responde cuántas personas puede mover la red desde las zonas afectadas
+ * hasta los refugios, por qué rutas y en cuánto tiempo
+ * Cada ruta abierta del grafo aporta su capacidad (personas por hora, sin
+ * límite si no tiene) y su distancia como costo; las rutas cerradas no se
+ * usan, así que basta volver a planificar después de cada cierre
+ * El tiempo de despeje es el menor horizonte en el que un flujo de costo
+ * mínimo con capacidades (capacidad x horas) lleva a todas las personas que
+ * tienen salida; no incluye el tiempo de viaje
+ */
+public class PlanificadorEvacuacion {
+
+    // Precisión relativa del tiempo de despeje
+    private static final double PRECISION_TIEMPO = 1e-4;
+    private static final double HORIZONTE_MAXIMO = 1e9;
+
+    private final Supplier<Grafo> grafo;
+    private final Supplier<List<Ruta>> rutas;
+
+    public PlanificadorEvacuacion(SincronizadorGrafo sincronizador, GestorRecursosLocal gestor) {
+        this(sincronizador::getGrafo, gestor::obtenerRutas);
+    }
+
+    public PlanificadorEvacuacion(Supplier<Grafo> grafo, Supplier<List<Ruta>> rutas) {
+        this.grafo = grafo;
+        this.rutas = rutas;
+    }
+
+    /**
+     * Resultado de una planificación
+     */
+    public static class Plan {
+        private final double personasEvacuables;
+        private final double personasSinSalida;
+        private final double tiempoDespejeHoras;
+        private final double costoTotal;
+        private final Map<String, Double> personasPorTramo;   // "origen → destino" -> personas
+        private final Map<Ruta, Double> personasPorRuta;
+
+        Plan(double personasEvacuables, double personasSinSalida, double tiempoDespejeHoras,
+             double costoTotal, Map<String, Double> personasPorTramo, Map<Ruta, Double> personasPorRuta) {
+            this.personasEvacuables = personasEvacuables;
+            this.personasSinSalida = personasSinSalida;
+            this.tiempoDespejeHoras = tiempoDespejeHoras;
+            this.costoTotal = costoTotal;
+            this.personasPorTramo = personasPorTramo;
+            this.personasPorRuta = personasPorRuta;
+        }
+
+        public double getPersonasEvacuables() { return personasEvacuables; }
+
+        /**
+         * Personas sin camino abierto a un refugio con lugar
+         */
+        public double getPersonasSinSalida() { return personasSinSalida; }
+
+        /**
+         * Horas para despejar a las personas evacuables (0 si ninguna ruta
+         * usada tiene capacidad, es decir, sin límite conocido)
+         */
+        public double getTiempoDespejeHoras() { return tiempoDespejeHoras; }
+
+        /**
+         * Suma de personas por km recorridos
+         */
+        public double getCostoTotal() { return costoTotal; }
+
+        /**
+         * Personas asignadas a cada ruta con flujo
+         */
+        public Map<Ruta, Double> getPersonasPorRuta() { return personasPorRuta; }
+
+        /**
+         * Personas que pasan por el tramo origen -> destino (0 si ninguna)
+         */
+        public double personasEnTramo(String origen, String destino) {
+            return personasPorTramo.getOrDefault(clave(origen, destino), 0.0);
+        }
+
+        /**
+         * Personas por hora que debe sostener el tramo durante el despeje
+         */
+        public double tasaEnTramo(String origen, String destino) {
+            return tiempoDespejeHoras > 0 ? personasEnTramo(origen, destino) / tiempoDespejeHoras : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Plan[evacuables=%.0f, sin salida=%.0f, despeje=%.2f h, %d tramos]",
+                    personasEvacuables, personasSinSalida, tiempoDespejeHoras, personasPorTramo.size());
+        }
+    }
+
+    /**
+     * Red de flujo de la vista actual: tramos abiertos del grafo más una
+     * fuente hacia las zonas y un sumidero desde los refugios
+     */
+    private static class Red {
+        final GrafoCompacto g;
+        final int[] origenes;
+        final int[] destinos;
+        final double[] capacidades;   // personas por hora
+        final double[] costos;
+        final Ruta[] rutasTramo;
+        final int[] zonas;
+        final double[] personas;
+        final int[] refugios;
+        final double[] lugares;
+
+        Red(GrafoCompacto g, int tramos, int[] zonas, double[] personas, int[] refugios, double[] lugares) {
+            this.g = g;
+            this.origenes = new int[tramos];
+            this.destinos = new int[tramos];
+            this.capacidades = new double[tramos];
+            this.costos = new double[tramos];
+            this.rutasTramo = new Ruta[tramos];
+            this.zonas = zonas;
+            this.personas = personas;
+            this.refugios = refugios;
+            this.lugares = lugares;
+        }
+
+        /**
+         * Flujo de costo mínimo con las capacidades de horas horas
+         * (horas infinitas: solo limitan las personas y los refugios)
+         */
+        FlujoCostoMinimo resolver(double horas, int[] ids) {
+            int n = g.getNumNodos();
+            int fuente = n, sumidero = n + 1;
+            FlujoCostoMinimo flujo = new FlujoCostoMinimo(n + 2);
+            for (int t = 0; t < origenes.length; t++) {
+                // Los identificadores no cambian entre horizontes: mismo orden de aristas
+                double capacidad = capacidades[t] == 0 || capacidades[t] == Double.POSITIVE_INFINITY
+                        ? capacidades[t] : capacidades[t] * horas;
+                ids[t] = flujo.agregarArista(origenes[t], destinos[t], capacidad, costos[t]);
+            }
+            for (int z = 0; z < zonas.length; z++) {
+                flujo.agregarArista(fuente, zonas[z], personas[z], 0);
+            }
+            for (int r = 0; r < refugios.length; r++) {
+                flujo.agregarArista(refugios[r], sumidero, lugares[r], 0);
+            }
+            flujo.resolver(fuente, sumidero);
+            return flujo;
+        }
+    }
+
+    /**
+     * Planifica la evacuación de personasPorZona hacia los refugios dados
+     * refugios: lugares disponibles en cada refugio (null = sin límite)
+     */
+    public Plan planificar(Map<String, Integer> personasPorZona, Map<String, Integer> refugios) {
+        Red red = construirRed(personasPorZona, refugios);
+        double total = 0;
+        for (double p : red.personas) total += p;
+        int[] ids = new int[red.origenes.length];
+
+        // Cuántas personas tienen salida si las rutas no tuvieran límite
+        double evacuables = red.resolver(Double.POSITIVE_INFINITY, ids).getFlujoTotal();
+        if (evacuables <= 0) {
+            return new Plan(0, total, 0, 0, Collections.emptyMap(), Collections.emptyMap());
+        }
+
+        // Menor horizonte que las lleva a todas: se duplica y luego se biseca
+        // (horizonte 0 si los caminos usados no tienen rutas con límite)
+        double tolerancia = evacuables * 1e-9;
+        double horas = 0;
+        FlujoCostoMinimo mejor = red.resolver(0, ids);
+        if (mejor.getFlujoTotal() < evacuables - tolerancia) {
+            double bajo = 0;
+            horas = 1;
+            mejor = red.resolver(horas, ids);
+            while (mejor.getFlujoTotal() < evacuables - tolerancia && horas < HORIZONTE_MAXIMO) {
+                bajo = horas;
+                horas *= 2;
+                mejor = red.resolver(horas, ids);
+            }
+            if (mejor.getFlujoTotal() < evacuables - tolerancia) {
+                throw new IllegalStateException("La red no despeja la evacuación en un horizonte razonable");
+            }
+            while (horas - bajo > horas * PRECISION_TIEMPO) {
+                double medio = (bajo + horas) / 2;
+                FlujoCostoMinimo intento = red.resolver(medio, ids);
+                if (intento.getFlujoTotal() >= evacuables - tolerancia) {
+                    horas = medio;
+                    mejor = intento;
+                } else {
+                    bajo = medio;
+                }
+            }
+        }
+
+        Map<String, Double> porTramo = new LinkedHashMap<>();
+        Map<Ruta, Double> porRuta = new LinkedHashMap<>();
+        for (int t = 0; t < ids.length; t++) {
+            double personas = mejor.flujo(ids[t]);
+            if (personas <= tolerancia) continue;
+            String origen = red.g.getId(red.origenes[t]);
+            String destino = red.g.getId(red.destinos[t]);
+            porTramo.put(clave(origen, destino), personas);
+            if (red.rutasTramo[t] != null) {
+                porRuta.put(red.rutasTramo[t], personas);
+            }
+        }
+        return new Plan(evacuables, total - evacuables, horas, mejor.getCostoTotal(), porTramo, porRuta);
+    }
+
+    private Red construirRed(Map<String, Integer> personasPorZona, Map<String, Integer> refugios) {
+        GrafoCompacto g = grafo.get().getVistaCompacta();
+
+        // Si hay varias rutas con el mismo par vale la última, igual que en el grafo
+        Map<String, Ruta> rutaPorTramo = new HashMap<>();
+        for (Ruta ruta : rutas.get()) {
+            rutaPorTramo.put(clave(ruta.getOrigenZona(), ruta.getDestinoZona()), ruta);
+        }
+
+        int tramos = 0;
+        for (int u = 0; u < g.getNumNodos(); u++) {
+            for (int e = g.primeraArista(u), fin = g.finAristas(u); e < fin; e++) {
+                if (g.peso(e) != Double.POSITIVE_INFINITY) tramos++;
+            }
+        }
+
+        int[] zonas = new int[personasPorZona.size()];
+        double[] personas = new double[zonas.length];
+        int k = 0;
+        for (Map.Entry<String, Integer> entrada : personasPorZona.entrySet()) {
+            zonas[k] = indice(g, entrada.getKey());
+            personas[k++] = Math.max(0, entrada.getValue());
+        }
+        int[] indicesRefugios = new int[refugios.size()];
+        double[] lugares = new double[indicesRefugios.length];
+        k = 0;
+        for (Map.Entry<String, Integer> entrada : refugios.entrySet()) {
+            indicesRefugios[k] = indice(g, entrada.getKey());
+            lugares[k++] = entrada.getValue() == null ? Double.POSITIVE_INFINITY : Math.max(0, entrada.getValue());
+        }
+
+        Red red = new Red(g, tramos, zonas, personas, indicesRefugios, lugares);
+        int t = 0;
+        for (int u = 0; u < g.getNumNodos(); u++) {
+            for (int e = g.primeraArista(u), fin = g.finAristas(u); e < fin; e++) {
+                if (g.peso(e) == Double.POSITIVE_INFINITY) continue;
+                int v = g.destino(e);
+                Ruta ruta = rutaPorTramo.get(clave(g.getId(u), g.getId(v)));
+                Double capacidad = ruta != null ? ruta.getCapacidad() : null;
+                red.origenes[t] = u;
+                red.destinos[t] = v;
+                red.costos[t] = g.peso(e);
+                red.capacidades[t] = capacidad == null ? Double.POSITIVE_INFINITY : Math.max(0, capacidad);
+                red.rutasTramo[t++] = ruta;
+            }
+        }
+        return red;
+    }
+
+    private static int indice(GrafoCompacto g, String id) {
+        int indice = g.indiceDe(id);
+        if (indice < 0) {
+            throw new IllegalArgumentException("Zona no encontrada en el grafo: " + id);
+        }
+        return indice;
+    }
+
+    private static String clave(String origen, String destino) {
+        return origen + " → " + destino;
+    }
+}
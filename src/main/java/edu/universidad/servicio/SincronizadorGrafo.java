@@ -0,0 +1,280 @@
+package edu.universidad.servicio;
+
+import edu.universidad.modelo.*;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Mantiene el grafo de rutas al día con las zonas y rutas del gestor
+ * Cada cambio se aplica como un delta sobre el mismo Grafo (nodo o arista),
+ * así se conservan la vista compacta y los árboles en caché en lugar de
+ * reconstruir todo. Solo datosRecargados vuelve a construir el grafo
+ * Si hay varias rutas con el mismo par de zonas vale la última, igual que
+ * al construir el grafo completo
+ */
+public class SincronizadorGrafo implements OyenteCambiosRecursos {
+
+    private final Supplier<List<Zona>> zonas;
+    private final Supplier<List<Ruta>> rutas;
+    private Grafo grafo;
+    private Consumer<Boolean> alAplicar = cambiaronNodos -> {};
+
+    public SincronizadorGrafo(GestorRecursosLocal gestor) {
+        this(gestor::obtenerZonas, gestor::obtenerRutas);
+    }
+
+    /**
+     * Parte de un grafo ya cargado (por ejemplo de la copia binaria en disco)
+     * y solo le aplica lo que difiere del gestor, sin construir otro
+     */
+    public SincronizadorGrafo(GestorRecursosLocal gestor, Grafo inicial) {
+        this(gestor::obtenerZonas, gestor::obtenerRutas, inicial);
+    }
+
+    public SincronizadorGrafo(Supplier<List<Zona>> zonas, Supplier<List<Ruta>> rutas) {
+        this(zonas, rutas, null);
+    }
+
+    public SincronizadorGrafo(Supplier<List<Zona>> zonas, Supplier<List<Ruta>> rutas, Grafo inicial) {
+        this.zonas = zonas;
+        this.rutas = rutas;
+        if (inicial != null) {
+            conciliar(inicial, zonas.get(), rutas.get());
+            this.grafo = inicial;
+        } else {
+            this.grafo = construirGrafo(zonas.get(), rutas.get());
+        }
+    }
+
+    /**
+     * Construye el grafo completo: un nodo por zona y una arista por ruta
+     */
+    public static Grafo construirGrafo(Collection<Zona> zonas, Collection<Ruta> rutas) {
+        Grafo grafo = new Grafo();
+        for (Zona zona : zonas) {
+            if (grafo.getNodo(zona.getNombre()) == null) {
+                Nodo nodo = new Nodo(zona.getNombre());
+                nodo.setLatitud(zona.getLatitud());
+                nodo.setLongitud(zona.getLongitud());
+                grafo.agregarNodo(nodo);
+            }
+        }
+        for (Ruta ruta : rutas) {
+            asegurarNodo(grafo, ruta.getOrigenZona());
+            asegurarNodo(grafo, ruta.getDestinoZona());
+            grafo.agregarArista(ruta.getOrigenZona(), ruta.getDestinoZona(), ruta.getPeso());
+        }
+        return grafo;
+    }
+
+    /**
+     * Deja el grafo igual al que construiría construirGrafo aplicando solo las
+     * diferencias como deltas (nodos y aristas que sobran, faltan o cambiaron)
+     * Cuesta O(N + E) consultas en lugar de crear de nuevo todos los objetos
+     */
+    public static void conciliar(Grafo grafo, Collection<Zona> zonas, Collection<Ruta> rutas) {
+        Map<String, Zona> porNombre = new HashMap<>();
+        for (Zona zona : zonas) {
+            porNombre.putIfAbsent(zona.getNombre(), zona);
+        }
+        // origen -> destino -> peso; si hay rutas repetidas vale la última
+        Map<String, Map<String, Double>> pesos = new HashMap<>();
+        Set<String> ids = new LinkedHashSet<>(porNombre.keySet());
+        for (Ruta ruta : rutas) {
+            pesos.computeIfAbsent(ruta.getOrigenZona(), k -> new HashMap<>())
+                    .put(ruta.getDestinoZona(), ruta.getPeso());
+            ids.add(ruta.getOrigenZona());
+            ids.add(ruta.getDestinoZona());
+        }
+
+        for (Nodo nodo : new ArrayList<>(grafo.getNodos())) {
+            if (!ids.contains(nodo.getId())) grafo.eliminarNodo(nodo.getId());
+        }
+        for (String id : ids) {
+            Zona zona = porNombre.get(id);
+            Double latitud = zona != null ? zona.getLatitud() : null;
+            Double longitud = zona != null ? zona.getLongitud() : null;
+            Nodo nodo = grafo.getNodo(id);
+            if (nodo == null) {
+                nodo = new Nodo(id);
+                nodo.setLatitud(latitud);
+                nodo.setLongitud(longitud);
+                grafo.agregarNodo(nodo);
+            } else if (!Objects.equals(nodo.getLatitud(), latitud) || !Objects.equals(nodo.getLongitud(), longitud)) {
+                grafo.asignarCoordenadas(id, latitud, longitud);
+            }
+        }
+
+        for (Nodo nodo : grafo.getNodos()) {
+            Map<String, Double> esperadas = pesos.getOrDefault(nodo.getId(), Collections.emptyMap());
+            for (Map.Entry<String, Double> vecino : new ArrayList<>(nodo.getVecinos().entrySet())) {
+                Double peso = esperadas.get(vecino.getKey());
+                if (peso == null) {
+                    grafo.eliminarArista(nodo.getId(), vecino.getKey());
+                } else if (Double.compare(peso, vecino.getValue()) != 0) {
+                    grafo.actualizarPeso(nodo.getId(), vecino.getKey(), peso);
+                }
+            }
+        }
+        for (Map.Entry<String, Map<String, Double>> salientes : pesos.entrySet()) {
+            Nodo origen = grafo.getNodo(salientes.getKey());
+            for (Map.Entry<String, Double> arista : salientes.getValue().entrySet()) {
+                if (!origen.getVecinos().containsKey(arista.getKey())) {
+                    grafo.agregarArista(salientes.getKey(), arista.getKey(), arista.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Vuelve a construir el grafo desde cero (por ejemplo al refrescar)
+     */
+    public Grafo reconstruir() {
+        grafo = construirGrafo(zonas.get(), rutas.get());
+        return grafo;
+    }
+
+    public Grafo getGrafo() {
+        return grafo;
+    }
+
+    /**
+     * Acción que se ejecuta después de aplicar cada cambio; recibe true si
+     * cambiaron los nodos o el grafo completo, false si solo cambiaron aristas
+     */
+    public void setAlAplicar(Consumer<Boolean> alAplicar) {
+        this.alAplicar = alAplicar;
+    }
+
+    // =============== ZONAS ===============
+
+    @Override
+    public void zonaAgregada(Zona zona) {
+        if (grafo.getNodo(zona.getNombre()) == null) {
+            Nodo nodo = new Nodo(zona.getNombre());
+            nodo.setLatitud(zona.getLatitud());
+            nodo.setLongitud(zona.getLongitud());
+            grafo.agregarNodo(nodo);
+        } else {
+            grafo.asignarCoordenadas(zona.getNombre(), zona.getLatitud(), zona.getLongitud());
+        }
+        alAplicar.accept(true);
+    }
+
+    @Override
+    public void zonaActualizada(Zona zona) {
+        Nodo nodo = grafo.getNodo(zona.getNombre());
+        if (nodo != null && (!Objects.equals(nodo.getLatitud(), zona.getLatitud())
+                || !Objects.equals(nodo.getLongitud(), zona.getLongitud()))) {
+            grafo.asignarCoordenadas(zona.getNombre(), zona.getLatitud(), zona.getLongitud());
+            alAplicar.accept(true);
+        }
+    }
+
+    @Override
+    public void zonaRenombrada(Zona zona, String nombreAnterior) {
+        grafo.renombrarNodo(nombreAnterior, zona.getNombre());
+        // Otra zona puede seguir usando el nombre anterior
+        Zona otra = buscarZona(nombreAnterior);
+        if (otra != null) {
+            zonaAgregada(otra);
+        }
+        alAplicar.accept(true);
+    }
+
+    @Override
+    public void zonaEliminada(Zona zona) {
+        String nombre = zona.getNombre();
+        Zona otra = buscarZona(nombre);
+        if (otra != null) {
+            grafo.asignarCoordenadas(nombre, otra.getLatitud(), otra.getLongitud());
+        } else if (tieneRutas(nombre)) {
+            // Las rutas que la usan mantienen el nodo, ya sin ubicación
+            grafo.asignarCoordenadas(nombre, null, null);
+        } else {
+            grafo.eliminarNodo(nombre);
+        }
+        alAplicar.accept(true);
+    }
+
+    // =============== RUTAS ===============
+
+    @Override
+    public void rutaAgregada(Ruta ruta) {
+        String origen = ruta.getOrigenZona(), destino = ruta.getDestinoZona();
+        boolean nodosNuevos = asegurarNodo(grafo, origen) | asegurarNodo(grafo, destino);
+        if (!grafo.actualizarPeso(origen, destino, ruta.getPeso())) {
+            grafo.agregarArista(origen, destino, ruta.getPeso());
+        }
+        alAplicar.accept(nodosNuevos);
+    }
+
+    @Override
+    public void rutaEliminada(Ruta ruta) {
+        String origen = ruta.getOrigenZona(), destino = ruta.getDestinoZona();
+        Ruta vigente = ultimaRuta(origen, destino);
+        if (vigente != null) {
+            grafo.actualizarPeso(origen, destino, vigente.getPeso());
+            alAplicar.accept(false);
+            return;
+        }
+        grafo.eliminarArista(origen, destino);
+        // Los extremos que solo existían por esta ruta desaparecen
+        boolean cambiaronNodos = quitarSiHuerfano(origen) | quitarSiHuerfano(destino);
+        alAplicar.accept(cambiaronNodos);
+    }
+
+    @Override
+    public void rutaPesoCambiado(Ruta ruta, double pesoAnterior) {
+        Ruta vigente = ultimaRuta(ruta.getOrigenZona(), ruta.getDestinoZona());
+        if (vigente != null) {
+            grafo.actualizarPeso(ruta.getOrigenZona(), ruta.getDestinoZona(), vigente.getPeso());
+            alAplicar.accept(false);
+        }
+    }
+
+    @Override
+    public void datosRecargados() {
+        reconstruir();
+        alAplicar.accept(true);
+    }
+
+    // =============== AUXILIARES ===============
+
+    private static boolean asegurarNodo(Grafo grafo, String id) {
+        if (grafo.getNodo(id) != null) return false;
+        grafo.agregarNodo(new Nodo(id));
+        return true;
+    }
+
+    private boolean quitarSiHuerfano(String id) {
+        if (buscarZona(id) != null || tieneRutas(id)) return false;
+        return grafo.eliminarNodo(id);
+    }
+
+    private Zona buscarZona(String nombre) {
+        for (Zona z : zonas.get()) {
+            if (z.getNombre().equals(nombre)) return z;
+        }
+        return null;
+    }
+
+    private boolean tieneRutas(String zona) {
+        Nodo nodo = grafo.getNodo(zona);
+        return nodo != null && (!nodo.getVecinos().isEmpty() || !nodo.getPredecesores().isEmpty());
+    }
+
+    /**
+     * Última ruta registrada para el par (la que define el peso), o null
+     */
+    private Ruta ultimaRuta(String origen, String destino) {
+        Ruta ultima = null;
+        for (Ruta r : rutas.get()) {
+            if (r.getOrigenZona().equals(origen) && r.getDestinoZona().equals(destino)) {
+                ultima = r;
+            }
+        }
+        return ultima;
+    }
+}
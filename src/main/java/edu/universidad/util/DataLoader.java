@@ -4,25 +4,31 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.universidad.modelo.Grafo;
 import edu.universidad.modelo.Nodo;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.zip.CRC32C;
 
 public class DataLoader {
+
+    /**
+     * Carga el grafo de un JSON de recursos. La primera vez guarda una copia
+     * binaria en datos/ y en los arranques siguientes abre esa copia, sin
+     * interpretar el JSON, mientras el contenido del JSON no cambie
+     */
     public static Grafo cargarGrafoDesdeResource(String resourcePath) {
         try {
-            ObjectMapper m = new ObjectMapper();
             InputStream is = DataLoader.class.getResourceAsStream(resourcePath);
             if (is==null) return Grafo.createSample();
-            JsonNode root = m.readTree(is);
-            Grafo g = new Grafo();
-            if (root.has("nodos")) {
-                for (JsonNode n : root.get("nodos")) {
-                    g.agregarNodo(new Nodo(n.get("id").asText()));
-                }
+            byte[] json;
+            try (is) {
+                json = is.readAllBytes();
             }
-            if (root.has("aristas")) {
-                for (JsonNode a : root.get("aristas")) {
-                    g.agregarArista(a.get("origenId").asText(), a.get("destinoId").asText(), a.get("peso").asDouble());
-                }
+            long huella = huellaContenido(json);
+            String archivoBinario = archivoBinario(resourcePath);
+            Grafo g = PersistenciaBinaria.cargarGrafo(archivoBinario, huella);
+            if (g == null) {
+                g = cargarGrafoDesdeJson(json);
+                PersistenciaBinaria.guardarGrafo(archivoBinario, g, huella);
             }
             return g;
         } catch (Exception ex) {
@@ -30,4 +36,44 @@ public class DataLoader {
             return Grafo.createSample();
         }
     }
+
+    private static Grafo cargarGrafoDesdeJson(byte[] json) throws IOException {
+        ObjectMapper m = new ObjectMapper();
+        JsonNode root = m.readTree(json);
+        Grafo g = new Grafo();
+        if (root.has("nodos")) {
+            for (JsonNode n : root.get("nodos")) {
+                Nodo nodo = new Nodo(n.get("id").asText());
+                // Coordenadas opcionales
+                if (n.hasNonNull("latitud") && n.hasNonNull("longitud")) {
+                    nodo.setLatitud(n.get("latitud").asDouble());
+                    nodo.setLongitud(n.get("longitud").asDouble());
+                }
+                g.agregarNodo(nodo);
+            }
+        }
+        if (root.has("aristas")) {
+            for (JsonNode a : root.get("aristas")) {
+                g.agregarArista(a.get("origenId").asText(), a.get("destinoId").asText(), a.get("peso").asDouble());
+            }
+        }
+        return g;
+    }
+
+    /**
+     * Huella del contenido: tamaño en los 32 bits altos y CRC32C en los bajos
+     */
+    private static long huellaContenido(byte[] contenido) {
+        CRC32C crc = new CRC32C();
+        crc.update(contenido);
+        return ((long) contenido.length << 32) | crc.getValue();
+    }
+
+    /**
+     * Nombre del binario en datos/ para un recurso, p. ej. /data/data.json -> data_data.json.grafo
+     */
+    private static String archivoBinario(String resourcePath) {
+        String nombre = resourcePath.replaceAll("^/+", "").replaceAll("[^A-Za-z0-9.]+", "_");
+        return nombre + ".grafo";
+    }
 }
@@ -0,0 +1,261 @@
+package edu.universidad.util;
+
+import edu.universidad.estructura.GrafoCompacto;
+import edu.universidad.estructura.JerarquiaContraccion;
+import edu.universidad.modelo.Grafo;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Persistencia binaria de estructuras derivadas del grafo
+ * Se guardan en la misma carpeta "datos/" que los archivos JSON
+ */
+public class PersistenciaBinaria {
+
+    private static final String CARPETA_DATOS = "datos";
+
+    private static final int FIRMA_GRAFO = 0x47524631; // "GRF1"
+    private static final int FORMATO_GRAFO = 1;
+    private static final int BYTES_CABECERA_GRAFO = 32;
+
+    /**
+     * Crea la carpeta datos si no existe
+     */
+    private static void crearCarpetaDatos() throws IOException {
+        Path path = Paths.get(CARPETA_DATOS);
+        if (!Files.exists(path)) {
+            Files.createDirectories(path);
+        }
+    }
+
+    /**
+     * Guarda una jerarquía de contracción
+     */
+    public static boolean guardarJerarquia(String archivo, JerarquiaContraccion jerarquia) {
+        try {
+            crearCarpetaDatos();
+            File file = new File(CARPETA_DATOS, archivo);
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(file)))) {
+                jerarquia.escribir(out);
+            }
+            System.out.println("✅ Guardado: " + archivo + " (" + jerarquia + ")");
+            return true;
+        } catch (IOException e) {
+            System.err.println("❌ Error al guardar " + archivo + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Carga una jerarquía de contracción (null si no existe o es inválida)
+     */
+    public static JerarquiaContraccion cargarJerarquia(String archivo) {
+        File file = new File(CARPETA_DATOS, archivo);
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            JerarquiaContraccion jerarquia = JerarquiaContraccion.leer(in);
+            System.out.println("✅ Cargado: " + archivo + " (" + jerarquia + ")");
+            return jerarquia;
+        } catch (IOException e) {
+            System.err.println("❌ Error al cargar " + archivo + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // =============== GRAFO ===============
+
+    /**
+     * Guarda el grafo en formato binario para abrirlo con cargarGrafo sin
+     * volver a interpretar el JSON. huellaFuente identifica el contenido del
+     * que salió el grafo y se compara al cargar
+     * Formato (big-endian, secciones numéricas alineadas a 8 bytes):
+     *   cabecera: firma, formato, huellaFuente, nodos, aristas, bytes de la
+     *             tabla de cadenas e indicador de coordenadas (32 bytes)
+     *   tabla de cadenas: desplazamientos int[n + 1] e ids en UTF-8
+     *   CSR: inicio int[n + 1], destinos int[m], pesos double[m]
+     *   coordenadas (opcional): latitudes double[n], longitudes double[n]
+     * Se escribe en un temporal y se reemplaza al final, así un corte a
+     * mitad de escritura no deja un archivo a medias
+     */
+    public static boolean guardarGrafo(String archivo, Grafo grafo, long huellaFuente) {
+        try {
+            crearCarpetaDatos();
+            GrafoCompacto g = grafo.getVistaSinLapidas();
+            int n = g.getNumNodos();
+            int m = g.getNumAristas();
+            boolean coordenadas = false;
+            byte[][] ids = new byte[n][];
+            int bytesCadenas = 0;
+            for (int v = 0; v < n; v++) {
+                ids[v] = g.getId(v).getBytes(StandardCharsets.UTF_8);
+                bytesCadenas += ids[v].length;
+                coordenadas |= g.tieneCoordenadas(v);
+            }
+
+            Path destino = Paths.get(CARPETA_DATOS, archivo);
+            Path temporal = Paths.get(CARPETA_DATOS, archivo + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporal)))) {
+                out.writeInt(FIRMA_GRAFO);
+                out.writeInt(FORMATO_GRAFO);
+                out.writeLong(huellaFuente);
+                out.writeInt(n);
+                out.writeInt(m);
+                out.writeInt(bytesCadenas);
+                out.writeInt(coordenadas ? 1 : 0);
+
+                int desplazamiento = 0;
+                out.writeInt(0);
+                for (byte[] id : ids) {
+                    desplazamiento += id.length;
+                    out.writeInt(desplazamiento);
+                }
+                for (byte[] id : ids) out.write(id);
+                rellenar(out);
+
+                for (int v = 0; v < n; v++) out.writeInt(g.primeraArista(v));
+                out.writeInt(m);
+                for (int e = 0; e < m; e++) out.writeInt(g.destino(e));
+                rellenar(out);
+                for (int e = 0; e < m; e++) out.writeDouble(g.peso(e));
+                if (coordenadas) {
+                    for (int v = 0; v < n; v++) out.writeDouble(g.latitud(v));
+                    for (int v = 0; v < n; v++) out.writeDouble(g.longitud(v));
+                }
+            }
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("✅ Guardado: " + archivo + " (" + g + ")");
+            return true;
+        } catch (IOException e) {
+            System.err.println("❌ Error al guardar " + archivo + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void rellenar(DataOutputStream out) throws IOException {
+        while (out.size() % 8 != 0) out.writeByte(0);
+    }
+
+    /**
+     * Abre un grafo guardado con guardarGrafo proyectando el archivo en
+     * memoria: los arreglos se copian en bloque, sin interpretar texto
+     * Se copian al heap en vez de usarse en el lugar porque GrafoCompacto
+     * arma sus propios arreglos (el índice inverso y el mapa de ids no están
+     * en el archivo) y el Grafo necesita sus Nodo y Arista: sigue siendo O(E),
+     * lo que se ahorra es interpretar el JSON
+     * Retorna null si no existe, es inválido o su huellaFuente no coincide
+     * (la fuente cambió y hay que regenerarlo)
+     */
+    public static Grafo cargarGrafo(String archivo, long huellaFuente) {
+        Path path = Paths.get(CARPETA_DATOS, archivo);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel canal = FileChannel.open(path, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            if (tamanio < BYTES_CABECERA_GRAFO) {
+                throw new IOException("archivo truncado");
+            }
+            MappedByteBuffer datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanio);
+            if (datos.getInt() != FIRMA_GRAFO || datos.getInt() != FORMATO_GRAFO) {
+                throw new IOException("no es un grafo binario de este formato");
+            }
+            if (datos.getLong() != huellaFuente) {
+                System.out.println("⚠️ " + archivo + " está desactualizado, se regenera");
+                return null;
+            }
+            int n = datos.getInt();
+            int m = datos.getInt();
+            int bytesCadenas = datos.getInt();
+            boolean coordenadas = datos.getInt() != 0;
+            if (n < 0 || m < 0 || bytesCadenas < 0 || tamanio != tamanioGrafo(n, m, bytesCadenas, coordenadas)) {
+                throw new IOException("tamaño inconsistente con la cabecera");
+            }
+
+            int[] desplazamientos = leerEnteros(datos, n + 1);
+            byte[] cadenas = new byte[bytesCadenas];
+            datos.get(cadenas);
+            alinear(datos);
+            String[] ids = new String[n];
+            for (int v = 0; v < n; v++) {
+                int desde = desplazamientos[v], hasta = desplazamientos[v + 1];
+                if (desde < 0 || hasta < desde || hasta > bytesCadenas) {
+                    throw new IOException("tabla de cadenas inválida");
+                }
+                ids[v] = new String(cadenas, desde, hasta - desde, StandardCharsets.UTF_8);
+            }
+
+            int[] inicio = leerEnteros(datos, n + 1);
+            int[] destinos = leerEnteros(datos, m);
+            alinear(datos);
+            double[] pesos = leerDoubles(datos, m);
+            double[] latitudes = coordenadas ? leerDoubles(datos, n) : null;
+            double[] longitudes = coordenadas ? leerDoubles(datos, n) : null;
+
+            // Origen de cada arista a partir de los rangos CSR
+            if (inicio[0] != 0 || inicio[n] != m) {
+                throw new IOException("rangos de aristas inválidos");
+            }
+            int[] origenes = new int[m];
+            for (int u = 0; u < n; u++) {
+                if (inicio[u + 1] < inicio[u]) {
+                    throw new IOException("rangos de aristas inválidos");
+                }
+                for (int e = inicio[u]; e < inicio[u + 1]; e++) origenes[e] = u;
+            }
+            for (int e = 0; e < m; e++) {
+                if (destinos[e] < 0 || destinos[e] >= n) {
+                    throw new IOException("destino de arista fuera de rango");
+                }
+            }
+
+            GrafoCompacto g = new GrafoCompacto(ids, origenes, destinos, pesos, m, latitudes, longitudes);
+            Grafo grafo = Grafo.desdeVistaCompacta(g);
+            System.out.println("✅ Cargado: " + archivo + " (" + g + ")");
+            return grafo;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("❌ Error al cargar " + archivo + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static long tamanioGrafo(int n, int m, int bytesCadenas, boolean coordenadas) {
+        long tamanio = BYTES_CABECERA_GRAFO + 4L * (n + 1L) + bytesCadenas;
+        tamanio = (tamanio + 7) & ~7L;
+        tamanio += 4L * (n + 1L) + 4L * m;
+        tamanio = (tamanio + 7) & ~7L;
+        tamanio += 8L * m;
+        if (coordenadas) tamanio += 16L * n;
+        return tamanio;
+    }
+
+    private static int[] leerEnteros(ByteBuffer datos, int cantidad) {
+        int[] valores = new int[cantidad];
+        datos.asIntBuffer().get(valores);
+        datos.position(datos.position() + 4 * cantidad);
+        return valores;
+    }
+
+    private static double[] leerDoubles(ByteBuffer datos, int cantidad) {
+        double[] valores = new double[cantidad];
+        datos.asDoubleBuffer().get(valores);
+        datos.position(datos.position() + 8 * cantidad);
+        return valores;
+    }
+
+    private static void alinear(ByteBuffer datos) {
+        datos.position((datos.position() + 7) & ~7);
+    }
+}
@@ -5,8 +5,10 @@ import edu.universidad.modelo.Nodo;
 import javax.swing.*;
 import java.awt.*;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Panel de mapa DINÁMICO que se actualiza con el grafo
@@ -15,12 +17,14 @@ import java.util.Map;
  * - Visualización de rutas resaltadas
  * - Pesos de aristas visibles
  * - Flechas direccionales
+ * - Vías y zonas críticas (puentes y puntos de articulación) en naranja
  */
 public class MapPanel extends JPanel {
 
     private Grafo grafo;
     private List<Nodo> highlightedPath;
     private Map<String, Point> coords = new HashMap<>();
+    private boolean mostrarCriticos = true;
 
     // Constantes de diseño
     private static final int ANCHO_PANEL = 950;
@@ -36,6 +40,7 @@ public class MapPanel extends JPanel {
     private static final Color COLOR_NODO_RESALTADO = new Color(239, 68, 68);
     private static final Color COLOR_TEXTO_PESO = new Color(107, 114, 128);
     private static final Color COLOR_ETIQUETA = new Color(55, 65, 81);
+    private static final Color COLOR_CRITICO = new Color(245, 158, 11);
 
     public MapPanel(Grafo grafo) {
         this.grafo = grafo;
@@ -56,6 +61,17 @@ public class MapPanel extends JPanel {
         System.out.println("Mapa actualizado: " + grafo.getNodos().size() + " nodos");
     }
 
+    /**
+     * Vuelve a dibujar el mismo grafo tras un cambio parcial
+     * Las posiciones solo se recalculan si cambiaron los nodos
+     */
+    public void refrescar(boolean cambiaronNodos) {
+        if (cambiaronNodos) {
+            recalcularPosiciones();
+        }
+        repaint();
+    }
+
     /**
      * Recalcula posiciones de nodos automáticamente
      * Usa distribución circular para mejor visualización
@@ -99,6 +115,14 @@ public class MapPanel extends JPanel {
         repaint();
     }
 
+    /**
+     * Activa o desactiva el resaltado de vías y zonas críticas
+     */
+    public void setMostrarCriticos(boolean mostrar) {
+        this.mostrarCriticos = mostrar;
+        repaint();
+    }
+
     /**
      * Limpia el camino resaltado
      */
@@ -159,8 +183,16 @@ public class MapPanel extends JPanel {
             Point p2 = coords.get(arista.getDestinoId());
 
             if (p1 != null && p2 != null) {
-                // Dibujar línea
-                g.drawLine(p1.x, p1.y, p2.x, p2.y);
+                // Dibujar línea (más gruesa y en naranja si es un puente)
+                if (mostrarCriticos && grafo.esRutaCritica(arista.getOrigenId(), arista.getDestinoId())) {
+                    g.setStroke(new BasicStroke(4f));
+                    g.setColor(COLOR_CRITICO);
+                    g.drawLine(p1.x, p1.y, p2.x, p2.y);
+                    g.setStroke(new BasicStroke(2.5f));
+                    g.setColor(COLOR_ARISTA);
+                } else {
+                    g.drawLine(p1.x, p1.y, p2.x, p2.y);
+                }
 
                 // Dibujar peso de la arista
                 dibujarPesoArista(g, p1, p2, arista.getPeso());
@@ -241,6 +273,7 @@ public class MapPanel extends JPanel {
      * Dibuja todos los nodos
      */
     private void dibujarNodos(Graphics2D g) {
+        Set<Nodo> criticos = mostrarCriticos ? new HashSet<>(grafo.getPuntosArticulacion()) : Set.of();
         for (Nodo nodo : grafo.getNodos()) {
             Point p = coords.get(nodo.getId());
             if (p == null) continue;
@@ -261,9 +294,9 @@ public class MapPanel extends JPanel {
             g.fillOval(p.x - RADIO_NODO, p.y - RADIO_NODO,
                     RADIO_NODO * 2, RADIO_NODO * 2);
 
-            // 3. Borde del nodo
+            // 3. Borde del nodo (naranja si su caída desconecta la red)
             g.setStroke(new BasicStroke(3f));
-            g.setColor(Color.WHITE);
+            g.setColor(criticos.contains(nodo) ? COLOR_CRITICO : Color.WHITE);
             g.drawOval(p.x - RADIO_NODO, p.y - RADIO_NODO,
                     RADIO_NODO * 2, RADIO_NODO * 2);
 
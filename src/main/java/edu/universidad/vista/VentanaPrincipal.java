@@ -1,8 +1,13 @@
 package edu.universidad.vista;
 
 import edu.universidad.estructura.ArbolDistribucion;
+import edu.universidad.estructura.FrentePareto;
+import edu.universidad.estructura.GrafoCompacto;
+import edu.universidad.estructura.JerarquiaContraccion;
 import edu.universidad.modelo.*;
 import edu.universidad.servicio.GestorEvacuaciones;
+import edu.universidad.servicio.SincronizadorGrafo;
+import edu.universidad.util.PersistenciaBinaria;
 import javax.swing.*;
 import javax.swing.border.*;
 import javax.swing.table.DefaultTableCellRenderer;
@@ -33,6 +38,8 @@ public class VentanaPrincipal extends JFrame {
     private static final Color COLOR_DANGER = new Color(239, 68, 68);
     private static final Color COLOR_INFO = new Color(59, 130, 246);
 
+    private static final String ARCHIVO_JERARQUIA = "jerarquia.ch";
+
     // ============================================
     // ATRIBUTOS
     // ============================================
@@ -43,6 +50,12 @@ public class VentanaPrincipal extends JFrame {
     private Usuario usuarioActual;
     private GestorRecursosLocal gestor;
     private GestorEvacuaciones gestorEvacuaciones;
+    private SincronizadorGrafo sincronizador;
+
+    // Una sola construcción de la jerarquía a la vez; los cambios que llegan
+    // mientras tanto se juntan en una sola reconstrucción posterior
+    private SwingWorker<JerarquiaContraccion, Void> trabajoJerarquia;
+    private boolean jerarquiaPendiente;
 
     // Modelos de tablas
     private DefaultTableModel modeloRecursos;
@@ -60,41 +73,99 @@ public class VentanaPrincipal extends JFrame {
         this.gestor = GestorRecursosLocal.getInstance();
         this.gestorEvacuaciones = new GestorEvacuaciones();
 
-        sincronizarGrafoConRutas();
+        // El grafo cargado al iniciar sesión se concilia con el gestor en
+        // lugar de descartarlo y construir otro
+        this.sincronizador = new SincronizadorGrafo(gestor, grafo);
+        sincronizador.setAlAplicar(this::aplicarCambioGrafo);
+        gestor.agregarOyente(sincronizador);
+        this.grafo = sincronizador.getGrafo();
+        prepararJerarquiaEnSegundoPlano();
         initUI();
     }
 
     // ============================================
     // SINCRONIZACIÓN DEL GRAFO
     // ============================================
+    /**
+     * Reconstrucción completa del grafo; los formularios no la necesitan
+     * porque el sincronizador aplica cada cambio del gestor como un delta
+     */
     private void sincronizarGrafoConRutas() {
         System.out.println("Sincronizando grafo con rutas...");
 
-        grafo = new Grafo();
+        grafo = sincronizador.reconstruir();
 
-        for (Zona zona : gestor.obtenerZonas()) {
-            if (grafo.getNodo(zona.getNombre()) == null) {
-                grafo.agregarNodo(new Nodo(zona.getNombre()));
-            }
+        if (mapPanel != null) {
+            mapPanel.actualizarGrafo(grafo);
         }
 
-        for (Ruta ruta : gestor.obtenerRutas()) {
-            if (grafo.getNodo(ruta.getOrigenZona()) == null) {
-                grafo.agregarNodo(new Nodo(ruta.getOrigenZona()));
-            }
-            if (grafo.getNodo(ruta.getDestinoZona()) == null) {
-                grafo.agregarNodo(new Nodo(ruta.getDestinoZona()));
-            }
+        prepararJerarquiaEnSegundoPlano();
 
-            grafo.agregarArista(ruta.getOrigenZona(), ruta.getDestinoZona(), ruta.getPeso());
+        System.out.println("Grafo sincronizado: " + grafo.getNodos().size() + " nodos, " +
+                grafo.getAristas().size() + " aristas");
+    }
+
+    @Override
+    public void dispose() {
+        // El gestor es único: al cerrar sesión esta ventana deja de escucharlo
+        gestor.quitarOyente(sincronizador);
+        super.dispose();
+    }
+
+    /**
+     * El sincronizador ya cambió el grafo: se refresca el mapa y la jerarquía
+     */
+    private void aplicarCambioGrafo(boolean cambiaronNodos) {
+        if (grafo != sincronizador.getGrafo()) {
+            // Se recargaron los datos: el grafo es otro objeto
+            grafo = sincronizador.getGrafo();
+            if (mapPanel != null) {
+                mapPanel.actualizarGrafo(grafo);
+            }
+        } else if (mapPanel != null) {
+            mapPanel.refrescar(cambiaronNodos);
         }
+        prepararJerarquiaEnSegundoPlano();
+    }
 
-        if (mapPanel != null) {
-            mapPanel.actualizarGrafo(grafo);
+    /**
+     * Carga de disco (o construye y guarda) la jerarquía de contracción del
+     * grafo sin bloquear la interfaz. Mientras tanto las rutas usan Dijkstra
+     */
+    private void prepararJerarquiaEnSegundoPlano() {
+        if (trabajoJerarquia != null) {
+            jerarquiaPendiente = true;
+            return;
         }
+        Grafo objetivo = grafo;
+        GrafoCompacto vista = objetivo.getVistaCompacta();
 
-        System.out.println("Grafo sincronizado: " + grafo.getNodos().size() + " nodos, " +
-                grafo.getAristas().size() + " aristas");
+        trabajoJerarquia = new SwingWorker<JerarquiaContraccion, Void>() {
+            @Override
+            protected JerarquiaContraccion doInBackground() {
+                JerarquiaContraccion jerarquia = PersistenciaBinaria.cargarJerarquia(ARCHIVO_JERARQUIA);
+                if (jerarquia == null || jerarquia.getHuella() != vista.huella()) {
+                    jerarquia = JerarquiaContraccion.construir(vista);
+                    PersistenciaBinaria.guardarJerarquia(ARCHIVO_JERARQUIA, jerarquia);
+                }
+                return jerarquia;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    objetivo.instalarJerarquia(get());
+                } catch (Exception ex) {
+                    System.err.println("No se pudo preparar la jerarquía de rutas: " + ex.getMessage());
+                }
+                trabajoJerarquia = null;
+                if (jerarquiaPendiente) {
+                    jerarquiaPendiente = false;
+                    prepararJerarquiaEnSegundoPlano();
+                }
+            }
+        };
+        trabajoJerarquia.execute();
     }
 
     // ============================================
@@ -1267,7 +1338,6 @@ public class VentanaPrincipal extends JFrame {
 
             gestor.agregarZona(nombre, estado, prioridad);
             cargarTablaZonas();
-            sincronizarGrafoConRutas();
             JOptionPane.showMessageDialog(dialog, "Zona agregada exitosamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
             dialog.dispose();
         });
@@ -1336,7 +1406,6 @@ public class VentanaPrincipal extends JFrame {
 
             gestor.actualizarZona(id, nuevoNombre, nuevoEstado, nuevaPrioridad);
             cargarTablaZonas();
-            sincronizarGrafoConRutas();
             JOptionPane.showMessageDialog(dialog, "Zona actualizada", "Éxito", JOptionPane.INFORMATION_MESSAGE);
             dialog.dispose();
         });
@@ -1575,7 +1644,6 @@ public class VentanaPrincipal extends JFrame {
         try {
             gestor.eliminarRuta(Long.valueOf(rutaId));
             cargarTablaRutas();
-            sincronizarGrafoConRutas();
             JOptionPane.showMessageDialog(this,
                     "Ruta eliminada exitosamente\nEl mapa se ha actualizado",
                     "Éxito",
@@ -1648,7 +1716,6 @@ public class VentanaPrincipal extends JFrame {
 
                 gestor.agregarRuta(origen, destino, peso);
                 cargarTablaRutas();
-                sincronizarGrafoConRutas();
                 JOptionPane.showMessageDialog(dialog, "Ruta creada exitosamente\nEl mapa se ha actualizado", "Éxito", JOptionPane.INFORMATION_MESSAGE);
                 dialog.dispose();
             } catch (NumberFormatException ex) {
@@ -1953,6 +2020,101 @@ public class VentanaPrincipal extends JFrame {
         return card;
     }
 
+    /**
+     * Calcula las rutas Pareto por distancia y riesgo (según prioridad y
+     * estado de las zonas) y deja elegir una cuando hay más de una
+     * Retorna la ruta elegida, una lista vacía si no hay ruta o null si se cancela
+     */
+    private List<Nodo> elegirRutaSegura(String origen, String destino) {
+        Map<String, Double> riesgos = new HashMap<>();
+        for (Zona z : gestor.obtenerZonas()) {
+            riesgos.put(z.getNombre(), z.getRiesgo());
+        }
+        FrentePareto frente = grafo.rutasPareto(origen, destino, riesgos);
+        if (frente.getCantidad() <= 1) {
+            return frente.getCantidad() == 0 ? new java.util.ArrayList<>() : grafo.caminoPareto(frente, 0);
+        }
+
+        String[] opciones = new String[frente.getCantidad()];
+        for (int i = 0; i < opciones.length; i++) {
+            String etiqueta = i == 0 ? " (más corta)" : i == opciones.length - 1 ? " (más segura)" : "";
+            opciones[i] = String.format("%d) %.1f km • riesgo %.0f%s",
+                    i + 1, frente.distancia(i), frente.riesgo(i), etiqueta);
+        }
+        String mensaje = frente.isCompleto()
+                ? "Rutas posibles (ninguna es más corta y más segura que otra):"
+                : "Rutas posibles (búsqueda recortada; pueden existir rutas más seguras):";
+        String elegida = (String) JOptionPane.showInputDialog(this, mensaje, "Distancia vs. Riesgo",
+                JOptionPane.QUESTION_MESSAGE, null, opciones, opciones[opciones.length - 1]);
+        if (elegida == null) return null;
+        int indice = Integer.parseInt(elegida.substring(0, elegida.indexOf(')'))) - 1;
+        return grafo.caminoPareto(frente, indice);
+    }
+
+    /**
+     * Pide el equipo y las zonas a visitar desde el depósito, calcula el
+     * orden de visita y resalta el recorrido completo en el mapa
+     */
+    private void planificarRecorridoEquipo(String deposito) {
+        JComboBox<String> cboEquipo = new JComboBox<>();
+        for (EquipoRescate equipo : gestor.obtenerEquipos()) {
+            if (equipo.isDisponible()) cboEquipo.addItem(equipo.getNombre());
+        }
+        DefaultListModel<String> modeloZonas = new DefaultListModel<>();
+        for (Nodo n : grafo.getNodos()) {
+            if (!n.getId().equals(deposito)) modeloZonas.addElement(n.getId());
+        }
+        JList<String> lstZonas = new JList<>(modeloZonas);
+        lstZonas.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        lstZonas.setVisibleRowCount(10);
+        JCheckBox chkRegresar = new JCheckBox("Regresar al origen", true);
+
+        JPanel formulario = new JPanel(new BorderLayout(0, 8));
+        JPanel superior = new JPanel(new GridLayout(0, 1, 0, 4));
+        superior.add(new JLabel("Equipo:"));
+        superior.add(cboEquipo);
+        superior.add(new JLabel("Zonas a visitar desde " + deposito + " (Ctrl para varias):"));
+        formulario.add(superior, BorderLayout.NORTH);
+        formulario.add(new JScrollPane(lstZonas), BorderLayout.CENTER);
+        formulario.add(chkRegresar, BorderLayout.SOUTH);
+
+        int opcion = JOptionPane.showConfirmDialog(this, formulario, "Recorrido de Rescate",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (opcion != JOptionPane.OK_OPTION) return;
+        List<String> zonas = lstZonas.getSelectedValuesList();
+        if (zonas.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Seleccione al menos una zona", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        RecorridoRescate recorrido = grafo.planificarRecorrido(deposito, zonas, chkRegresar.isSelected());
+        if (mapPanel != null) {
+            mapPanel.setHighlightedPath(recorrido.getCamino());
+            mapPanel.repaint();
+        }
+
+        StringBuilder mensaje = new StringBuilder();
+        if (cboEquipo.getSelectedItem() != null) {
+            mensaje.append("Equipo: ").append(cboEquipo.getSelectedItem()).append("\n");
+        }
+        mensaje.append("Orden de visita:\n");
+        List<Nodo> paradas = recorrido.getParadas();
+        for (int i = 0; i < paradas.size(); i++) {
+            mensaje.append(paradas.get(i).getId());
+            if (i < paradas.size() - 1) mensaje.append(" → ");
+        }
+        mensaje.append(String.format("\n\nDistancia total: %.1f km (visitando la más cercana: %.1f km)",
+                recorrido.getDistancia(), recorrido.getDistanciaInicial()));
+        if (!recorrido.getInalcanzables().isEmpty()) {
+            mensaje.append("\n\nSin ruta disponible:");
+            for (Nodo n : recorrido.getInalcanzables()) {
+                mensaje.append(" ").append(n.getId());
+            }
+        }
+        JOptionPane.showMessageDialog(this, mensaje.toString(), "Recorrido de Rescate",
+                recorrido.getInalcanzables().isEmpty() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+    }
+
     private String formatearEstado(String estado) {
         switch (estado) {
             case "completada": return "Completada";
@@ -2339,9 +2501,16 @@ public class VentanaPrincipal extends JFrame {
         JButton btnCalcular = new JButton("🔍 Calcular Ruta Óptima");
         stylePrimaryButton(btnCalcular);
 
+        JButton btnRecorrido = new JButton("🚑 Recorrido de Rescate");
+        styleSecondaryButton(btnRecorrido);
+
         JButton btnLimpiar = new JButton("🧹 Limpiar");
         styleSecondaryButton(btnLimpiar);
 
+        JCheckBox chkRiesgo = new JCheckBox("⚠️ Evitar zonas de riesgo");
+        chkRiesgo.setOpaque(false);
+        chkRiesgo.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+
         btnCalcular.addActionListener(e -> {
             String origen = (String) cboOrigen.getSelectedItem();
             String destino = (String) cboDestino.getSelectedItem();
@@ -2351,7 +2520,10 @@ public class VentanaPrincipal extends JFrame {
                 return;
             }
 
-            List<Nodo> ruta = grafo.dijkstra(origen, destino);
+            List<Nodo> ruta = chkRiesgo.isSelected()
+                    ? elegirRutaSegura(origen, destino)
+                    : grafo.rutaJerarquica(origen, destino);
+            if (ruta == null) return;   // el usuario canceló la elección
 
             if (mapPanel != null) {
                 mapPanel.setHighlightedPath(ruta);
@@ -2370,6 +2542,15 @@ public class VentanaPrincipal extends JFrame {
             }
         });
 
+        btnRecorrido.addActionListener(e -> {
+            String deposito = (String) cboOrigen.getSelectedItem();
+            if (deposito == null) {
+                JOptionPane.showMessageDialog(this, "Seleccione el origen del equipo", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            planificarRecorridoEquipo(deposito);
+        });
+
         btnLimpiar.addActionListener(e -> {
             if (mapPanel != null) {
                 mapPanel.limpiarRutaResaltada();
@@ -2380,7 +2561,9 @@ public class VentanaPrincipal extends JFrame {
         controls.add(cboOrigen);
         controls.add(lblDestino);
         controls.add(cboDestino);
+        controls.add(chkRiesgo);
         controls.add(btnCalcular);
+        controls.add(btnRecorrido);
         controls.add(btnLimpiar);
 
         JPanel mapContainer = new JPanel(new BorderLayout());
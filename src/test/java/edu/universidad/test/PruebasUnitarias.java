@@ -3,9 +3,22 @@ package edu.universidad.test;
 import edu.universidad.estructura.*;
 import edu.universidad.modelo.*;
 import edu.universidad.servicio.GestorEvacuaciones;
+import edu.universidad.servicio.PlanificadorEvacuacion;
+import edu.universidad.servicio.SincronizadorGrafo;
+import edu.universidad.util.PersistenciaBinaria;
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Pruebas unitarias del sistema
@@ -168,7 +181,7 @@ public class PruebasUnitarias {
         // Debe extraer primero la de mayor prioridad
         GestorEvacuaciones.Evacuacion primera = gestor.verSiguienteEvacuacion();
         assertNotNull(primera);
-        assertEquals(90, primera.getZona().getPrioridad(),
+        assertEquals(90, primera.getZonaPrioridad(),
                 "Primera evacuación debe ser la de mayor prioridad");
     }
 
@@ -215,6 +228,1433 @@ public class PruebasUnitarias {
         assertEquals(20, recurso.getUsado(), "Deben quedar 20 en uso");
     }
 
+    @Test
+    @DisplayName("Test 11: Grafo - Vista compacta CSR")
+    public void testGrafoVistaCompacta() {
+        Grafo grafo = Grafo.createSample();
+        GrafoCompacto vista = grafo.getVistaCompacta();
+
+        assertEquals(4, vista.getNumNodos(), "Debe indexar los 4 nodos");
+        assertEquals(4, vista.getNumAristas(), "Debe contener las 4 aristas");
+
+        int a = vista.indiceDe("A");
+        assertEquals(2, vista.gradoSalida(a), "A tiene dos vecinos");
+        assertEquals("B", vista.getId(vista.destino(vista.primeraArista(a))));
+        assertEquals(5.0, vista.peso(vista.primeraArista(a)), 0.0001);
+        assertSame(vista, grafo.getVistaCompacta(), "Sin cambios se reutiliza la vista");
+
+        grafo.agregarNodo(new Nodo("E"));
+        grafo.agregarArista("D", "E", 1);
+        assertNotSame(vista, grafo.getVistaCompacta(), "Un cambio estructural reconstruye la vista");
+        assertEquals(4, grafo.bfs("A", "E").size(), "BFS usa la vista actualizada (A-C-D-E)");
+    }
+
+    @Test
+    @DisplayName("Test 12: Montículo Indexado - Disminución de clave")
+    public void testMonticuloIndexado() {
+        MonticuloIndexado monticulo = new MonticuloIndexado(5);
+
+        monticulo.insertarODisminuir(0, 7.5);
+        monticulo.insertarODisminuir(1, 3.25);
+        monticulo.insertarODisminuir(2, 9.0);
+        assertTrue(monticulo.insertarODisminuir(2, 1.125), "Debe aceptar una clave menor");
+        assertFalse(monticulo.insertarODisminuir(0, 8.0), "No debe aumentar la clave");
+
+        assertEquals(2, monticulo.extraerMinimo());
+        assertEquals(1, monticulo.extraerMinimo());
+        assertEquals(0, monticulo.extraerMinimo());
+        assertTrue(monticulo.estaVacio());
+    }
+
+    @Test
+    @DisplayName("Test 13: Grafo - Dijkstra con distancias exactas")
+    public void testGrafoDijkstraDistanciaExacta() {
+        Grafo grafo = new Grafo();
+        grafo.agregarNodo(new Nodo("A"));
+        grafo.agregarNodo(new Nodo("B"));
+        grafo.agregarNodo(new Nodo("C"));
+
+        // Con prioridades enteras (peso * 100) ambas rutas empataban
+        grafo.agregarArista("A", "C", 1.009);
+        grafo.agregarArista("A", "B", 0.5);
+        grafo.agregarArista("B", "C", 0.501);
+
+        assertEquals(1.001, grafo.distanciaMinima("A", "C"), 1e-12);
+        assertEquals(3, grafo.dijkstra("A", "C").size(), "Debe elegir A -> B -> C");
+
+        // Rutas largas no desbordan la prioridad
+        grafo.agregarNodo(new Nodo("D"));
+        grafo.agregarArista("C", "D", 3.0e8);
+        assertEquals(3.0e8 + 1.001, grafo.distanciaMinima("A", "D"), 1e-3);
+        assertEquals(4, grafo.dijkstra("A", "D").size());
+    }
+
+    @Test
+    @DisplayName("Test 14: Grafo - Dijkstra bidireccional")
+    public void testGrafoDijkstraBidireccional() {
+        Grafo grafo = new Grafo();
+        for (String id : new String[]{"A", "B", "C", "D", "E"}) {
+            grafo.agregarNodo(new Nodo(id));
+        }
+        grafo.agregarArista("A", "B", 4);
+        grafo.agregarArista("A", "C", 2);
+        grafo.agregarArista("B", "D", 1);
+        grafo.agregarArista("C", "D", 5);
+        grafo.agregarArista("D", "E", 3);
+
+        assertEquals(grafo.dijkstra("A", "E"), grafo.dijkstraBidireccional("A", "E"),
+                "Debe devolver el mismo camino que Dijkstra");
+        assertEquals(1, grafo.getNodo("D").getPredecesores().get("B"), 0.0001);
+        assertEquals(1, grafo.getVistaCompacta().gradoEntrada(grafo.getVistaCompacta().indiceDe("E")));
+        assertTrue(grafo.dijkstraBidireccional("E", "A").isEmpty(), "No hay camino de vuelta");
+    }
+
+    @Test
+    @DisplayName("Test 15: Grafo - A* con coordenadas")
+    public void testGrafoAEstrella() {
+        // Cuadrícula de 20x20 con calles de ~1.1 km
+        Grafo grafo = new Grafo();
+        int lado = 20;
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                Nodo n = new Nodo(f + "," + c);
+                n.setLatitud(4.60 + f * 0.01);
+                n.setLongitud(-74.08 + c * 0.01);
+                grafo.agregarNodo(n);
+            }
+        }
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                if (c + 1 < lado) {
+                    grafo.agregarArista(f + "," + c, f + "," + (c + 1), 1.2);
+                    grafo.agregarArista(f + "," + (c + 1), f + "," + c, 1.2);
+                }
+                if (f + 1 < lado) {
+                    grafo.agregarArista(f + "," + c, (f + 1) + "," + c, 1.2);
+                    grafo.agregarArista((f + 1) + "," + c, f + "," + c, 1.2);
+                }
+            }
+        }
+
+        List<Nodo> porDijkstra = grafo.dijkstra("10,0", "10,19");
+        int asentadosDijkstra = BusquedaDijkstra.delHilo().getNodosAsentados();
+        List<Nodo> porAEstrella = grafo.aEstrella("10,0", "10,19");
+        int asentadosAEstrella = BusquedaAEstrella.delHilo().getNodosAsentados();
+
+        assertEquals(porDijkstra.size(), porAEstrella.size(), "A* debe encontrar un camino óptimo");
+        assertTrue(asentadosAEstrella < asentadosDijkstra / 2,
+                "A* debe asentar muchos menos nodos que Dijkstra");
+    }
+
+    @Test
+    @DisplayName("Test 16: Grafo - Contraction Hierarchies")
+    public void testGrafoJerarquiaContraccion() throws Exception {
+        Grafo grafo = new Grafo();
+        int lado = 8;
+        for (int i = 0; i < lado * lado; i++) {
+            grafo.agregarNodo(new Nodo("N" + i));
+        }
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                int i = f * lado + c;
+                if (c + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + 1), 1 + (i % 3));
+                    grafo.agregarArista("N" + (i + 1), "N" + i, 2 + (i % 2));
+                }
+                if (f + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + lado), 1 + (i % 5));
+                    grafo.agregarArista("N" + (i + lado), "N" + i, 3);
+                }
+            }
+        }
+
+        assertFalse(grafo.jerarquiaVigente(), "Sin preprocesar no hay jerarquía");
+        JerarquiaContraccion jerarquia = grafo.prepararJerarquia();
+        assertTrue(grafo.jerarquiaVigente());
+
+        for (int o = 0; o < lado * lado; o += 7) {
+            for (int d = 0; d < lado * lado; d += 5) {
+                List<Nodo> camino = grafo.rutaJerarquica("N" + o, "N" + d);
+                double costo = 0;
+                for (int i = 0; i + 1 < camino.size(); i++) {
+                    costo += camino.get(i).getVecinos().get(camino.get(i + 1).getId());
+                }
+                assertEquals(grafo.distanciaMinima("N" + o, "N" + d), costo, 1e-9,
+                        "El camino desempaquetado debe ser óptimo");
+            }
+        }
+
+        // Ida y vuelta por el formato binario
+        java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+        jerarquia.escribir(new java.io.DataOutputStream(bytes));
+        JerarquiaContraccion leida = JerarquiaContraccion.leer(
+                new java.io.DataInputStream(new java.io.ByteArrayInputStream(bytes.toByteArray())));
+        int origen = grafo.getVistaCompacta().indiceDe("N0");
+        int destino = grafo.getVistaCompacta().indiceDe("N63");
+        assertEquals(jerarquia.distancia(origen, destino), leida.distancia(origen, destino), 1e-12);
+
+        // Un cambio en las rutas la deja desactualizada hasta reinstalarla
+        grafo.agregarArista("N0", "N63", 1);
+        assertFalse(grafo.jerarquiaVigente(), "Debe quedar desactualizada");
+        assertFalse(grafo.instalarJerarquia(leida), "No corresponde al grafo modificado");
+        assertEquals(2, grafo.rutaJerarquica("N0", "N63").size(), "Debe usar Dijkstra mientras tanto");
+
+        // Aristas de peso 0: un nodo cuyas salidas pesan 0 también necesita atajos
+        Grafo ceros = new Grafo();
+        int largo = 10;
+        for (int i = 0; i < largo; i++) {
+            ceros.agregarNodo(new Nodo("C" + i));
+        }
+        for (int i = 0; i + 1 < largo; i++) {
+            ceros.agregarArista("C" + i, "C" + (i + 1), i % 3 == 0 ? 1 : 0);
+            ceros.agregarArista("C" + (i + 1), "C" + i, i % 2 == 0 ? 0 : 2);
+        }
+        ceros.prepararJerarquia();
+        for (int o = 0; o < largo; o++) {
+            for (int d = 0; d < largo; d++) {
+                List<Nodo> camino = ceros.rutaJerarquica("C" + o, "C" + d);
+                assertFalse(camino.isEmpty(), "Hay camino entre C" + o + " y C" + d);
+                double costo = 0;
+                for (int i = 0; i + 1 < camino.size(); i++) {
+                    costo += camino.get(i).getVecinos().get(camino.get(i + 1).getId());
+                }
+                assertEquals(ceros.distanciaMinima("C" + o, "C" + d), costo, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test 17: Grafo - A* con puntos de referencia (ALT)")
+    public void testGrafoPuntosReferencia() throws Exception {
+        // Cuadrícula de 20x20 sin coordenadas
+        Grafo grafo = new Grafo();
+        int lado = 20;
+        for (int i = 0; i < lado * lado; i++) {
+            grafo.agregarNodo(new Nodo("N" + i));
+        }
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                int i = f * lado + c;
+                if (c + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + 1), 1 + (i % 3));
+                    grafo.agregarArista("N" + (i + 1), "N" + i, 1 + (i % 2));
+                }
+                if (f + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + lado), 2);
+                    grafo.agregarArista("N" + (i + lado), "N" + i, 1 + (i % 4));
+                }
+            }
+        }
+
+        // Sin tablas responde con la cota geográfica y las calcula en segundo plano
+        assertFalse(grafo.puntosReferenciaVigentes());
+        assertEquals(grafo.distanciaMinima("N0", "N399"), costoCamino(grafo.rutaALT("N0", "N399")), 1e-9);
+        grafo.recalcularPuntosReferenciaEnSegundoPlano().get();
+        assertTrue(grafo.puntosReferenciaVigentes(), "Las tablas deben quedar instaladas");
+
+        List<Nodo> porDijkstra = grafo.dijkstra("N210", "N229");
+        int asentadosDijkstra = BusquedaDijkstra.delHilo().getNodosAsentados();
+        List<Nodo> porALT = grafo.rutaALT("N210", "N229");
+        int asentadosALT = BusquedaAEstrella.delHilo().getNodosAsentados();
+        assertEquals(costoCamino(porDijkstra), costoCamino(porALT), 1e-9, "ALT debe ser óptimo");
+        assertTrue(asentadosALT < asentadosDijkstra, "ALT debe asentar menos nodos que Dijkstra");
+
+        for (int o = 0; o < lado * lado; o += 37) {
+            for (int d = 0; d < lado * lado; d += 23) {
+                assertEquals(grafo.distanciaMinima("N" + o, "N" + d),
+                        costoCamino(grafo.rutaALT("N" + o, "N" + d)), 1e-9);
+            }
+        }
+
+        // Un cambio en las rutas lanza solo el recálculo; mientras tanto las
+        // consultas siguen siendo exactas
+        grafo.agregarArista("N0", "N399", 1);
+        assertEquals(2, grafo.rutaALT("N0", "N399").size());
+        grafo.actualizarPeso("N0", "N1", 5);
+        assertEquals(grafo.distanciaMinima("N0", "N20"), costoCamino(grafo.rutaALT("N0", "N20")), 1e-9);
+        long limite = System.currentTimeMillis() + 10_000;
+        while (!grafo.puntosReferenciaVigentes() && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertTrue(grafo.puntosReferenciaVigentes(), "Las tablas deben quedar al día");
+
+        grafo.actualizarPeso("N5", "N6", 9);
+        limite = System.currentTimeMillis() + 10_000;
+        while (!grafo.puntosReferenciaVigentes() && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertTrue(grafo.puntosReferenciaVigentes(), "El cambio de rutas basta para recalcularlas");
+    }
+
+    private double costoCamino(List<Nodo> camino) {
+        double costo = 0;
+        for (int i = 0; i + 1 < camino.size(); i++) {
+            costo += camino.get(i).getVecinos().get(camino.get(i + 1).getId());
+        }
+        return costo;
+    }
+
+    @Test
+    @DisplayName("Test 18: Grafo - Caché de árboles de caminos")
+    public void testGrafoCacheArboles() {
+        Grafo grafo = new Grafo();
+        for (String id : new String[]{"Refugio Central", "A", "B", "C"}) {
+            grafo.agregarNodo(new Nodo(id));
+        }
+        grafo.agregarArista("Refugio Central", "A", 4);
+        grafo.agregarArista("Refugio Central", "B", 1);
+        grafo.agregarArista("B", "A", 1);
+        grafo.agregarArista("A", "C", 2);
+
+        CacheArboles cache = grafo.getCacheArboles();
+        assertEquals(3, grafo.dijkstra("Refugio Central", "C").size() - 1);
+        assertEquals(1, cache.tamanio(), "El árbol del origen debe quedar en caché");
+        long fallos = cache.getFallos();
+        assertEquals(4.0, grafo.distanciaMinima("Refugio Central", "C"), 1e-9);
+        assertEquals(2, grafo.dijkstra("Refugio Central", "A").size() - 1);
+        assertEquals(fallos, cache.getFallos(), "Las consultas repetidas deben ser aciertos");
+
+        // Un cambio estructural invalida los árboles guardados
+        grafo.agregarArista("Refugio Central", "C", 1);
+        assertEquals(1.0, grafo.distanciaMinima("Refugio Central", "C"), 1e-9);
+        assertEquals(2, grafo.dijkstra("Refugio Central", "C").size());
+
+        // LRU: con espacio para un solo árbol se descarta el menos usado
+        grafo.setPresupuestoCacheArboles(ArbolCaminos.bytesPara(4));
+        grafo.dijkstra("A", "C");
+        grafo.dijkstra("B", "C");
+        assertEquals(1, cache.tamanio());
+        assertNotNull(cache.obtener(grafo.getVistaCompacta().indiceDe("B"), grafo.getVersion()));
+
+        // Sin presupuesto no se guardan árboles y el resultado es el mismo
+        grafo.setPresupuestoCacheArboles(0);
+        assertEquals(0, cache.tamanio());
+        assertEquals(3, grafo.dijkstra("Refugio Central", "A").size());
+        assertEquals(0, cache.tamanio());
+    }
+
+    @Test
+    @DisplayName("Test 19: Grafo - Matriz de distancias en paralelo")
+    public void testGrafoMatrizDistancias() {
+        Grafo grafo = new Grafo();
+        int lado = 12;
+        for (int i = 0; i < lado * lado; i++) {
+            grafo.agregarNodo(new Nodo("N" + i));
+        }
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                int i = f * lado + c;
+                if (c + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + 1), 1 + (i % 4));
+                    grafo.agregarArista("N" + (i + 1), "N" + i, 2);
+                }
+                if (f + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + lado), 1 + (i % 3));
+                }
+            }
+        }
+        grafo.agregarNodo(new Nodo("Aislado"));
+
+        List<String> zonas = List.of("N0", "N17", "N50", "N143", "Aislado");
+        List<String> refugios = List.of("N5", "N77", "N140", "Aislado");
+        MatrizDistancias matriz = grafo.matrizDistancias(zonas, refugios, true);
+
+        assertEquals(5, matriz.getFilas());
+        assertEquals(4, matriz.getColumnas());
+        assertEquals(20, matriz.getValores().length);
+        for (int i = 0; i < zonas.size(); i++) {
+            for (int j = 0; j < refugios.size(); j++) {
+                double esperada = grafo.distanciaMinima(zonas.get(i), refugios.get(j));
+                assertEquals(esperada, matriz.distancia(i, j), 1e-9);
+                List<Nodo> camino = grafo.caminoEnMatriz(matriz, i, j);
+                if (esperada == Double.POSITIVE_INFINITY) {
+                    assertTrue(camino.isEmpty());
+                } else {
+                    assertEquals(esperada, costoCamino(camino), 1e-9);
+                }
+            }
+        }
+        assertEquals(0.0, matriz.distancia(4, 3), 1e-9);
+
+        // Mientras el grafo no cambie la matriz se reutiliza
+        assertSame(matriz, grafo.matrizDistancias(zonas, refugios, false));
+        grafo.agregarArista("N143", "N5", 1);
+        MatrizDistancias nueva = grafo.matrizDistancias(zonas, refugios, false);
+        assertNotSame(matriz, nueva);
+        assertEquals(1.0, nueva.distancia(3, 0), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Test 20: Grafo - Refugio más cercano en una sola búsqueda")
+    public void testGrafoRefugioMasCercano() {
+        Grafo grafo = new Grafo();
+        int lado = 10;
+        for (int i = 0; i < lado * lado; i++) {
+            grafo.agregarNodo(new Nodo("N" + i));
+        }
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                int i = f * lado + c;
+                if (c + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + 1), 1 + (i % 3));
+                    grafo.agregarArista("N" + (i + 1), "N" + i, 1 + (i % 2));
+                }
+                if (f + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + lado), 2);
+                    grafo.agregarArista("N" + (i + lado), "N" + i, 3);
+                }
+            }
+        }
+        grafo.agregarNodo(new Nodo("Aislado"));
+
+        List<String> refugios = List.of("N0", "N45", "N99");
+        CercaniaObjetivos cercania = grafo.cercaniaA(refugios);
+
+        for (int i = 0; i < lado * lado; i++) {
+            String zona = "N" + i;
+            double mejor = Double.POSITIVE_INFINITY;
+            for (String refugio : refugios) {
+                mejor = Math.min(mejor, grafo.distanciaMinima(zona, refugio));
+            }
+            assertEquals(mejor, grafo.distanciaAlMasCercano(cercania, zona), 1e-9);
+            Nodo refugio = grafo.objetivoMasCercano(cercania, zona);
+            assertEquals(mejor, grafo.distanciaMinima(zona, refugio.getId()), 1e-9);
+
+            List<Nodo> camino = grafo.caminoAlMasCercano(cercania, zona);
+            assertEquals(zona, camino.get(0).getId());
+            assertEquals(refugio.getId(), camino.get(camino.size() - 1).getId());
+            assertEquals(mejor, costoCamino(camino), 1e-9);
+        }
+        assertNull(grafo.objetivoMasCercano(cercania, "Aislado"));
+        assertTrue(grafo.caminoAlMasCercano(cercania, "Aislado").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test 21: Grafo - k rutas más cortas (Yen)")
+    public void testGrafoKRutasMasCortas() {
+        Grafo grafo = new Grafo();
+        int lado = 4;
+        for (int i = 0; i < lado * lado; i++) {
+            grafo.agregarNodo(new Nodo("N" + i));
+        }
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                int i = f * lado + c;
+                if (c + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + 1), 1 + (i % 3));
+                    grafo.agregarArista("N" + (i + 1), "N" + i, 2 + (i % 2));
+                }
+                if (f + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + lado), 1 + (i % 5));
+                    grafo.agregarArista("N" + (i + lado), "N" + i, 2);
+                }
+            }
+        }
+
+        // Referencia: todos los caminos simples por fuerza bruta
+        List<Double> todos = new ArrayList<>();
+        enumerarCostos(grafo, "N0", "N15", new HashSet<>(List.of("N0")), 0, todos);
+        Collections.sort(todos);
+
+        int k = 12;
+        List<List<Nodo>> rutas = grafo.kRutasMasCortas("N0", "N15", k, 0);
+        assertEquals(k, rutas.size());
+        Set<String> distintas = new HashSet<>();
+        for (int i = 0; i < k; i++) {
+            List<Nodo> ruta = rutas.get(i);
+            assertEquals(todos.get(i), costoCamino(ruta), 1e-9, "La ruta " + i + " debe tener el costo i-ésimo");
+            assertEquals(ruta.size(), new HashSet<>(ruta).size(), "Las rutas deben ser simples");
+            assertTrue(distintas.add(ruta.toString()), "Las rutas no deben repetirse");
+        }
+
+        assertTrue(grafo.kRutasMasCortas("N0", "N15", 0, 0).isEmpty());
+
+        // El límite de tramos se respeta dentro de la búsqueda: son los más
+        // cortos entre los que cumplen el límite, no un filtro de los 20 primeros
+        for (int maxTramos : new int[]{6, 8}) {
+            List<Double> acotados = new ArrayList<>();
+            enumerarCostosAcotados(grafo, "N0", "N15", new HashSet<>(List.of("N0")), 0, maxTramos, acotados);
+            Collections.sort(acotados);
+            List<List<Nodo>> caminos = grafo.encontrarTodosCaminos("N0", "N15", maxTramos);
+            assertEquals(Math.min(20, acotados.size()), caminos.size());
+            for (int i = 0; i < caminos.size(); i++) {
+                assertTrue(caminos.get(i).size() - 1 <= maxTramos);
+                assertEquals(caminos.get(i).size(), new HashSet<>(caminos.get(i)).size());
+                assertEquals(acotados.get(i), costoCamino(caminos.get(i)), 1e-9);
+            }
+        }
+
+        // La única ruta directa es la más cara: sin el límite quedaría fuera de las 20
+        grafo.agregarArista("N0", "N15", 100);
+        List<List<Nodo>> directa = grafo.encontrarTodosCaminos("N0", "N15", 1);
+        assertEquals(1, directa.size());
+        assertEquals(List.of("N0", "N15"), ids(directa.get(0)));
+        assertTrue(grafo.encontrarTodosCaminos("N0", "N15", 0).isEmpty());
+    }
+
+    private void enumerarCostosAcotados(Grafo grafo, String actual, String destino, Set<String> visitados,
+                                        double costo, int maxTramos, List<Double> costos) {
+        if (actual.equals(destino)) {
+            costos.add(costo);
+            return;
+        }
+        if (visitados.size() - 1 == maxTramos) return;
+        for (Map.Entry<String, Double> vecino : grafo.getNodo(actual).getVecinos().entrySet()) {
+            if (visitados.add(vecino.getKey())) {
+                enumerarCostosAcotados(grafo, vecino.getKey(), destino, visitados,
+                        costo + vecino.getValue(), maxTramos, costos);
+                visitados.remove(vecino.getKey());
+            }
+        }
+    }
+
+    private void enumerarCostos(Grafo grafo, String actual, String destino,
+                                Set<String> visitados, double costo, List<Double> costos) {
+        if (actual.equals(destino)) {
+            costos.add(costo);
+            return;
+        }
+        for (Map.Entry<String, Double> vecino : grafo.getNodo(actual).getVecinos().entrySet()) {
+            if (visitados.add(vecino.getKey())) {
+                enumerarCostos(grafo, vecino.getKey(), destino, visitados, costo + vecino.getValue(), costos);
+                visitados.remove(vecino.getKey());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test 22: Grafo - Cierre de vías y cambios de peso")
+    public void testGrafoActualizarPeso() {
+        Grafo grafo = new Grafo();
+        int lado = 8;
+        for (int i = 0; i < lado * lado; i++) {
+            grafo.agregarNodo(new Nodo("N" + i));
+        }
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                int i = f * lado + c;
+                if (c + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + 1), 1 + (i % 3));
+                    grafo.agregarArista("N" + (i + 1), "N" + i, 2);
+                }
+                if (f + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + lado), 1 + (i % 4));
+                    grafo.agregarArista("N" + (i + lado), "N" + i, 3);
+                }
+            }
+        }
+
+        List<Nodo> antes = grafo.dijkstra("N0", "N63");
+        CacheArboles cache = grafo.getCacheArboles();
+        assertEquals(1, cache.tamanio());
+
+        // Cierre de una vía que usa la ruta actual
+        String desde = antes.get(3).getId();
+        String hasta = antes.get(4).getId();
+        assertTrue(grafo.bloquearArista(desde, hasta));
+        assertEquals(Double.POSITIVE_INFINITY, grafo.getArista(desde, hasta).getPeso());
+        assertEquals(1, cache.tamanio(), "El árbol se repara, no se descarta");
+
+        List<Nodo> despues = grafo.dijkstra("N0", "N63");
+        for (int i = 0; i + 1 < despues.size(); i++) {
+            assertFalse(despues.get(i).getId().equals(desde) && despues.get(i + 1).getId().equals(hasta),
+                    "La ruta no debe usar la vía cerrada");
+        }
+        verificarArbolReparado(grafo, "N0", lado * lado);
+
+        // Reapertura con un peso menor al original
+        assertTrue(grafo.actualizarPeso(desde, hasta, 0.5));
+        verificarArbolReparado(grafo, "N0", lado * lado);
+        assertTrue(grafo.actualizarPeso("N9", "N10", 7));
+        verificarArbolReparado(grafo, "N0", lado * lado);
+
+        assertFalse(grafo.actualizarPeso("N0", "N63", 1), "La arista no existe");
+
+        // En un grafo más grande cada cambio copia solo los bloques de pesos que toca
+        Grafo grande = crearGrilla(40);
+        grande.dijkstra("N0", "N1599");
+        GrafoCompacto anterior = grande.getVistaCompacta();
+        for (int k = 0; k < 200; k++) {
+            int i = (k * 37) % (40 * 39);
+            String abajo = "N" + (i + 40);
+            if (k % 3 == 0) {
+                assertTrue(grande.bloquearArista("N" + i, abajo));
+            } else {
+                assertTrue(grande.actualizarPeso("N" + i, abajo, 1 + k % 5));
+            }
+            GrafoCompacto nueva = grande.getVistaCompacta();
+            assertTrue(nueva.bloquesPesosDistintos(anterior) <= 2, "Solo se copian los bloques tocados");
+            anterior = nueva;
+        }
+        verificarArbolReparado(grande, "N0", 40 * 40);
+    }
+
+    /**
+     * Grilla lado x lado con aristas en ambos sentidos entre vecinos
+     */
+    private Grafo crearGrilla(int lado) {
+        Grafo grafo = new Grafo();
+        for (int i = 0; i < lado * lado; i++) {
+            grafo.agregarNodo(new Nodo("N" + i));
+        }
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                int i = f * lado + c;
+                if (c + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + 1), 1 + (i % 3));
+                    grafo.agregarArista("N" + (i + 1), "N" + i, 2);
+                }
+                if (f + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + lado), 1 + (i % 4));
+                    grafo.agregarArista("N" + (i + lado), "N" + i, 3);
+                }
+            }
+        }
+        return grafo;
+    }
+
+    private void verificarArbolReparado(Grafo grafo, String origen, int numNodos) {
+        CacheArboles cache = grafo.getCacheArboles();
+        GrafoCompacto g = grafo.getVistaCompacta();
+        ArbolCaminos arbol = cache.obtener(g.indiceDe(origen), grafo.getVersion());
+        assertNotNull(arbol, "El árbol reparado debe seguir en caché");
+        BusquedaDijkstra busqueda = BusquedaDijkstra.delHilo();
+        busqueda.ejecutar(g, g.indiceDe(origen), -1);
+        for (int v = 0; v < numNodos; v++) {
+            assertEquals(busqueda.distancia(v), arbol.distancia(v), 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("Test 23: Grafo - Eliminación de aristas y nodos")
+    public void testGrafoEliminaciones() {
+        Grafo grafo = new Grafo();
+        int lado = 10;
+        for (int i = 0; i < lado * lado; i++) {
+            grafo.agregarNodo(new Nodo("N" + i));
+        }
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                int i = f * lado + c;
+                if (c + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + 1), 1 + (i % 3));
+                    grafo.agregarArista("N" + (i + 1), "N" + i, 2);
+                }
+                if (f + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + lado), 1 + (i % 4));
+                    grafo.agregarArista("N" + (i + lado), "N" + i, 3);
+                }
+            }
+        }
+        int aristasIniciales = grafo.getAristas().size();
+        grafo.dijkstra("N0", "N99");
+
+        assertTrue(grafo.eliminarArista("N0", "N1"));
+        assertFalse(grafo.eliminarArista("N0", "N1"), "Ya no existe");
+        assertNull(grafo.getArista("N0", "N1"));
+        assertFalse(grafo.getNodo("N0").getVecinos().containsKey("N1"));
+        assertFalse(grafo.getNodo("N1").getPredecesores().containsKey("N0"));
+        assertEquals(aristasIniciales - 1, grafo.getAristas().size());
+        verificarArbolReparado(grafo, "N0", lado * lado);
+
+        // Eliminar un nodo quita también sus aristas entrantes y salientes
+        int grado = grafo.getNodo("N55").getVecinos().size() + grafo.getNodo("N55").getPredecesores().size();
+        assertTrue(grafo.eliminarNodo("N55"));
+        assertNull(grafo.getNodo("N55"));
+        assertEquals(aristasIniciales - 1 - grado, grafo.getAristas().size());
+        for (Arista arista : grafo.getAristas()) {
+            assertNotEquals("N55", arista.getOrigenId());
+            assertNotEquals("N55", arista.getDestinoId());
+        }
+        assertTrue(grafo.dijkstra("N0", "N55").isEmpty());
+        assertEquals(-1, grafo.getVistaCompacta().indiceDe("N55"));
+        assertTrue(grafo.esConectado());
+
+        // Tras muchas eliminaciones la vista se compacta y sigue siendo correcta
+        for (int c = 0; c < lado; c++) {
+            grafo.eliminarNodo("N" + (20 + c));
+        }
+        assertFalse(grafo.esConectado());
+        assertTrue(grafo.dijkstra("N0", "N99").isEmpty());
+        assertEquals(lado * lado - 1 - lado, grafo.getVistaCompacta().getNumNodos()
+                - contarEliminados(grafo.getVistaCompacta()));
+        List<Nodo> camino = grafo.dijkstra("N99", "N90");
+        assertEquals(grafo.distanciaMinima("N99", "N90"), costoCamino(camino), 1e-9);
+
+        // Una racha de eliminaciones deja lápidas sin volver a copiar los pesos
+        Grafo grande = crearGrilla(40);
+        grande.dijkstra("N1", "N1599");
+        GrafoCompacto inicial = grande.getVistaCompacta();
+        GrafoCompacto anterior = inicial;
+        int copiados = 0;
+        for (int k = 0; k < 300; k++) {
+            assertTrue(grande.eliminarArista("N" + (k * 5), "N" + (k * 5 + 1)));
+            GrafoCompacto nueva = grande.getVistaCompacta();
+            int distintos = nueva.bloquesPesosDistintos(anterior);
+            assertTrue(distintos <= 2, "Eliminar una arista copia a lo sumo un bloque por sentido");
+            copiados += distintos;
+            anterior = nueva;
+        }
+        for (int k = 0; k < 20; k++) {
+            String id = "N" + (k * 79 % 1600);
+            Nodo nodo = grande.getNodo(id);
+            int gradoNodo = nodo.getVecinos().size() + nodo.getPredecesores().size();
+            assertTrue(grande.eliminarNodo(id));
+            GrafoCompacto nueva = grande.getVistaCompacta();
+            int distintos = nueva.bloquesPesosDistintos(anterior);
+            assertTrue(distintos <= 2 * gradoNodo, "Eliminar un nodo copia solo los bloques de sus aristas");
+            copiados += distintos;
+            anterior = nueva;
+        }
+        assertTrue(anterior.bloquesPesosDistintos(inicial) <= copiados, "La vista no se reconstruyó");
+        assertEquals(20, contarEliminados(anterior));
+        verificarArbolReparado(grande, "N1", 40 * 40);
+
+        // Reemplazar un nodo (id repetido) quita las aristas del anterior
+        Grafo repetido = new Grafo();
+        repetido.agregarNodo(new Nodo("A"));
+        repetido.agregarNodo(new Nodo("B"));
+        repetido.agregarArista("A", "B", 1);
+        repetido.agregarArista("B", "A", 1);
+        repetido.agregarNodo(new Nodo("A"));
+        assertNull(repetido.getArista("A", "B"));
+        assertTrue(repetido.getNodo("B").getPredecesores().isEmpty());
+        assertTrue(repetido.getNodo("B").getVecinos().isEmpty());
+        assertTrue(repetido.getAristas().isEmpty());
+        assertTrue(repetido.dijkstra("A", "B").isEmpty());
+        assertTrue(repetido.eliminarNodo("A"));
+        assertTrue(repetido.eliminarNodo("B"));
+    }
+
+    private int contarEliminados(GrafoCompacto g) {
+        int eliminados = 0;
+        for (int v = 0; v < g.getNumNodos(); v++) {
+            if (g.estaEliminado(v)) eliminados++;
+        }
+        return eliminados;
+    }
+
+    @Test
+    @DisplayName("Test 24: Sincronizador - Cambios aplicados como deltas")
+    public void testSincronizadorGrafo() {
+        List<Zona> zonas = new ArrayList<>();
+        List<Ruta> rutas = new ArrayList<>();
+        for (String nombre : new String[]{"A", "B", "C", "D"}) {
+            zonas.add(new Zona(nombre, "Activa", 1));
+        }
+        rutas.add(new Ruta("A", "B", 4));
+        rutas.add(new Ruta("B", "C", 3));
+        rutas.add(new Ruta("A", "C", 9));
+        rutas.add(new Ruta("C", "D", 2));
+
+        SincronizadorGrafo sincronizador = new SincronizadorGrafo(() -> zonas, () -> rutas);
+        Grafo grafo = sincronizador.getGrafo();
+        grafo.dijkstra("A", "D");
+        verificarIgualAReconstruido(grafo, zonas, rutas);
+
+        // Nueva ruta hacia una zona que no existe: el nodo se crea
+        Ruta nueva = new Ruta("D", "E", 1);
+        rutas.add(nueva);
+        sincronizador.rutaAgregada(nueva);
+        assertNotNull(grafo.getNodo("E"));
+        verificarIgualAReconstruido(grafo, zonas, rutas);
+
+        // Ruta repetida: manda la última; al quitarla vuelve el peso anterior
+        Ruta repetida = new Ruta("A", "C", 1);
+        rutas.add(repetida);
+        sincronizador.rutaAgregada(repetida);
+        assertEquals(1.0, grafo.distanciaMinima("A", "C"), 1e-9);
+        rutas.remove(repetida);
+        sincronizador.rutaEliminada(repetida);
+        assertEquals(7.0, grafo.distanciaMinima("A", "C"), 1e-9);
+        verificarIgualAReconstruido(grafo, zonas, rutas);
+
+        // Cambio de peso
+        double anterior = rutas.get(1).getPeso();
+        rutas.get(1).setPeso(10);
+        sincronizador.rutaPesoCambiado(rutas.get(1), anterior);
+        verificarIgualAReconstruido(grafo, zonas, rutas);
+
+        // Renombrar una zona: el gestor ya renombró sus rutas
+        Zona c = zonas.get(2);
+        c.setNombre("C2");
+        for (Ruta r : rutas) {
+            if (r.getOrigenZona().equals("C")) r.setOrigenZona("C2");
+            if (r.getDestinoZona().equals("C")) r.setDestinoZona("C2");
+        }
+        sincronizador.zonaRenombrada(c, "C");
+        assertNull(grafo.getNodo("C"));
+        verificarIgualAReconstruido(grafo, zonas, rutas);
+
+        // Quitar la única ruta de E elimina el nodo, que no es una zona
+        rutas.remove(nueva);
+        sincronizador.rutaEliminada(nueva);
+        assertNull(grafo.getNodo("E"));
+
+        // Una zona sin rutas desaparece del grafo
+        Zona sola = new Zona("F", "Activa", 1);
+        zonas.add(sola);
+        sincronizador.zonaAgregada(sola);
+        assertNotNull(grafo.getNodo("F"));
+        zonas.remove(sola);
+        sincronizador.zonaEliminada(sola);
+        assertNull(grafo.getNodo("F"));
+        verificarIgualAReconstruido(grafo, zonas, rutas);
+        assertSame(grafo, sincronizador.getGrafo(), "Los deltas no reemplazan el grafo");
+
+        // Un grafo ya cargado se concilia con el gestor en lugar de reconstruirse
+        zonas.get(0).setLatitud(-33.4);
+        zonas.get(0).setLongitud(-70.6);
+        Grafo cargado = SincronizadorGrafo.construirGrafo(zonas, rutas);
+        cargado.getVistaCompacta();
+        cargado.agregarNodo(new Nodo("Sobra"));
+        cargado.agregarArista("Sobra", "A", 1);
+        cargado.agregarArista("D", "A", 5);
+        cargado.eliminarNodo("D");
+        cargado.actualizarPeso("A", "B", 40);
+        cargado.asignarCoordenadas("A", null, null);
+        cargado.eliminarArista("B", "C2");
+        SincronizadorGrafo conciliado = new SincronizadorGrafo(() -> zonas, () -> rutas, cargado);
+        assertSame(cargado, conciliado.getGrafo());
+        assertNull(cargado.getNodo("Sobra"));
+        assertEquals(-70.6, cargado.getNodo("A").getLongitud(), 1e-12);
+        assertNull(cargado.getArista("D", "A"));
+        verificarIgualAReconstruido(cargado, zonas, rutas);
+    }
+
+    private void verificarIgualAReconstruido(Grafo grafo, List<Zona> zonas, List<Ruta> rutas) {
+        Grafo completo = SincronizadorGrafo.construirGrafo(zonas, rutas);
+        assertEquals(completo.getNodos().size(), grafo.getNodos().size());
+        assertEquals(completo.getAristas().size(), grafo.getAristas().size());
+        for (Nodo o : completo.getNodos()) {
+            assertNotNull(grafo.getNodo(o.getId()));
+            for (Nodo d : completo.getNodos()) {
+                assertEquals(completo.distanciaMinima(o.getId(), d.getId()),
+                        grafo.distanciaMinima(o.getId(), d.getId()), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test 25: Grafo - Instantáneas inmutables para otros hilos")
+    public void testGrafoInstantaneas() throws Exception {
+        Grafo grafo = new Grafo();
+        int lado = 12;
+        for (int i = 0; i < lado * lado; i++) {
+            grafo.agregarNodo(new Nodo("N" + i));
+        }
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                int i = f * lado + c;
+                if (c + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + 1), 1 + (i % 3));
+                    grafo.agregarArista("N" + (i + 1), "N" + i, 1 + (i % 2));
+                }
+                if (f + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + lado), 1 + (i % 4));
+                    grafo.agregarArista("N" + (i + lado), "N" + i, 2);
+                }
+            }
+        }
+        String ultimo = "N" + (lado * lado - 1);
+        InstantaneaGrafo inicial = grafo.instantanea();
+        assertSame(inicial, grafo.instantanea(), "Sin cambios se reutiliza");
+        double distanciaInicial = grafo.distanciaMinima("N0", ultimo);
+        assertEquals(distanciaInicial, inicial.distanciaMinima("N0", ultimo), 1e-9);
+
+        // Lectores en paralelo mientras el grafo sigue cambiando
+        java.util.concurrent.ExecutorService hilos = java.util.concurrent.Executors.newFixedThreadPool(4);
+        List<java.util.concurrent.Future<Boolean>> lecturas = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            lecturas.add(hilos.submit(() -> {
+                for (int r = 0; r < 50; r++) {
+                    InstantaneaGrafo actual = grafo.instantanea();
+                    double d = actual.distanciaMinima("N0", ultimo);
+                    if (Math.abs(d - costoCamino(actual.dijkstra("N0", ultimo))) > 1e-9) return false;
+                    if (Math.abs(inicial.distanciaMinima("N0", ultimo) - distanciaInicial) > 1e-9) return false;
+                }
+                return true;
+            }));
+        }
+        for (int i = 0; i < 40; i++) {
+            grafo.actualizarPeso("N" + i, "N" + (i + 1), 5 + i % 7);
+        }
+        grafo.eliminarNodo("N30");
+        for (java.util.concurrent.Future<Boolean> lectura : lecturas) {
+            assertTrue(lectura.get(), "Cada instantánea es coherente consigo misma");
+        }
+        hilos.shutdown();
+
+        // La instantánea inicial no ve los cambios; la nueva sí
+        InstantaneaGrafo nueva = grafo.instantanea();
+        assertNotSame(inicial, nueva);
+        assertTrue(nueva.getVersion() > inicial.getVersion());
+        assertNotNull(inicial.getNodo("N30"));
+        assertNull(nueva.getNodo("N30"));
+        assertEquals(distanciaInicial, inicial.distanciaMinima("N0", ultimo), 1e-9);
+        assertEquals(grafo.distanciaMinima("N0", ultimo), nueva.distanciaMinima("N0", ultimo), 1e-9);
+        assertEquals(grafo.distanciaMinima("N0", ultimo), costoCamino(nueva.ruta("N0", ultimo)), 1e-9);
+
+        // La jerarquía instalada después entra en la siguiente instantánea
+        assertFalse(nueva.tieneJerarquia());
+        grafo.prepararJerarquia();
+        InstantaneaGrafo conJerarquia = grafo.instantanea();
+        assertTrue(conJerarquia.tieneJerarquia());
+        assertEquals(grafo.distanciaMinima("N5", "N100"), conJerarquia.distanciaMinima("N5", "N100"), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Test 26: DeltaStepping - Mismas distancias que Dijkstra")
+    public void testDeltaStepping() {
+        Grafo grafo = new Grafo();
+        int lado = 40;
+        for (int i = 0; i < lado * lado; i++) {
+            grafo.agregarNodo(new Nodo("N" + i));
+        }
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                int i = f * lado + c;
+                if (c + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + 1), i % 5);   // incluye pesos 0
+                    grafo.agregarArista("N" + (i + 1), "N" + i, 1 + (i % 7) * 3);
+                }
+                if (f + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + lado), 2 + (i % 3));
+                    grafo.agregarArista("N" + (i + lado), "N" + i, 25);
+                }
+            }
+        }
+        grafo.bloquearArista("N0", "N1");
+        GrafoCompacto g = grafo.getVistaCompacta();
+        int origen = g.indiceDe("N41");
+        BusquedaDijkstra busqueda = BusquedaDijkstra.delHilo();
+        busqueda.ejecutar(g, origen, -1);
+
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(4);
+        try {
+            for (double delta : new double[]{0.0, 1.0, 10.0}) {
+                ArbolCaminos arbol = new DeltaStepping(g, delta, pool).arbol(origen, grafo.getVersion());
+                for (int v = 0; v < g.getNumNodos(); v++) {
+                    assertEquals(busqueda.distancia(v), arbol.distancia(v), 1e-9);
+                    int[] camino = arbol.camino(v);
+                    assertEquals(origen, camino[0]);
+                    assertEquals(v, camino[camino.length - 1]);
+                }
+            }
+            ArbolCaminos arbol = grafo.arbolParalelo("N41", pool);
+            String ultimo = "N" + (lado * lado - 1);
+            assertSame(arbol, grafo.arbolDesde("N41"), "Queda en la caché");
+            assertEquals(grafo.distanciaMinima("N41", ultimo), costoCamino(grafo.dijkstra("N41", ultimo)), 1e-9);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test 27: Grafo - Rutas en lote agrupadas por origen")
+    public void testRutasEnLote() {
+        Grafo grafo = new Grafo();
+        int lado = 15;
+        for (int i = 0; i < lado * lado; i++) {
+            grafo.agregarNodo(new Nodo("N" + i));
+        }
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                int i = f * lado + c;
+                if (c + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + 1), 1 + (i % 4));
+                    grafo.agregarArista("N" + (i + 1), "N" + i, 2);
+                }
+                if (f + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + lado), 1 + (i % 3));
+                }
+            }
+        }
+        grafo.agregarNodo(new Nodo("Aislado"));
+
+        List<String> origenes = new ArrayList<>();
+        List<String> destinos = new ArrayList<>();
+        String[] centros = {"N0", "N37", "N112"};
+        for (int k = 0; k < 90; k++) {
+            origenes.add(centros[k % centros.length]);
+            destinos.add("N" + ((k * 17) % (lado * lado)));
+        }
+        origenes.add("N5");
+        destinos.add("Aislado");
+
+        RutasEnLote lote = grafo.rutasEnLote(origenes, destinos, true);
+        assertEquals(origenes.size(), lote.getCantidad());
+        assertEquals(centros.length + 1, lote.getBusquedas(), "Una búsqueda por origen distinto");
+        for (int i = 0; i < lote.getCantidad(); i++) {
+            double esperada = grafo.distanciaMinima(origenes.get(i), destinos.get(i));
+            assertEquals(esperada, lote.distancia(i), 1e-9);
+            List<Nodo> camino = grafo.caminoEnLote(lote, i);
+            if (esperada == Double.POSITIVE_INFINITY) {
+                assertTrue(camino.isEmpty());
+            } else {
+                assertEquals(origenes.get(i), camino.get(0).getId());
+                assertEquals(destinos.get(i), camino.get(camino.size() - 1).getId());
+                assertEquals(esperada, costoCamino(camino), 1e-9);
+            }
+        }
+
+        // Sin caminos solo se guardan distancias
+        RutasEnLote soloDistancias = grafo.instantanea().rutasEnLote(origenes, destinos, false);
+        assertFalse(soloDistancias.tieneCaminos());
+        assertEquals(lote.distancia(7), soloDistancias.distancia(7), 1e-9);
+
+        grafo.actualizarPeso("N0", "N1", 50);
+        assertThrows(IllegalStateException.class, () -> grafo.caminoEnLote(lote, 0));
+    }
+
+    @Test
+    @DisplayName("Test 28: Grafo - Regiones alcanzables dentro de un radio")
+    public void testRegionesAlcanzables() {
+        Grafo grafo = new Grafo();
+        int lado = 30;
+        for (int i = 0; i < lado * lado; i++) {
+            grafo.agregarNodo(new Nodo("N" + i));
+        }
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                int i = f * lado + c;
+                if (c + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + 1), 1 + (i % 3));
+                    grafo.agregarArista("N" + (i + 1), "N" + i, 4);
+                }
+                if (f + 1 < lado) {
+                    grafo.agregarArista("N" + i, "N" + (i + lado), 2);
+                    grafo.agregarArista("N" + (i + lado), "N" + i, 1 + (i % 5));
+                }
+            }
+        }
+        String centro = "N465";
+        double radio = 9.0;
+
+        Map<String, Double> desde = grafo.alcanzablesDesde(centro, radio);
+        Map<String, Double> hacia = grafo.alcanzanA(centro, radio);
+        assertEquals(0.0, desde.get(centro), 1e-9);
+        assertTrue(desde.size() < lado * lado / 4, "Solo recorre la región cercana");
+        for (Nodo nodo : grafo.getNodos()) {
+            double ida = grafo.distanciaMinima(centro, nodo.getId());
+            double vuelta = grafo.distanciaMinima(nodo.getId(), centro);
+            assertEquals(ida <= radio, desde.containsKey(nodo.getId()));
+            assertEquals(vuelta <= radio, hacia.containsKey(nodo.getId()));
+            if (ida <= radio) assertEquals(ida, desde.get(nodo.getId()), 1e-9);
+            if (vuelta <= radio) assertEquals(vuelta, hacia.get(nodo.getId()), 1e-9);
+        }
+
+        // Ordenados por distancia creciente
+        double anterior = 0.0;
+        for (double d : desde.values()) {
+            assertTrue(d >= anterior);
+            anterior = d;
+        }
+
+        // Una vía cerrada no cuenta
+        grafo.bloquearArista(centro, "N466");
+        assertEquals(grafo.distanciaMinima(centro, "N466") <= radio,
+                grafo.alcanzablesDesde(centro, radio).containsKey("N466"));
+        assertTrue(grafo.alcanzablesDesde("NoExiste", radio).isEmpty());
+        assertEquals(grafo.alcanzanA(centro, radio), grafo.instantanea().alcanzanA(centro, radio));
+    }
+
+    @Test
+    @DisplayName("Test 29: Grafo - Componentes fuertemente conexas")
+    public void testComponentesFuertes() {
+        Grafo grafo = new Grafo();
+        for (String id : new String[]{"A", "B", "C", "D", "E", "F"}) {
+            grafo.agregarNodo(new Nodo(id));
+        }
+        // Ciclo A-B-C, ciclo D-E, F suelto; C -> D une las dos componentes en un sentido
+        grafo.agregarArista("A", "B", 1);
+        grafo.agregarArista("B", "C", 1);
+        grafo.agregarArista("C", "A", 1);
+        grafo.agregarArista("D", "E", 1);
+        grafo.agregarArista("E", "D", 1);
+        grafo.agregarArista("C", "D", 1);
+
+        ComponentesFuertes componentes = grafo.componentesFuertes();
+        assertEquals(3, componentes.getCantidad());
+        assertEquals(3, componentes.getMayor());
+        assertSame(componentes, grafo.componentesFuertes(), "Se reutiliza sin cambios");
+        assertTrue(grafo.mismaComponente("A", "C"));
+        assertTrue(grafo.puedeAlcanzar("A", "E"));
+        assertFalse(grafo.puedeAlcanzar("E", "A"));
+        assertFalse(grafo.puedeAlcanzar("A", "F"));
+        assertFalse(grafo.esConectado());
+        assertTrue(grafo.dijkstraBidireccional("E", "A").isEmpty(), "El índice descarta la búsqueda");
+
+        // Aristas nuevas que cierran ciclos funden componentes
+        grafo.agregarArista("E", "F", 1);
+        assertTrue(grafo.puedeAlcanzar("A", "F"));
+        grafo.agregarArista("F", "A", 1);
+        assertTrue(grafo.esConectado());
+        assertEquals(1, grafo.componentesFuertes().getCantidad());
+        assertTrue(grafo.obtenerEstadisticas().contains("Componentes: 1"));
+
+        // Cerrar una vía puede volver a separarlas
+        grafo.bloquearArista("C", "D");
+        assertFalse(grafo.puedeAlcanzar("A", "D"));
+        assertTrue(grafo.puedeAlcanzar("D", "A"));
+        assertEquals(3, grafo.componentesFuertes().getCantidad(), "A-B-C, D-E y F");
+
+        // Una cadena larga no desborda la pila (Tarjan iterativo)
+        Grafo cadena = new Grafo();
+        int largo = 50_000;
+        for (int i = 0; i < largo; i++) {
+            cadena.agregarNodo(new Nodo("N" + i));
+        }
+        for (int i = 0; i + 1 < largo; i++) {
+            cadena.agregarArista("N" + i, "N" + (i + 1), 1);
+        }
+        assertEquals(largo, cadena.componentesFuertes().getCantidad());
+        assertTrue(cadena.puedeAlcanzar("N0", "N" + (largo - 1)));
+        assertFalse(cadena.puedeAlcanzar("N" + (largo - 1), "N0"));
+        cadena.agregarArista("N" + (largo - 1), "N0", 1);
+        assertTrue(cadena.esConectado());
+    }
+
+    @Test
+    @DisplayName("Test 30: Grafo - Vías y zonas críticas")
+    public void testPuntosCriticos() {
+        Grafo grafo = new Grafo();
+        for (String id : new String[]{"A", "B", "C", "D", "E", "F", "G"}) {
+            grafo.agregarNodo(new Nodo(id));
+        }
+        // Triángulo A-B-C de doble sentido, C <-> D, ciclo dirigido D-E-F y F -> G
+        for (String[] via : new String[][]{{"A", "B"}, {"B", "C"}, {"C", "A"}, {"C", "D"}}) {
+            grafo.agregarArista(via[0], via[1], 1);
+            grafo.agregarArista(via[1], via[0], 1);
+        }
+        grafo.agregarArista("D", "E", 1);
+        grafo.agregarArista("E", "F", 1);
+        grafo.agregarArista("F", "D", 1);
+        grafo.agregarArista("F", "G", 1);
+
+        assertEquals(2, grafo.puntosCriticos().getCantidadPuentes(), "C-D cuenta una sola vez");
+        assertTrue(grafo.esRutaCritica("D", "C"));
+        assertTrue(grafo.esRutaCritica("G", "F"));
+        assertFalse(grafo.esRutaCritica("A", "B"));
+        assertFalse(grafo.esRutaCritica("D", "E"), "Un ciclo dirigido también protege la vía");
+        assertEquals(3, grafo.getPuentes().size(), "C->D, D->C y F->G");
+        Set<String> articulaciones = new HashSet<>();
+        for (Nodo nodo : grafo.getPuntosArticulacion()) {
+            articulaciones.add(nodo.getId());
+        }
+        assertEquals(Set.of("C", "D", "F"), articulaciones);
+        assertSame(grafo.puntosCriticos(), grafo.puntosCriticos(), "Se reutiliza sin cambios");
+
+        // Cerrar un solo sentido no elimina la vía; cerrar ambos sí
+        grafo.bloquearArista("C", "D");
+        assertTrue(grafo.esRutaCritica("C", "D"));
+        grafo.bloquearArista("D", "C");
+        assertFalse(grafo.esRutaCritica("C", "D"));
+        assertFalse(grafo.esZonaCritica("C"));
+        assertFalse(grafo.esZonaCritica("D"));
+        assertTrue(grafo.esZonaCritica("F"));
+
+        // Un nodo eliminado no cuenta: sin F, D -> E queda colgando
+        grafo.eliminarNodo("F");
+        assertEquals(1, grafo.puntosCriticos().getCantidadPuentes());
+        assertTrue(grafo.esRutaCritica("E", "D"));
+        assertTrue(grafo.getPuntosArticulacion().isEmpty());
+
+        // Cadena larga: todas las vías son puentes y todos los nodos internos
+        // son articulaciones (DFS iterativo, sin desbordar la pila)
+        Grafo cadena = new Grafo();
+        int largo = 50_000;
+        for (int i = 0; i < largo; i++) {
+            cadena.agregarNodo(new Nodo("N" + i));
+        }
+        for (int i = 0; i + 1 < largo; i++) {
+            cadena.agregarArista("N" + i, "N" + (i + 1), 1);
+        }
+        assertEquals(largo - 1, cadena.puntosCriticos().getCantidadPuentes());
+        assertEquals(largo - 2, cadena.puntosCriticos().getCantidadArticulaciones());
+        cadena.agregarArista("N" + (largo - 1), "N0", 1);
+        assertEquals(0, cadena.puntosCriticos().getCantidadPuentes(), "Cerrar el anillo");
+    }
+
+    @Test
+    @DisplayName("Test 31: Grafo - Centralidad de intermediación")
+    public void testCentralidad() {
+        Grafo grafo = new Grafo();
+        for (String id : new String[]{"A", "B", "C", "D"}) {
+            grafo.agregarNodo(new Nodo(id));
+        }
+        // Cadena A-B-C-D de doble sentido
+        for (String[] via : new String[][]{{"A", "B"}, {"B", "C"}, {"C", "D"}}) {
+            grafo.agregarArista(via[0], via[1], 1);
+            grafo.agregarArista(via[1], via[0], 1);
+        }
+        Centralidad centralidad = grafo.centralidad(0);
+        assertTrue(centralidad.isExacta());
+        GrafoCompacto g = grafo.getVistaCompacta();
+        assertEquals(0.0, centralidad.nodo(g.indiceDe("A")), 1e-9);
+        assertEquals(4.0, centralidad.nodo(g.indiceDe("B")), 1e-9, "A-C, A-D, C-A y D-A");
+        assertEquals(4.0, centralidad.arista(g.arista(g.indiceDe("B"), g.indiceDe("C"))), 1e-9);
+        assertEquals(3.0, centralidad.arista(g.arista(g.indiceDe("A"), g.indiceDe("B"))), 1e-9);
+
+        Map<String, Double> zonas = grafo.zonasMasTransitadas(centralidad, 2);
+        assertEquals(Set.of("B", "C"), zonas.keySet());
+        Set<String> rutas = new HashSet<>();
+        for (Arista arista : grafo.rutasMasTransitadas(centralidad, 2)) {
+            rutas.add(arista.getOrigenId() + arista.getDestinoId());
+        }
+        assertEquals(Set.of("BC", "CB"), rutas);
+
+        // Dos caminos mínimos empatados se reparten el valor
+        Grafo rombo = new Grafo();
+        for (String id : new String[]{"S", "X", "Y", "T"}) {
+            rombo.agregarNodo(new Nodo(id));
+        }
+        rombo.agregarArista("S", "X", 1);
+        rombo.agregarArista("S", "Y", 1);
+        rombo.agregarArista("X", "T", 1);
+        rombo.agregarArista("Y", "T", 1);
+        Map<String, Double> mitades = rombo.zonasMasTransitadas(rombo.centralidad(0), 4);
+        assertEquals(0.5, mitades.get("X"), 1e-9);
+        assertEquals(0.5, mitades.get("Y"), 1e-9);
+
+        // Aproximada: con todos los orígenes coincide con la exacta; con menos se escala
+        assertTrue(grafo.centralidad(4).isExacta());
+        Centralidad aproximada = grafo.centralidad(2);
+        assertFalse(aproximada.isExacta());
+        assertEquals(2, aproximada.getOrigenes());
+        double total = 0;
+        for (int v = 0; v < g.getNumNodos(); v++) total += aproximada.nodo(v);
+        assertTrue(total > 0, "La estimación se escala a todos los orígenes");
+
+        // Un resultado viejo no se usa con otra versión del grafo
+        grafo.actualizarPeso("A", "B", 2);
+        assertThrows(IllegalStateException.class, () -> grafo.zonasMasTransitadas(centralidad, 1));
+    }
+
+    @Test
+    @DisplayName("Test 32: PlanificadorEvacuacion - Flujo de costo mínimo con capacidades")
+    public void testPlanificadorEvacuacion() {
+        List<Zona> zonas = new ArrayList<>();
+        List<Ruta> rutas = new ArrayList<>();
+        // Norte -> A -> Refugio es corto (1000 personas/h); Norte -> B -> Refugio es largo (500 personas/h)
+        String[][] tramos = {{"Norte", "A"}, {"A", "Refugio"}, {"Norte", "B"}, {"B", "Refugio"}};
+        double[] distancias = {2, 2, 5, 5};
+        double[] capacidades = {1000, 1000, 500, 500};
+        for (int i = 0; i < tramos.length; i++) {
+            Ruta ruta = new Ruta(tramos[i][0], tramos[i][1], distancias[i]);
+            ruta.setId((long) i + 1);
+            ruta.setCapacidad(capacidades[i]);
+            rutas.add(ruta);
+        }
+        SincronizadorGrafo sincronizador = new SincronizadorGrafo(() -> zonas, () -> rutas);
+        PlanificadorEvacuacion planificador = new PlanificadorEvacuacion(sincronizador::getGrafo, () -> rutas);
+        Map<String, Integer> refugios = new HashMap<>();
+        refugios.put("Refugio", null);
+
+        PlanificadorEvacuacion.Plan plan = planificador.planificar(Map.of("Norte", 3000), refugios);
+        assertEquals(3000, plan.getPersonasEvacuables(), 1e-6);
+        assertEquals(2.0, plan.getTiempoDespejeHoras(), 1e-3, "1500 personas/h en total");
+        assertEquals(2000, plan.personasEnTramo("Norte", "A"), 1.0);
+        assertEquals(1000, plan.personasEnTramo("Norte", "B"), 1.0);
+        assertEquals(1000, plan.tasaEnTramo("A", "Refugio"), 1.0);
+        assertEquals(4, plan.getPersonasPorRuta().size());
+
+        // Sin horizonte que apurar el flujo prefiere el camino corto
+        Ruta ancha = rutas.get(0);
+        ancha.setCapacidad(null);
+        rutas.get(1).setCapacidad(null);
+        plan = planificador.planificar(Map.of("Norte", 3000), refugios);
+        assertEquals(0.0, plan.getTiempoDespejeHoras(), 1e-9);
+        assertEquals(3000, plan.personasEnTramo("Norte", "A"), 1e-6);
+        assertEquals(12000, plan.getCostoTotal(), 1e-6, "3000 personas x 4 km");
+        ancha.setCapacidad(1000.0);
+        rutas.get(1).setCapacidad(1000.0);
+
+        // Tras cerrar una vía se vuelve a planificar con lo que queda
+        sincronizador.getGrafo().bloquearArista("A", "Refugio");
+        plan = planificador.planificar(Map.of("Norte", 3000), refugios);
+        assertEquals(6.0, plan.getTiempoDespejeHoras(), 1e-3);
+        assertEquals(0, plan.personasEnTramo("Norte", "A"), 1e-6);
+
+        // Refugio con lugar limitado: el resto queda sin salida
+        refugios.put("Refugio", 1000);
+        plan = planificador.planificar(Map.of("Norte", 3000), refugios);
+        assertEquals(1000, plan.getPersonasEvacuables(), 1e-6);
+        assertEquals(2000, plan.getPersonasSinSalida(), 1e-6);
+        assertEquals(2.0, plan.getTiempoDespejeHoras(), 1e-3);
+    }
+
+    @Test
+    @DisplayName("Test 33: Grafo - Rutas dependientes del tiempo")
+    public void testRutasDependientesTiempo() {
+        Grafo grafo = new Grafo();
+        for (String id : new String[]{"A", "B", "C"}) {
+            grafo.agregarNodo(new Nodo(id));
+        }
+        // A -> C directo tarda 1 h salvo en hora punta (8 h: 3 h); A -> B -> C tarda siempre 2 h
+        grafo.agregarArista("A", "C", 1);
+        grafo.agregarArista("A", "B", 1);
+        grafo.agregarArista("B", "C", 1);
+        PerfilTiempo horaPunta = new PerfilTiempo(new double[]{7, 8, 10}, new double[]{1, 3, 1}, 24);
+        assertTrue(grafo.asignarPerfil("A", "C", horaPunta));
+        assertFalse(grafo.asignarPerfil("C", "A", horaPunta), "La arista no existe");
+
+        RutaTemporal temprano = grafo.rutaDependienteTiempo("A", "C", 6);
+        assertEquals(7.0, temprano.getLlegada(), 1e-9);
+        assertEquals(2, temprano.getCamino().size());
+
+        RutaTemporal punta = grafo.rutaDependienteTiempo("A", "C", 8);
+        assertEquals(10.0, punta.getLlegada(), 1e-9, "Conviene el desvío por B");
+        assertEquals("B", punta.getCamino().get(1).getId());
+        assertEquals(2.0, punta.getDuracion(), 1e-9);
+
+        // El perfil es periódico: al día siguiente vuelve la hora punta
+        assertEquals(3.0, horaPunta.duracion(32), 1e-9);
+        assertEquals(2.0, horaPunta.duracion(7.5), 1e-9);
+
+        // Las rutas estáticas siguen usando el peso fijo y un cierre manda sobre el perfil
+        assertEquals(1.0, grafo.distanciaMinima("A", "C"), 1e-9);
+        grafo.bloquearArista("A", "B");
+        assertEquals(11.0, grafo.rutaDependienteTiempo("A", "C", 8).getLlegada(), 1e-9);
+        assertFalse(grafo.rutaDependienteTiempo("C", "A", 0).existe());
+
+        // Salir más tarde nunca puede hacer llegar antes (FIFO)
+        assertThrows(IllegalArgumentException.class,
+                () -> new PerfilTiempo(new double[]{0, 1}, new double[]{5, 2}));
+    }
+
+    @Test
+    @DisplayName("Test 34: Grafo - Rutas Pareto por distancia y riesgo")
+    public void testRutasPareto() {
+        Grafo grafo = new Grafo();
+        for (String id : new String[]{"O", "Peligro", "Medio", "Seguro", "D"}) {
+            grafo.agregarNodo(new Nodo(id));
+        }
+        // Tres caminos O -> x -> D: cuanto más seguro, más largo
+        grafo.agregarArista("O", "Peligro", 1);
+        grafo.agregarArista("Peligro", "D", 1);
+        grafo.agregarArista("O", "Medio", 2);
+        grafo.agregarArista("Medio", "D", 2);
+        grafo.agregarArista("O", "Seguro", 4);
+        grafo.agregarArista("Seguro", "D", 4);
+        Zona afectada = new Zona("Peligro", "afectada", 90);
+        Zona evacuada = new Zona("Medio", "evacuada", 60);
+        Map<String, Double> riesgos = new HashMap<>();
+        riesgos.put("Peligro", afectada.getRiesgo());
+        riesgos.put("Medio", evacuada.getRiesgo());
+        riesgos.put("Seguro", 0.0);
+
+        FrentePareto frente = grafo.rutasPareto("O", "D", riesgos);
+        assertTrue(frente.isCompleto());
+        assertEquals(3, frente.getCantidad());
+        assertEquals(2.0, frente.distancia(0), 1e-9);
+        assertEquals(90.0, frente.riesgo(0), 1e-9);
+        assertEquals(30.0, frente.riesgo(1), 1e-9);
+        assertEquals(0.0, frente.riesgo(2), 1e-9);
+        assertEquals("Seguro", grafo.caminoPareto(frente, 2).get(1).getId());
+
+        // Un camino más largo y más riesgoso que otro no entra al frente
+        riesgos.put("Medio", 95.0);
+        assertEquals(2, grafo.rutasPareto("O", "D", riesgos).getCantidad());
+
+        // Con el límite de etiquetas el frente se corta pero lo encontrado sigue siendo óptimo
+        FrentePareto recortado = grafo.rutasPareto("O", "D", riesgos, 3);
+        assertFalse(recortado.isCompleto());
+        assertTrue(recortado.getCantidad() <= 1);
+
+        grafo.bloquearArista("Seguro", "D");
+        assertEquals(1, grafo.rutasPareto("O", "D", riesgos).getCantidad());
+        assertThrows(IllegalArgumentException.class, () -> grafo.rutasPareto("O", "X", riesgos));
+    }
+
+    @Test
+    @DisplayName("Test 35: Grafo - Recorrido de varias zonas desde un depósito")
+    public void testPlanificarRecorrido() {
+        Grafo grafo = new Grafo();
+        for (String id : new String[]{"Base", "A", "B", "C", "Aislada"}) {
+            grafo.agregarNodo(new Nodo(id));
+        }
+        // Línea Base - A - B - C en ambos sentidos; Aislada sin rutas
+        String[] linea = {"Base", "A", "B", "C"};
+        for (int i = 0; i + 1 < linea.length; i++) {
+            grafo.agregarArista(linea[i], linea[i + 1], 1);
+            grafo.agregarArista(linea[i + 1], linea[i], 1);
+        }
+        List<String> zonas = List.of("C", "A", "Base", "B", "A", "Aislada");
+
+        RecorridoRescate ida = grafo.planificarRecorrido("Base", zonas, false);
+        assertEquals(3.0, ida.getDistancia(), 1e-9);
+        assertEquals(List.of("Base", "A", "B", "C"), ids(ida.getParadas()));
+        assertEquals(List.of("Base", "A", "B", "C"), ids(ida.getCamino()));
+        assertEquals(List.of("Aislada"), ids(ida.getInalcanzables()));
+
+        RecorridoRescate vuelta = grafo.planificarRecorrido("Base", zonas, true);
+        assertEquals(6.0, vuelta.getDistancia(), 1e-9);
+        assertEquals(5, vuelta.getParadas().size());
+        assertEquals("Base", vuelta.getParadas().get(4).getId());
+        assertEquals(7, vuelta.getCamino().size());
+        assertTrue(vuelta.getDistancia() <= vuelta.getDistanciaInicial());
+
+        // Con la jerarquía instalada el resultado es el mismo
+        grafo.prepararJerarquia();
+        assertEquals(3.0, grafo.planificarRecorrido("Base", zonas, false).getDistancia(), 1e-9);
+        assertEquals(6.0, grafo.planificarRecorrido("Base", zonas, true).getDistancia(), 1e-9);
+        assertThrows(IllegalArgumentException.class,
+                () -> grafo.planificarRecorrido("Nadie", zonas, true));
+    }
+
+    private static List<String> ids(List<Nodo> nodos) {
+        List<String> ids = new ArrayList<>();
+        for (Nodo n : nodos) ids.add(n.getId());
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Test 36: PersistenciaBinaria - Grafo binario proyectado en memoria")
+    public void testGrafoBinario() throws Exception {
+        Grafo grafo = new Grafo();
+        for (String id : new String[]{"Zona Ñuñoa", "B", "C", "Borrada"}) {
+            grafo.agregarNodo(new Nodo(id));
+        }
+        grafo.asignarCoordenadas("B", -33.45, -70.66);
+        grafo.agregarArista("Zona Ñuñoa", "B", 2.5);
+        grafo.agregarArista("B", "C", 1.0);
+        grafo.agregarArista("C", "Zona Ñuñoa", 4.0);
+        grafo.agregarArista("B", "Borrada", 1.0);
+        grafo.getVistaCompacta();
+        grafo.bloquearArista("C", "Zona Ñuñoa");
+        grafo.eliminarNodo("Borrada");   // queda como lápida en la vista
+
+        String archivo = "prueba-" + System.nanoTime() + ".grafo";
+        Path ruta = Paths.get("datos", archivo);
+        try {
+            assertTrue(PersistenciaBinaria.guardarGrafo(archivo, grafo, 77L));
+            assertNull(PersistenciaBinaria.cargarGrafo(archivo, 78L));
+
+            Grafo cargado = PersistenciaBinaria.cargarGrafo(archivo, 77L);
+            assertNotNull(cargado);
+            assertEquals(3, cargado.getNodos().size());
+            assertNull(cargado.getNodo("Borrada"));
+            assertEquals(3, cargado.getAristas().size());
+            assertEquals(Double.POSITIVE_INFINITY, cargado.getArista("C", "Zona Ñuñoa").getPeso());
+            assertEquals(-70.66, cargado.getNodo("B").getLongitud(), 1e-12);
+            assertFalse(cargado.getNodo("C").tieneCoordenadas());
+            assertEquals(grafo.getVistaSinLapidas().huella(), cargado.getVistaCompacta().huella());
+            assertEquals(3.5, cargado.distanciaMinima("Zona Ñuñoa", "C"), 1e-12);
+
+            // El grafo cargado se sigue modificando como cualquier otro
+            cargado.actualizarPeso("C", "Zona Ñuñoa", 4.0);
+            assertEquals(List.of("B", "C", "Zona Ñuñoa"), ids(cargado.dijkstra("B", "Zona Ñuñoa")));
+
+            // Un archivo truncado se descarta en lugar de fallar
+            byte[] contenido = Files.readAllBytes(ruta);
+            Files.write(ruta, Arrays.copyOf(contenido, contenido.length - 8));
+            assertNull(PersistenciaBinaria.cargarGrafo(archivo, 77L));
+        } finally {
+            Files.deleteIfExists(ruta);
+        }
+    }
+
     // ==============================
     // EJECUCIÓN DE TODAS LAS PRUEBAS
     // ==============================
@@ -328,6 +1768,266 @@ public class PruebasUnitarias {
             fallidas++;
         }
 
+        try {
+            System.out.print("Test 11: Grafo Vista Compacta... ");
+            pruebas.testGrafoVistaCompacta();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 12: Montículo Indexado... ");
+            pruebas.testMonticuloIndexado();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 13: Grafo Dijkstra Distancia Exacta... ");
+            pruebas.testGrafoDijkstraDistanciaExacta();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 14: Grafo Dijkstra Bidireccional... ");
+            pruebas.testGrafoDijkstraBidireccional();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 15: Grafo A*... ");
+            pruebas.testGrafoAEstrella();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 16: Grafo Contraction Hierarchies... ");
+            pruebas.testGrafoJerarquiaContraccion();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 17: Grafo A* con puntos de referencia... ");
+            pruebas.testGrafoPuntosReferencia();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 18: Grafo caché de árboles de caminos... ");
+            pruebas.testGrafoCacheArboles();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 19: Grafo matriz de distancias... ");
+            pruebas.testGrafoMatrizDistancias();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 20: Grafo refugio más cercano... ");
+            pruebas.testGrafoRefugioMasCercano();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 21: Grafo k rutas más cortas... ");
+            pruebas.testGrafoKRutasMasCortas();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 22: Grafo cierre de vías y cambios de peso... ");
+            pruebas.testGrafoActualizarPeso();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 23: Grafo eliminación de aristas y nodos... ");
+            pruebas.testGrafoEliminaciones();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 24: Sincronizador de grafo... ");
+            pruebas.testSincronizadorGrafo();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 25: Instantáneas del grafo... ");
+            pruebas.testGrafoInstantaneas();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 26: Delta-stepping paralelo... ");
+            pruebas.testDeltaStepping();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 27: Rutas en lote... ");
+            pruebas.testRutasEnLote();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 28: Regiones alcanzables... ");
+            pruebas.testRegionesAlcanzables();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 29: Componentes fuertemente conexas... ");
+            pruebas.testComponentesFuertes();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 30: Vías y zonas críticas... ");
+            pruebas.testPuntosCriticos();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 31: Centralidad de intermediación... ");
+            pruebas.testCentralidad();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 32: Planificador de evacuación... ");
+            pruebas.testPlanificadorEvacuacion();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 33: Rutas dependientes del tiempo... ");
+            pruebas.testRutasDependientesTiempo();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 34: Rutas Pareto distancia/riesgo... ");
+            pruebas.testRutasPareto();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 35: Recorrido de varias zonas... ");
+            pruebas.testPlanificarRecorrido();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
+        try {
+            System.out.print("Test 36: Grafo binario en memoria... ");
+            pruebas.testGrafoBinario();
+            System.out.println("✅ PASADO");
+            pasadas++;
+        } catch (Exception e) {
+            System.out.println("❌ FALLIDO: " + e.getMessage());
+            fallidas++;
+        }
+
         System.out.println("\n╔════════════════════════════════════════════╗");
         System.out.println(String.format("║  RESULTADOS: %d PASADAS | %d FALLIDAS      ║", pasadas, fallidas));
         System.out.println("╚════════════════════════════════════════════╝");